@@ -0,0 +1,26 @@
+package ems.app.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// attendance_id moved from IDENTITY to a pooled sequence; make sure the sequence starts past any existing rows
+@Component
+public class AttendanceSequenceInitializer implements ApplicationRunner {
+    private final JdbcTemplate jdbc;
+
+    @Autowired
+    public AttendanceSequenceInitializer(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        jdbc.queryForObject(
+            "SELECT setval('attendance_seq', GREATEST(" +
+            "(SELECT COALESCE(MAX(attendance_id), 0) FROM attendance), " +
+            "(SELECT last_value FROM attendance_seq)))", Long.class);
+    }
+}
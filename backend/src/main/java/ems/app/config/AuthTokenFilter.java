@@ -0,0 +1,106 @@
+package ems.app.config;
+
+import java.io.IOException;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import ems.app.dto.AuthContext;
+import ems.app.dto.AuthPrincipal;
+import ems.app.service.AuthContextService;
+import ems.app.service.TokenService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Resolves the Bearer token to an AuthPrincipal request attribute without touching the database, plus the caller's
+// AuthContext from the per-user cache (a query only on the first request after a change).
+// With ems.auth.required=true a missing, invalid or expired token is a 401; otherwise the request continues anonymously.
+@Component
+public class AuthTokenFilter extends OncePerRequestFilter {
+    public static final String PRINCIPAL_ATTRIBUTE = "ems.auth.principal";
+    public static final String CONTEXT_ATTRIBUTE = "ems.auth.context";
+    private static final String BEARER = "Bearer ";
+
+    private final TokenService tokenService;
+    private final AuthContextService authContexts;
+    private final boolean required;
+
+    @Autowired
+    public AuthTokenFilter(TokenService tokenService, AuthContextService authContexts,
+            @Value("${ems.auth.required:false}") boolean required) {
+        this.tokenService = tokenService;
+        this.authContexts = authContexts;
+        this.required = required;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (isPublic(request)) {
+            chain.doFilter(request, response);
+            return;
+        }
+        String token = token(request);
+        if (token == null || token.isBlank()) {
+            if (required) {
+                reject(response, "Authentication required");
+                return;
+            }
+            chain.doFilter(request, response);
+            return;
+        }
+
+        Optional<AuthPrincipal> principal = tokenService.verify(token);
+        if (principal.isEmpty()) {
+            if (required) {
+                reject(response, "Invalid or expired token");
+                return;
+            }
+            // A stale token left in the browser must not lock the user out of endpoints that work anonymously
+            chain.doFilter(request, response);
+            return;
+        }
+        AuthContext context = authContexts.resolve(principal.get().userId());
+        if (!context.active()) {
+            reject(response, "Account is not active");
+            return;
+        }
+        request.setAttribute(PRINCIPAL_ATTRIBUTE, principal.get());
+        request.setAttribute(CONTEXT_ATTRIBUTE, context);
+        chain.doFilter(request, response);
+    }
+
+    // EventSource cannot set headers, so an SSE subscription may carry the token as access_token instead
+    private static String token(HttpServletRequest request) {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header != null && header.startsWith(BEARER)) {
+            return header.substring(BEARER.length()).trim();
+        }
+        if (MediaType.TEXT_EVENT_STREAM_VALUE.equals(request.getHeader(HttpHeaders.ACCEPT))) {
+            return request.getParameter("access_token");
+        }
+        return null;
+    }
+
+    private static boolean isPublic(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return "OPTIONS".equals(request.getMethod())
+            || path.equals("/users/login")
+            || path.equals("/users/register")
+            || path.startsWith("/actuator/");
+    }
+
+    private static void reject(HttpServletResponse response, String message) throws IOException {
+        response.setStatus(HttpStatus.UNAUTHORIZED.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"message\":\"" + message + "\"}");
+    }
+}
@@ -0,0 +1,49 @@
+package ems.app.config;
+
+import java.time.Duration;
+import java.util.OptionalLong;
+
+import javax.cache.CacheManager;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.JCacheManagerCustomizer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+
+import ems.app.service.DepartmentAggregateService;
+
+// Hibernate second-level cache regions for employee and department lookups, plus the Spring cache for department
+// aggregates. Spring Boot hands this JCache manager to Hibernate, and cache.gets/cache.evictions for each region
+// show up under /actuator/metrics.
+@Configuration
+@EnableCaching
+public class EntityCacheConfig {
+
+    @Bean
+    public JCacheManagerCustomizer entityCacheRegions(
+            @Value("${ems.cache.employee.max-size:10000}") long employeeMaxSize,
+            @Value("${ems.cache.department.max-size:500}") long departmentMaxSize,
+            @Value("${ems.cache.expire-after-write:30m}") Duration expireAfterWrite,
+            @Value("${ems.cache.department-aggregates.ttl:5m}") Duration aggregatesTtl) {
+        return cacheManager -> {
+            createRegion(cacheManager, "employee", employeeMaxSize, expireAfterWrite);
+            createRegion(cacheManager, "employee-by-email", employeeMaxSize, expireAfterWrite);
+            createRegion(cacheManager, "department", departmentMaxSize, expireAfterWrite);
+            createRegion(cacheManager, "department-by-name", departmentMaxSize, expireAfterWrite);
+            createRegion(cacheManager, DepartmentAggregateService.CACHE, 1, aggregatesTtl);
+        };
+    }
+
+    private static void createRegion(CacheManager cacheManager, String name, long maxSize, Duration expireAfterWrite) {
+        CaffeineConfiguration<Object, Object> config = new CaffeineConfiguration<>();
+        config.setMaximumSize(OptionalLong.of(maxSize));
+        config.setExpireAfterWrite(OptionalLong.of(expireAfterWrite.toNanos()));
+        config.setStatisticsEnabled(true);
+        // JCache defaults to store-by-value, which would serialize a copy on every get and put
+        config.setStoreByValue(false);
+        cacheManager.createCache(name, config);
+    }
+}
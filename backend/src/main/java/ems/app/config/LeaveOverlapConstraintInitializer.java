@@ -0,0 +1,42 @@
+package ems.app.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// ddl-auto cannot express an exclusion constraint; PENDING/APPROVED leaves of one employee may not share a day
+@Component
+public class LeaveOverlapConstraintInitializer implements ApplicationRunner {
+    public static final String CONSTRAINT = "leaves_no_active_overlap";
+    private static final Logger log = LoggerFactory.getLogger(LeaveOverlapConstraintInitializer.class);
+
+    private final JdbcTemplate jdbc;
+
+    @Autowired
+    public LeaveOverlapConstraintInitializer(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Boolean exists = jdbc.queryForObject(
+            "SELECT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = ?)", Boolean.class, CONSTRAINT);
+        if (Boolean.TRUE.equals(exists)) {
+            return;
+        }
+        try {
+            jdbc.execute("CREATE EXTENSION IF NOT EXISTS btree_gist");
+            jdbc.execute("ALTER TABLE leaves ADD CONSTRAINT " + CONSTRAINT + " EXCLUDE USING gist (" +
+                "employee_id WITH =, daterange(start_date, end_date, '[]') WITH &&) " +
+                "WHERE (status IN ('PENDING', 'APPROVED'))");
+        } catch (DataAccessException e) {
+            // Typically existing overlapping rows; the EXISTS check still runs, but concurrent applications are not fenced
+            log.warn("Could not add {} to leaves; resolve overlapping PENDING/APPROVED leaves and restart", CONSTRAINT, e);
+        }
+    }
+}
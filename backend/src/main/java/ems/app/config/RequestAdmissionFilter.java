@@ -0,0 +1,80 @@
+package ems.app.config;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// With virtual threads Tomcat no longer caps concurrency at its thread pool, so every accepted request would go
+// straight to Hikari and queue there until connection-timeout. This puts the cap back at the edge: a fair semaphore
+// admits ems.web.max-concurrent-requests at a time (the Hikari pool size unless set) and answers 503 with Retry-After
+// once the wait passes ems.web.admission-timeout. Permits cover the synchronous part only; SSE and async responses
+// release on return.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class RequestAdmissionFilter extends OncePerRequestFilter {
+    private final Semaphore permits;
+    private final long timeoutNanos;
+
+    @Autowired
+    public RequestAdmissionFilter(
+            @Value("${ems.web.max-concurrent-requests:${spring.datasource.hikari.maximum-pool-size:10}}") int maxConcurrent,
+            @Value("${ems.web.admission-timeout:2s}") Duration timeout) {
+        if (maxConcurrent < 1) {
+            throw new IllegalArgumentException("ems.web.max-concurrent-requests must be positive");
+        }
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.timeoutNanos = timeout.toNanos();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean admitted;
+        try {
+            admitted = permits.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            admitted = false;
+        }
+        if (!admitted) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"message\":\"Server is busy, try again shortly\"}");
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+
+    // Health checks must still answer when the server is saturated
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length()).startsWith("/actuator/");
+    }
+
+    public int availablePermits() {
+        return permits.availablePermits();
+    }
+}
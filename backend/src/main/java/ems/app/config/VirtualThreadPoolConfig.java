@@ -0,0 +1,33 @@
+package ems.app.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+// Virtual-thread mode only: a request that does get past the admission filter but still finds the pool busy (a
+// scheduled job or a streaming export holds connections) should fail fast rather than park for Hikari's 30s default.
+// Platform mode keeps the default.
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadPoolConfig {
+
+    @Bean
+    public static BeanPostProcessor virtualThreadConnectionTimeout(
+            @Value("${ems.web.virtual.connection-timeout:5s}") Duration connectionTimeout) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource dataSource) {
+                    dataSource.setConnectionTimeout(connectionTimeout.toMillis());
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -2,14 +2,20 @@ package ems.app.controller;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -19,24 +25,50 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import ems.app.dto.AbsenceSweepResult;
+import ems.app.dto.AttendanceFilter;
+import ems.app.dto.AttendanceRow;
+import ems.app.dto.ClockEvent;
+import ems.app.dto.ClockEventResult;
+import ems.app.dto.CubeSlice;
+import ems.app.dto.CursorPage;
+import ems.app.dto.DepartmentPresence;
 import ems.app.model.AttendanceModel;
+import ems.app.model.AttendanceRollupModel;
 import ems.app.model.EmployeeModel;
+import ems.app.service.AttendanceCubeService;
+import ems.app.service.AttendanceRollupService;
 import ems.app.service.AttendanceService;
+import ems.app.service.ClockEventWriteBehind;
 import ems.app.service.EmployeeService;
 import jakarta.validation.Valid;
 
 @RestController
 @RequestMapping("/attendance")
-@CrossOrigin(origins = {"http://192.168.1.4:3000", "http://localhost:3000"})
 public class AttendanceContoller {
+
+    private static final int MAX_BATCH_SIZE = 10000;
+    private static final int MAX_PAGE_SIZE = 500;
     
     private final AttendanceService attService;
+    private final AttendanceRollupService rollupService;
+    private final AttendanceCubeService cubeService;
+    private final ClockEventWriteBehind writeBehind;
     private final EmployeeService empService;
     
     @Autowired
-    public AttendanceContoller(AttendanceService attService, EmployeeService empService) {
+    public AttendanceContoller(
+            AttendanceService attService,
+            AttendanceRollupService rollupService,
+            AttendanceCubeService cubeService,
+            ClockEventWriteBehind writeBehind,
+            EmployeeService empService) {
         this.attService = attService;
+        this.rollupService = rollupService;
+        this.cubeService = cubeService;
+        this.writeBehind = writeBehind;
         this.empService = empService;
     }
     
@@ -46,6 +78,111 @@ public class AttendanceContoller {
         return new ResponseEntity<>(attendances, HttpStatus.OK);
     }
     
+    @GetMapping("/page")
+    public ResponseEntity<CursorPage<AttendanceRow>> getAttendancePage(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) Long employeeId,
+            @RequestParam(required = false) Long departmentId,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        AttendanceFilter filter = (date != null)
+                ? new AttendanceFilter(date, date, employeeId, departmentId, status)
+                : new AttendanceFilter(startDate, endDate, employeeId, departmentId, status);
+        return pageOf(filter, cursor, size);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportAttendance(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) Long departmentId,
+            @RequestParam(defaultValue = "csv") String format) {
+        boolean ndjson = "ndjson".equalsIgnoreCase(format);
+        if (!ndjson && !"csv".equalsIgnoreCase(format)) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+
+        StreamingResponseBody body = out -> attService.exportAttendance(startDate, endDate, departmentId, ndjson, out);
+        String filename = "attendance-" + startDate + "-" + endDate + (ndjson ? ".ndjson" : ".csv");
+        return ResponseEntity.ok()
+                .contentType(ndjson ? MediaType.APPLICATION_NDJSON : MediaType.parseMediaType("text/csv"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(body);
+    }
+
+    @GetMapping("/summary/month")
+    public ResponseEntity<List<AttendanceRollupModel>> getMonthSummaries(
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth month,
+            @RequestParam(required = false) Long departmentId) {
+        List<AttendanceRollupModel> summaries = rollupService.getMonthSummaries(month, departmentId);
+        return new ResponseEntity<>(summaries, HttpStatus.OK);
+    }
+
+    @GetMapping("/summary/employee/{employeeId}")
+    public ResponseEntity<List<AttendanceRollupModel>> getEmployeeSummaries(
+            @PathVariable Long employeeId,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth from,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth to) {
+        List<AttendanceRollupModel> summaries = rollupService.getSummaryRange(employeeId, from, to);
+        return new ResponseEntity<>(summaries, HttpStatus.OK);
+    }
+
+    @GetMapping("/summary/employee/{employeeId}/{month}")
+    public ResponseEntity<AttendanceRollupModel> getEmployeeMonthSummary(
+            @PathVariable Long employeeId,
+            @PathVariable @DateTimeFormat(pattern = "yyyy-MM") YearMonth month) {
+        Optional<AttendanceRollupModel> summary = rollupService.getMonthlySummary(employeeId, month);
+        return summary.map(value -> new ResponseEntity<>(value, HttpStatus.OK))
+                .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    @PostMapping("/summary/rebuild")
+    public ResponseEntity<Map<String, Integer>> rebuildSummaries() {
+        int rows = rollupService.rebuild();
+        return new ResponseEntity<>(Map.of("rollups", rows), HttpStatus.OK);
+    }
+
+    @GetMapping("/cube/heatmap")
+    public ResponseEntity<List<DepartmentPresence>> getPresenceHeatmap(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        if (!cubeService.fitsWindow(startDate, endDate)) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        return new ResponseEntity<>(cubeService.getPresenceHeatmap(startDate, endDate), HttpStatus.OK);
+    }
+
+    @GetMapping("/cube/slice")
+    public ResponseEntity<CubeSlice> getCubeSlice(
+            @RequestParam(required = false) Long departmentId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        if (!cubeService.fitsWindow(startDate, endDate)) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        return new ResponseEntity<>(cubeService.getSlice(departmentId, startDate, endDate), HttpStatus.OK);
+    }
+
+    @GetMapping("/cube/worked-minutes")
+    public ResponseEntity<Long> getWorkedMinutes(
+            @RequestParam(required = false) Long departmentId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) String status) {
+        if (!cubeService.fitsWindow(startDate, endDate)) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        return new ResponseEntity<>(cubeService.getWorkedMinutes(departmentId, startDate, endDate, status), HttpStatus.OK);
+    }
+
+    @GetMapping("/cube/stats")
+    public ResponseEntity<Map<String, Object>> getCubeStats() {
+        return new ResponseEntity<>(cubeService.getStats(), HttpStatus.OK);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<AttendanceModel> getAttendanceById(@PathVariable Long id) {
         Optional<AttendanceModel> attendance = attService.getAttendanceById(id);
@@ -71,6 +208,14 @@ public class AttendanceContoller {
         return new ResponseEntity<>(attendances, HttpStatus.OK);
     }
     
+    @GetMapping("/date/{date}/page")
+    public ResponseEntity<CursorPage<AttendanceRow>> getAttendancePageByDate(
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        return pageOf(AttendanceFilter.forDate(date), cursor, size);
+    }
+    
     @GetMapping("/employee/{employeeId}/date-range")
     public ResponseEntity<List<AttendanceModel>> getAttendancesByEmployeeAndDateRange(
             @PathVariable Long employeeId,
@@ -92,6 +237,55 @@ public class AttendanceContoller {
         return new ResponseEntity<>(savedAttendance, HttpStatus.CREATED);
     }
     
+    @PostMapping("/batch")
+    public ResponseEntity<?> ingestClockEvents(@RequestBody List<ClockEvent> events) {
+        if (events.size() > MAX_BATCH_SIZE) {
+            return new ResponseEntity<>(HttpStatus.PAYLOAD_TOO_LARGE);
+        }
+
+        // Use current date and time for events that don't carry them
+        LocalDate today = LocalDate.now();
+        LocalTime now = LocalTime.now();
+        List<ClockEvent> normalized = new ArrayList<>(events.size());
+        for (ClockEvent event : events) {
+            normalized.add(new ClockEvent(
+                event.employeeId(),
+                event.type(),
+                event.date() != null ? event.date() : today,
+                event.time() != null ? event.time() : now));
+        }
+
+        if (writeBehind.isEnabled()) {
+            // The flusher reports per-event outcomes only to the dead-letter file, so malformed events are refused here
+            for (int i = 0; i < normalized.size(); i++) {
+                ClockEvent event = normalized.get(i);
+                if (event.employeeId() == null
+                        || !(ClockEvent.CLOCK_IN.equals(event.type()) || ClockEvent.CLOCK_OUT.equals(event.type()))) {
+                    return new ResponseEntity<>(
+                            Map.of("message", "Event " + i + " needs an employeeId and a CLOCK_IN or CLOCK_OUT type"),
+                            HttpStatus.BAD_REQUEST);
+                }
+            }
+            if (normalized.size() > writeBehind.getCapacity()) {
+                return new ResponseEntity<>(HttpStatus.PAYLOAD_TOO_LARGE);
+            }
+            if (writeBehind.appendAll(normalized) < 0) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").build();
+            }
+            return new ResponseEntity<>(HttpStatus.ACCEPTED);
+        }
+        writeBehind.flushPending();
+
+        Set<Long> employeeIds = normalized.stream()
+                .map(ClockEvent::employeeId)
+                .filter(id -> id != null)
+                .collect(Collectors.toSet());
+        Map<Long, EmployeeModel> employees = empService.getEmployeesByIds(employeeIds);
+
+        List<ClockEventResult> results = attService.ingestClockEvents(normalized, employees);
+        return new ResponseEntity<>(results, HttpStatus.OK);
+    }
+
     @PostMapping("/employee/{employeeId}/clock-in")
     public ResponseEntity<AttendanceModel> clockIn(
             @PathVariable Long employeeId,
@@ -105,6 +299,15 @@ public class AttendanceContoller {
         // Use current date and time if not provided
         LocalDate attendanceDate = (date != null) ? date : LocalDate.now();
         LocalTime clockInTime = (time != null) ? time : LocalTime.now();
+
+        // A full log is a 503, not a direct write: that could land ahead of events still waiting in the log
+        if (writeBehind.isEnabled()) {
+            if (writeBehind.append(new ClockEvent(employeeId, ClockEvent.CLOCK_IN, attendanceDate, clockInTime)) < 0) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").build();
+            }
+            return new ResponseEntity<>(HttpStatus.ACCEPTED);
+        }
+        writeBehind.flushPending();
         
         AttendanceModel attendance = attService.clockIn(employee.get(), attendanceDate, clockInTime);
         return new ResponseEntity<>(attendance, HttpStatus.OK);
@@ -123,6 +326,14 @@ public class AttendanceContoller {
         // Use current date and time if not provided
         LocalDate attendanceDate = (date != null) ? date : LocalDate.now();
         LocalTime clockOutTime = (time != null) ? time : LocalTime.now();
+
+        if (writeBehind.isEnabled()) {
+            if (writeBehind.append(new ClockEvent(employeeId, ClockEvent.CLOCK_OUT, attendanceDate, clockOutTime)) < 0) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").build();
+            }
+            return new ResponseEntity<>(HttpStatus.ACCEPTED);
+        }
+        writeBehind.flushPending();
         
         try {
             AttendanceModel attendance = attService.clockOut(employee.get(), attendanceDate, clockOutTime);
@@ -152,6 +363,14 @@ public ResponseEntity<Void> deleteAttendance(@PathVariable Long id) {
     return new ResponseEntity<>(HttpStatus.NO_CONTENT);
 }
 
+@PostMapping("/mark-absent")
+public ResponseEntity<AbsenceSweepResult> markAbsentForDate(
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+    LocalDate attendanceDate = (date != null) ? date : LocalDate.now();
+    AbsenceSweepResult result = attService.markAbsentForDate(attendanceDate);
+    return new ResponseEntity<>(result, HttpStatus.OK);
+}
+
 @PostMapping("/employee/{employeeId}/mark-absent")
 public ResponseEntity<AttendanceModel> markAbsent(
         @PathVariable Long employeeId,
@@ -168,4 +387,16 @@ public ResponseEntity<AttendanceModel> markAbsent(
     attService.markAbsent(employee.get(), date);
     return new ResponseEntity<>(HttpStatus.OK);
 }
+
+private ResponseEntity<CursorPage<AttendanceRow>> pageOf(AttendanceFilter filter, String cursor, int size) {
+    if (size < 1 || size > MAX_PAGE_SIZE) {
+        return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+    }
+    try {
+        CursorPage<AttendanceRow> page = attService.getAttendancePage(filter, cursor, size);
+        return new ResponseEntity<>(page, HttpStatus.OK);
+    } catch (IllegalArgumentException e) {
+        return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+    }
+}
 }
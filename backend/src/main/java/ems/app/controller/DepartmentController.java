@@ -1,20 +1,31 @@
 package ems.app.controller;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import ems.app.dto.DepartmentAggregate;
+import ems.app.dto.DepartmentHires;
+import ems.app.dto.DepartmentSummary;
+import ems.app.service.DepartmentAggregateService;
 import ems.app.service.DepartmentService;
 import ems.app.service.EmployeeService;
+import ems.app.service.NotFoundException;
 import jakarta.validation.Valid;
 import ems.app.model.DepartmentModel;
 import ems.app.model.EmployeeModel;
@@ -27,26 +38,51 @@ import org.springframework.web.bind.annotation.RequestBody;
 
 @RestController
 @RequestMapping("/departments")
-@CrossOrigin(origins = {"http://192.168.1.4:3000", "http://localhost:3000"})
 public class DepartmentController {
+    private static final Set<String> HIRE_PERIODS = Set.of("week", "month", "quarter", "year");
+
     private final DepartmentService deptService;
     private final EmployeeService empService;
+    private final DepartmentAggregateService aggregateService;
 
     @Autowired
     public DepartmentController(
         DepartmentService deptService,
-        EmployeeService empService
+        EmployeeService empService,
+        DepartmentAggregateService aggregateService
     ) {
         this.deptService = deptService;
         this.empService = empService;
+        this.aggregateService = aggregateService;
     }
 
     @GetMapping
-    public ResponseEntity<List<DepartmentModel>> getAllDepartments() {
-        List<DepartmentModel> departments = deptService.getAllDepartments();
+    public ResponseEntity<?> getAllDepartments(@RequestParam(defaultValue = "false") boolean full) {
+        // Full entities embed every employee through DepartmentModel.employees; only send them when explicitly asked for
+        if (full) {
+            List<DepartmentModel> departments = deptService.getAllDepartments();
+            return new ResponseEntity<>(departments, HttpStatus.OK);
+        }
+        List<DepartmentSummary> departments = deptService.getDepartmentSummaries();
         return new ResponseEntity<>(departments, HttpStatus.OK);
     }
 
+    @GetMapping("/aggregates")
+    public ResponseEntity<List<DepartmentAggregate>> getDepartmentAggregates() {
+        return new ResponseEntity<>(aggregateService.getAggregates(), HttpStatus.OK);
+    }
+
+    @GetMapping("/aggregates/hires")
+    public ResponseEntity<List<DepartmentHires>> getHiresByPeriod(
+            @RequestParam(defaultValue = "month") String period,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        if (!HIRE_PERIODS.contains(period) || endDate.isBefore(startDate)) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        return new ResponseEntity<>(aggregateService.getHires(period, startDate, endDate), HttpStatus.OK);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<DepartmentModel> getDepartmentById(@PathVariable Long id) {
         Optional<DepartmentModel> department = deptService.getDepartmentById(id);
@@ -83,6 +119,20 @@ public class DepartmentController {
         return new ResponseEntity<>(updatedDepartment, HttpStatus.OK);
     }
     
+    @PatchMapping("/{id}")
+    public ResponseEntity<?> patchDepartment(@PathVariable Long id, @RequestBody Map<String, Object> changes) {
+        try {
+            DepartmentModel department = deptService.patchDepartment(id, changes);
+            return new ResponseEntity<>(department, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(Map.of("message", e.getMessage()), HttpStatus.BAD_REQUEST);
+        } catch (DataIntegrityViolationException e) {
+            return new ResponseEntity<>(Map.of("message", "Update conflicts with an existing department"), HttpStatus.CONFLICT);
+        } catch (NotFoundException e) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+    }
+    
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteDepartment(@PathVariable Long id) {
         if (!deptService.getDepartmentById(id).isPresent()) {
@@ -1,25 +1,39 @@
 package ems.app.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import ems.app.dto.EmployeeSearchHit;
+import ems.app.dto.EmployeeSummary;
+import ems.app.dto.ImportReport;
+import ems.app.dto.OrgChartNode;
+import ems.app.dto.SpanOfControl;
 import ems.app.model.DepartmentModel;
 import ems.app.model.EmployeeModel;
 import ems.app.service.DepartmentService;
+import ems.app.service.EmployeeImportService;
+import ems.app.service.EmployeeSearchService;
 import ems.app.service.EmployeeService;
+import ems.app.service.MalformedCsvException;
+import ems.app.service.NotFoundException;
 import jakarta.validation.Valid;
 
-import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
@@ -29,21 +43,30 @@ import org.springframework.web.bind.annotation.RequestParam;
 
 @RestController
 @RequestMapping("/employee")
-@CrossOrigin(origins = {"http://192.168.1.4:3000", "http://localhost:3000"})
 public class EmployeeController {
     
     private final EmployeeService empService;
     private final DepartmentService deptService;
+    private final EmployeeSearchService searchService;
+    private final EmployeeImportService importService;
 
     @Autowired
-    public EmployeeController(EmployeeService empService, DepartmentService deptService) {
+    public EmployeeController(EmployeeService empService, DepartmentService deptService,
+            EmployeeSearchService searchService, EmployeeImportService importService) {
         this.empService = empService;
         this.deptService = deptService;
+        this.searchService = searchService;
+        this.importService = importService;
     }
 
     @GetMapping
-    public ResponseEntity<List<EmployeeModel>> getAllEmployees() {
-        List<EmployeeModel> employees = empService.getAllEmployees();
+    public ResponseEntity<?> getAllEmployees(@RequestParam(defaultValue = "false") boolean full) {
+        // Full entities serialize every managed collection; only send them when explicitly asked for
+        if (full) {
+            List<EmployeeModel> employees = empService.getAllEmployees();
+            return new ResponseEntity<>(employees, HttpStatus.OK);
+        }
+        List<EmployeeSummary> employees = empService.getEmployeeSummaries();
         return new ResponseEntity<>(employees, HttpStatus.OK);
     }
 
@@ -87,8 +110,14 @@ public class EmployeeController {
     }
     
     @GetMapping("/search")
-    public ResponseEntity<List<EmployeeModel>> searchEmployeesByName(@RequestParam String keyword) {
-        List<EmployeeModel> employees = empService.searchEmployeeByName(keyword);
+    public ResponseEntity<List<EmployeeSearchHit>> searchEmployeesByName(
+            @RequestParam String keyword,
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(defaultValue = "true") boolean fuzzy) {
+        if (limit < 1 || limit > 100) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        List<EmployeeSearchHit> employees = searchService.search(keyword, limit, fuzzy);
         return new ResponseEntity<>(employees, HttpStatus.OK);
     }
     
@@ -106,6 +135,30 @@ public class EmployeeController {
         return new ResponseEntity<>(savedEmployee, HttpStatus.CREATED);
     }
     
+    // Raw CSV (with a header row) or NDJSON body; ?dryRun=true only validates
+    @PostMapping("/import")
+    public ResponseEntity<?> importEmployees(
+            InputStream body,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean dryRun) throws IOException {
+        boolean ndjson = "ndjson".equalsIgnoreCase(format);
+        if (!ndjson && !"csv".equalsIgnoreCase(format)) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+
+        try {
+            ImportReport report = importService.importEmployees(body, ndjson, dryRun);
+            return new ResponseEntity<>(report, HttpStatus.OK);
+        } catch (MalformedCsvException e) {
+            return new ResponseEntity<>(Map.of("message", e.getMessage(), "line", e.getLine()), HttpStatus.BAD_REQUEST);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(Map.of("message", e.getMessage()), HttpStatus.BAD_REQUEST);
+        } catch (DataAccessException e) {
+            return new ResponseEntity<>(Map.of("message", "Import rolled back: " + e.getMostSpecificCause().getMessage()),
+                HttpStatus.CONFLICT);
+        }
+    }
+    
     @PutMapping("/{id}")
     public ResponseEntity<EmployeeModel> updateEmployee(
             @PathVariable Long id, @Valid @RequestBody EmployeeModel employee) {
@@ -117,6 +170,20 @@ public class EmployeeController {
         return new ResponseEntity<>(updatedEmployee, HttpStatus.OK);
     }
     
+    @PatchMapping("/{id}")
+    public ResponseEntity<?> patchEmployee(@PathVariable Long id, @RequestBody Map<String, Object> changes) {
+        try {
+            EmployeeModel employee = empService.patchEmployee(id, changes);
+            return new ResponseEntity<>(employee, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(Map.of("message", e.getMessage()), HttpStatus.BAD_REQUEST);
+        } catch (DataIntegrityViolationException e) {
+            return new ResponseEntity<>(Map.of("message", "Update conflicts with an existing employee"), HttpStatus.CONFLICT);
+        } catch (NotFoundException e) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+    }
+    
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteEmployee(@PathVariable Long id) {
         if (!empService.getEmployeeById(id).isPresent()) {
@@ -143,7 +210,7 @@ public class EmployeeController {
     }
     
     @PutMapping("/{employeeId}/manager/{managerId}")
-    public ResponseEntity<EmployeeModel> assignManager(
+    public ResponseEntity<?> assignManager(
             @PathVariable Long employeeId, @PathVariable Long managerId) {
         Optional<EmployeeModel> manager = empService.getEmployeeById(managerId);
         if (!manager.isPresent()) {
@@ -153,11 +220,40 @@ public class EmployeeController {
         try {
             EmployeeModel employee = empService.assignManager(employeeId, manager.get());
             return new ResponseEntity<>(employee, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(Map.of("message", e.getMessage()), HttpStatus.CONFLICT);
         } catch (RuntimeException e) {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
     }
     
+    @GetMapping("/{id}/subtree")
+    public ResponseEntity<List<OrgChartNode>> getSubtree(
+            @PathVariable Long id, @RequestParam(defaultValue = "64") int depth) {
+        if (depth < 0) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        List<OrgChartNode> nodes = empService.getSubtree(id, depth);
+        if (nodes.isEmpty()) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        return new ResponseEntity<>(nodes, HttpStatus.OK);
+    }
+
+    @GetMapping("/{id}/chain-of-command")
+    public ResponseEntity<List<OrgChartNode>> getChainOfCommand(@PathVariable Long id) {
+        List<OrgChartNode> chain = empService.getChainOfCommand(id);
+        if (chain.isEmpty()) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        return new ResponseEntity<>(chain, HttpStatus.OK);
+    }
+
+    @GetMapping("/span-of-control")
+    public ResponseEntity<List<SpanOfControl>> getSpanOfControl(@RequestParam(required = false) Long managerId) {
+        return new ResponseEntity<>(empService.getSpanOfControl(managerId), HttpStatus.OK);
+    }
+
     @PutMapping("/{employeeId}/status/{status}")
     public ResponseEntity<EmployeeModel> updateEmployeeStatus(
             @PathVariable Long employeeId, @PathVariable String status) {
@@ -2,40 +2,63 @@ package ems.app.controller;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import ems.app.config.AuthTokenFilter;
+import ems.app.dto.AuthContext;
+import ems.app.dto.BulkLeaveReport;
+import ems.app.dto.BulkLeaveRequest;
+import ems.app.dto.CursorPage;
+import ems.app.dto.LeaveBalanceRow;
+import ems.app.dto.PendingLeave;
+import ems.app.dto.TeamLeaveCalendar;
 import ems.app.model.EmployeeModel;
+import ems.app.model.LeaveBalanceModel;
 import ems.app.model.LeaveModel;
 import ems.app.service.EmployeeService;
+import ems.app.service.LeaveBalanceService;
+import ems.app.service.LeaveCalendarService;
+import ems.app.service.LeaveQueueService;
 import ems.app.service.LeaveService;
 
 @RestController
 @RequestMapping("/leave")
-@CrossOrigin(origins = {"http://192.168.1.4:3000", "http://localhost:3000"})
 public class LeaveController {
+    private static final int MAX_QUEUE_PAGE_SIZE = 200;
+
     private final LeaveService lvService;
     private final EmployeeService empService;
+    private final LeaveBalanceService balanceService;
+    private final LeaveCalendarService calendarService;
+    private final LeaveQueueService queueService;
     
     @Autowired
-    public LeaveController(LeaveService lvService, EmployeeService empService) {
+    public LeaveController(LeaveService lvService, EmployeeService empService, LeaveBalanceService balanceService,
+            LeaveCalendarService calendarService, LeaveQueueService queueService) {
         this.lvService = lvService;
         this.empService = empService;
+        this.balanceService = balanceService;
+        this.calendarService = calendarService;
+        this.queueService = queueService;
     }
     
     @GetMapping("/{id}")
@@ -69,6 +92,49 @@ public class LeaveController {
         return ResponseEntity.ok(leaves);
     }
     
+    // Pending requests from the manager's whole reporting line, oldest first; pass nextCursor back for the next page
+    @GetMapping("/queue")
+    public ResponseEntity<CursorPage<PendingLeave>> getApprovalQueue(
+            @RequestParam Long managerId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestAttribute(name = AuthTokenFilter.CONTEXT_ATTRIBUTE, required = false) AuthContext actor) {
+        checkQueueOwner(actor, managerId);
+        if (size < 1 || size > MAX_QUEUE_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "size must be between 1 and " + MAX_QUEUE_PAGE_SIZE);
+        }
+        try {
+            return ResponseEntity.ok(queueService.getQueue(managerId, cursor, size));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+    
+    // Pushes "leave" events (ADDED / REMOVED) for the manager's queue instead of polling /status/PENDING
+    @GetMapping(path = "/queue/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamApprovalQueue(@RequestParam Long managerId,
+            @RequestAttribute(name = AuthTokenFilter.CONTEXT_ATTRIBUTE, required = false) AuthContext actor) {
+        checkQueueOwner(actor, managerId);
+        if (empService.getEmployeeById(managerId).isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Manager not found");
+        }
+        return queueService.subscribe(managerId);
+    }
+    
+    // One request for a whole month view instead of one /date/{date} call per day
+    @GetMapping("/calendar")
+    public ResponseEntity<TeamLeaveCalendar> getTeamCalendar(
+            @RequestParam(required = false) Long departmentId,
+            @RequestParam(required = false) Long managerId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        try {
+            return ResponseEntity.ok(calendarService.getCalendar(departmentId, managerId, startDate, endDate));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+    
     @PostMapping
     public ResponseEntity<LeaveModel> applyForLeave(@RequestBody LeaveModel leave) {
         try {
@@ -82,15 +148,19 @@ public class LeaveController {
     @PutMapping("/{id}/approve")
     public ResponseEntity<LeaveModel> approveLeave(
             @PathVariable Long id, 
-            @RequestParam Long approverId) {
+            @RequestParam Long approverId,
+            @RequestAttribute(name = AuthTokenFilter.CONTEXT_ATTRIBUTE, required = false) AuthContext actor) {
+        checkReviewer(actor, approverId);
         try {
             Optional<EmployeeModel> approverOpt = empService.getEmployeeById(approverId);
             if (approverOpt.isEmpty()) {
                 throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Approver not found");
             }
             
-            LeaveModel approvedLeave = lvService.approveLeave(id, approverOpt.get());
+            LeaveModel approvedLeave = lvService.approveLeave(id, approverOpt.get(), actor);
             return ResponseEntity.ok(approvedLeave);
+        } catch (SecurityException e) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, e.getMessage());
         } catch (RuntimeException e) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
         }
@@ -99,30 +169,82 @@ public class LeaveController {
     @PutMapping("/{id}/reject")
     public ResponseEntity<LeaveModel> rejectLeave(
             @PathVariable Long id, 
-            @RequestParam Long reviewerId) {
+            @RequestParam Long reviewerId,
+            @RequestAttribute(name = AuthTokenFilter.CONTEXT_ATTRIBUTE, required = false) AuthContext actor) {
+        checkReviewer(actor, reviewerId);
         try {
             Optional<EmployeeModel> reviewerOpt = empService.getEmployeeById(reviewerId);
             if (reviewerOpt.isEmpty()) {
                 throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Reviewer not found");
             }
             
-            LeaveModel rejectedLeave = lvService.rejectedLeave(id, reviewerOpt.get());
+            LeaveModel rejectedLeave = lvService.rejectedLeave(id, reviewerOpt.get(), actor);
             return ResponseEntity.ok(rejectedLeave);
+        } catch (SecurityException e) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, e.getMessage());
         } catch (RuntimeException e) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
         }
     }
     
     @PutMapping("/{id}/cancel")
-    public ResponseEntity<LeaveModel> cancelLeave(@PathVariable Long id) {
+    public ResponseEntity<LeaveModel> cancelLeave(@PathVariable Long id,
+            @RequestAttribute(name = AuthTokenFilter.CONTEXT_ATTRIBUTE, required = false) AuthContext actor) {
+        requireActor(actor);
         try {
-            LeaveModel canceledLeave = lvService.cancelLeave(id);
+            LeaveModel canceledLeave = lvService.cancelLeave(id, actor);
             return ResponseEntity.ok(canceledLeave);
+        } catch (SecurityException e) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, e.getMessage());
         } catch (RuntimeException e) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
         }
     }
     
+    // Approving a batch costs one round trip and a fixed number of queries, however many ids it holds
+    @PutMapping("/bulk/approve")
+    public ResponseEntity<BulkLeaveReport> approveLeaves(@RequestBody BulkLeaveRequest request,
+            @RequestAttribute(name = AuthTokenFilter.CONTEXT_ATTRIBUTE, required = false) AuthContext actor) {
+        if (request.reviewerId() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "reviewerId is required");
+        }
+        checkReviewer(actor, request.reviewerId());
+        EmployeeModel approver = empService.getEmployeeById(request.reviewerId())
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Approver not found"));
+        try {
+            return ResponseEntity.ok(lvService.approveLeaves(request.leaveIds(), approver, actor));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+    
+    @PutMapping("/bulk/reject")
+    public ResponseEntity<BulkLeaveReport> rejectLeaves(@RequestBody BulkLeaveRequest request,
+            @RequestAttribute(name = AuthTokenFilter.CONTEXT_ATTRIBUTE, required = false) AuthContext actor) {
+        if (request.reviewerId() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "reviewerId is required");
+        }
+        checkReviewer(actor, request.reviewerId());
+        EmployeeModel reviewer = empService.getEmployeeById(request.reviewerId())
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Reviewer not found"));
+        try {
+            return ResponseEntity.ok(lvService.rejectLeaves(request.leaveIds(), reviewer, actor));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+    
+    @PutMapping("/bulk/cancel")
+    public ResponseEntity<BulkLeaveReport> cancelLeaves(@RequestBody BulkLeaveRequest request,
+            @RequestAttribute(name = AuthTokenFilter.CONTEXT_ATTRIBUTE, required = false) AuthContext actor) {
+        requireActor(actor);
+        try {
+            return ResponseEntity.ok(lvService.cancelLeaves(request.leaveIds(), actor));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+    
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteLeave(@PathVariable Long id) {
         try {
@@ -148,6 +270,36 @@ public class LeaveController {
         return ResponseEntity.ok(usedLeaves);
     }
     
+    @GetMapping("/balance")
+    public ResponseEntity<LeaveBalanceModel> getBalance(
+            @RequestParam Long employeeId,
+            @RequestParam String leaveType,
+            @RequestParam Integer year) {
+        Optional<LeaveBalanceModel> balance = balanceService.getBalance(employeeId, leaveType, year);
+        return balance.map(ResponseEntity::ok)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "No balance for this employee, leave type and year"));
+    }
+    
+    @GetMapping("/balances")
+    public ResponseEntity<List<LeaveBalanceRow>> getBalanceReport(
+            @RequestParam Integer year,
+            @RequestParam(required = false) String leaveType,
+            @RequestParam(required = false) Long departmentId) {
+        return ResponseEntity.ok(balanceService.getReport(year, leaveType, departmentId));
+    }
+    
+    @PostMapping("/balances/reconcile")
+    public ResponseEntity<Map<String, Integer>> reconcileBalances() {
+        int corrected = balanceService.reconcile();
+        return new ResponseEntity<>(Map.of("corrected", corrected), HttpStatus.OK);
+    }
+    
+    @PostMapping("/balances/rebuild")
+    public ResponseEntity<Map<String, Integer>> rebuildBalances() {
+        int rows = balanceService.rebuild();
+        return new ResponseEntity<>(Map.of("balances", rows), HttpStatus.OK);
+    }
+    
     @GetMapping("/check-overlap")
     public ResponseEntity<Boolean> checkOverlappingLeaves(
             @RequestParam Long employeeId,
@@ -162,4 +314,28 @@ public class LeaveController {
         boolean hasOverlap = lvService.hasOverlappingLeaves(employeeOpt.get(), startDate, endDate);
         return ResponseEntity.ok(hasOverlap);
     }
+    
+    // Reviews, cancellations and approval queues act on other people's leave, so they need a token even when
+    // ems.auth.required=false; a missing one would otherwise skip every permission check
+    private static void requireActor(AuthContext actor) {
+        if (actor == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Authentication required");
+        }
+    }
+
+    // Only ADMIN/HR may record a review under someone else's employee id
+    private static void checkReviewer(AuthContext actor, Long reviewerId) {
+        requireActor(actor);
+        if (!actor.hasAnyRole("ADMIN", "HR") && !reviewerId.equals(actor.employeeId())) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Reviews must be recorded under your own employee id");
+        }
+    }
+
+    // A queue is visible to its manager, to anyone above that manager, and to ADMIN/HR
+    private static void checkQueueOwner(AuthContext actor, Long managerId) {
+        requireActor(actor);
+        if (!actor.hasAnyRole("ADMIN", "HR") && !managerId.equals(actor.employeeId()) && !actor.manages(managerId)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Not allowed to view this approval queue");
+        }
+    }
 }
@@ -1,40 +1,56 @@
 package ems.app.controller;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestAttribute;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import ems.app.config.AuthTokenFilter;
+import ems.app.dto.AuthPrincipal;
+import ems.app.dto.LoginResponse;
 import ems.app.model.EmployeeModel;
 import ems.app.model.UserModel;
 import ems.app.service.EmployeeService;
+import ems.app.service.LoginService;
+import ems.app.service.NotFoundException;
+import ems.app.service.TokenService;
 import ems.app.service.UserService;
 import jakarta.validation.Valid;
 
 @RestController
 @RequestMapping("/users")
-@CrossOrigin(origins = {"http://192.168.1.4:3000", "http://localhost:3000"})
 public class UserController {
     
     private final UserService usrService;
     private final EmployeeService empService;
+    private final TokenService tokenService;
+    private final LoginService loginService;
     
     @Autowired
-    public UserController(UserService usrService, EmployeeService empService) {
+    public UserController(UserService usrService, EmployeeService empService, TokenService tokenService,
+            LoginService loginService) {
         this.usrService = usrService;
         this.empService = empService;
+        this.tokenService = tokenService;
+        this.loginService = loginService;
     }
     
     @GetMapping
@@ -80,26 +96,47 @@ public class UserController {
         }
     }
     
+    // Async: the servlet thread is released while the hash is verified on the login pool
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody Map<String, String> credentials) {
+    public CompletableFuture<ResponseEntity<?>> login(@RequestBody Map<String, String> credentials) {
         String username = credentials.get("username");
         String password = credentials.get("password");
         
         if (username == null || password == null) {
-            return new ResponseEntity<>(Map.of("message", "Username and password are required"), 
-                    HttpStatus.BAD_REQUEST);
+            return CompletableFuture.completedFuture(new ResponseEntity<>(
+                    Map.of("message", "Username and password are required"), HttpStatus.BAD_REQUEST));
         }
         
-        boolean isAuthenticated = usrService.authenticate(username, password);
-        if (isAuthenticated) {
-            Optional<UserModel> user = usrService.getUserByUsername(username);
-            return new ResponseEntity<>(user.get(), HttpStatus.OK);
-        } else {
-            return new ResponseEntity<>(Map.of("message", "Invalid credentials"), 
-                    HttpStatus.UNAUTHORIZED);
+        try {
+            return loginService.login(username, password).thenApply(user -> user
+                    .<ResponseEntity<?>>map(u -> new ResponseEntity<>(loginResponse(u), HttpStatus.OK))
+                    .orElseGet(() -> new ResponseEntity<>(Map.of("message", "Invalid credentials"),
+                            HttpStatus.UNAUTHORIZED)));
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(Map.of("message", "Too many logins in progress, try again shortly")));
         }
     }
     
+    private LoginResponse loginResponse(UserModel u) {
+        EmployeeModel emp = u.getEmployee();
+        LoginResponse.EmployeeRef employee = emp == null ? null
+                : new LoginResponse.EmployeeRef(emp.getEmployeeId(), emp.getFirstName(), emp.getLastName());
+        return new LoginResponse(u.getUserId(), u.getUsername(), u.getEmail(), u.getRole(), u.getStatus(),
+                employee, tokenService.issue(u), Instant.now().plus(tokenService.getTokenTtl()));
+    }
+    
+    // Identity straight from the verified token; no database read
+    @GetMapping("/me")
+    public ResponseEntity<AuthPrincipal> me(
+            @RequestAttribute(name = AuthTokenFilter.PRINCIPAL_ATTRIBUTE, required = false) AuthPrincipal principal) {
+        if (principal == null) {
+            return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
+        }
+        return new ResponseEntity<>(principal, HttpStatus.OK);
+    }
+    
     @PutMapping("/{id}")
     public ResponseEntity<?> updateUser(@PathVariable Long id, @Valid @RequestBody UserModel user) {
         if (!usrService.getUserById(id).isPresent()) {
@@ -111,6 +148,20 @@ public class UserController {
         return new ResponseEntity<>(updatedUser, HttpStatus.OK);
     }
     
+    @PatchMapping("/{id}")
+    public ResponseEntity<?> patchUser(@PathVariable Long id, @RequestBody Map<String, Object> changes) {
+        try {
+            UserModel user = usrService.patchUser(id, changes);
+            return new ResponseEntity<>(user, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(Map.of("message", e.getMessage()), HttpStatus.BAD_REQUEST);
+        } catch (DataIntegrityViolationException e) {
+            return new ResponseEntity<>(Map.of("message", "Update conflicts with an existing user"), HttpStatus.CONFLICT);
+        } catch (NotFoundException e) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+    }
+    
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteUser(@PathVariable Long id) {
         if (!usrService.getUserById(id).isPresent()) {
@@ -0,0 +1,11 @@
+package ems.app.dto;
+
+import java.time.LocalDate;
+
+public record AbsenceSweepResult(
+    LocalDate date,
+    int markedAbsent,
+    int markedOnLeave,
+    long elapsedMillis
+) {
+}
@@ -0,0 +1,24 @@
+package ems.app.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+
+// Opaque keyset position: the (date, attendance_id) of the last row on the previous page
+public record AttendanceCursor(LocalDate date, Long attendanceId) {
+
+    public String encode() {
+        String raw = date + "|" + attendanceId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static AttendanceCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            return new AttendanceCursor(LocalDate.parse(parts[0]), Long.valueOf(parts[1]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package ems.app.dto;
+
+import java.time.LocalDate;
+
+public record AttendanceFilter(
+    LocalDate startDate,
+    LocalDate endDate,
+    Long employeeId,
+    Long departmentId,
+    String status
+) {
+    public static AttendanceFilter forDate(LocalDate date) {
+        return new AttendanceFilter(date, date, null, null, null);
+    }
+}
@@ -0,0 +1,16 @@
+package ems.app.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+public record AttendanceRow(
+    Long attendanceId,
+    Long employeeId,
+    LocalDate date,
+    LocalTime clockIn,
+    LocalTime clockOut,
+    String status,
+    BigDecimal workingHrs
+) {
+}
@@ -0,0 +1,36 @@
+package ems.app.dto;
+
+import java.util.Set;
+
+// Everything a permission check needs about the caller, resolved once and cached per user; checks are pure lookups
+public record AuthContext(
+    Long userId,
+    String role,
+    boolean active,
+    Long employeeId,
+    Long departmentId,
+    Set<Long> reports
+) {
+    public boolean hasAnyRole(String... roles) {
+        for (String candidate : roles) {
+            if (candidate.equals(role)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Direct or indirect report of the caller
+    public boolean manages(Long otherEmployeeId) {
+        return otherEmployeeId != null && reports.contains(otherEmployeeId);
+    }
+
+    // ADMIN and HR review anyone's leave; everyone else only their reports', never their own
+    public boolean canReview(Long leaveEmployeeId) {
+        return hasAnyRole("ADMIN", "HR") || manages(leaveEmployeeId);
+    }
+
+    public boolean canCancel(Long leaveEmployeeId) {
+        return canReview(leaveEmployeeId) || (employeeId != null && employeeId.equals(leaveEmployeeId));
+    }
+}
@@ -0,0 +1,13 @@
+package ems.app.dto;
+
+import java.time.Instant;
+
+// Identity carried by a verified session token; everything a request needs without reading the users table
+public record AuthPrincipal(
+    Long userId,
+    String username,
+    String role,
+    Long employeeId,
+    Instant expiresAt
+) {
+}
@@ -0,0 +1,12 @@
+package ems.app.dto;
+
+import java.util.List;
+
+public record BulkLeaveReport(
+    int requested,
+    int updated,
+    int notFound,
+    int skipped,
+    List<LeaveTransitionOutcome> outcomes
+) {
+}
@@ -0,0 +1,9 @@
+package ems.app.dto;
+
+import java.util.List;
+
+public record BulkLeaveRequest(
+    List<Long> leaveIds,
+    Long reviewerId
+) {
+}
@@ -0,0 +1,14 @@
+package ems.app.dto;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+public record ClockEvent(
+    Long employeeId,
+    String type,
+    LocalDate date,
+    LocalTime time
+) {
+    public static final String CLOCK_IN = "CLOCK_IN";
+    public static final String CLOCK_OUT = "CLOCK_OUT";
+}
@@ -0,0 +1,17 @@
+package ems.app.dto;
+
+public record ClockEventResult(
+    int index,
+    Long employeeId,
+    String outcome,
+    Long attendanceId,
+    String message
+) {
+    public static ClockEventResult ok(int index, Long employeeId, Long attendanceId) {
+        return new ClockEventResult(index, employeeId, "OK", attendanceId, null);
+    }
+
+    public static ClockEventResult failed(int index, Long employeeId, String outcome, String message) {
+        return new ClockEventResult(index, employeeId, outcome, null, message);
+    }
+}
@@ -0,0 +1,16 @@
+package ems.app.dto;
+
+import java.time.LocalDate;
+
+public record CubeSlice(
+    Long departmentId,
+    LocalDate startDate,
+    LocalDate endDate,
+    int[] present,
+    int[] absent,
+    int[] late,
+    int[] onLeave,
+    double[] presenceRate,
+    long workedMinutes
+) {
+}
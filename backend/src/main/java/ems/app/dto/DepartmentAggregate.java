@@ -0,0 +1,18 @@
+package ems.app.dto;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+public record DepartmentAggregate(
+    Long departmentId,
+    String departmentName,
+    long headcount,
+    long active,
+    long inactive,
+    Map<String, Long> statusCounts,
+    BigDecimal salarySum,
+    BigDecimal salaryAvg,
+    BigDecimal salaryMin,
+    BigDecimal salaryMax
+) {
+}
@@ -0,0 +1,10 @@
+package ems.app.dto;
+
+import java.time.LocalDate;
+
+public record DepartmentHires(
+    Long departmentId,
+    LocalDate periodStart,
+    long hires
+) {
+}
@@ -0,0 +1,10 @@
+package ems.app.dto;
+
+import java.time.LocalDate;
+
+public record DepartmentPresence(
+    Long departmentId,
+    LocalDate startDate,
+    double[] presenceRate
+) {
+}
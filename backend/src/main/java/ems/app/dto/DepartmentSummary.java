@@ -0,0 +1,11 @@
+package ems.app.dto;
+
+public record DepartmentSummary(
+    Long departmentId,
+    String departmentName,
+    String location,
+    Long managerId,
+    String managerName,
+    Long headcount
+) {
+}
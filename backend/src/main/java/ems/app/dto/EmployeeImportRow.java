@@ -0,0 +1,19 @@
+package ems.app.dto;
+
+// Raw import values; everything stays a string so a bad date or number is reported per row instead of aborting the stream
+public record EmployeeImportRow(
+    String firstName,
+    String lastName,
+    String email,
+    String contactNo,
+    String hiredDate,
+    String jobTitle,
+    String salary,
+    String address,
+    String dateOfBirth,
+    String gender,
+    String status,
+    String department,
+    String managerEmail
+) {
+}
@@ -0,0 +1,10 @@
+package ems.app.dto;
+
+public record EmployeeSearchHit(
+    Long employeeId,
+    String firstName,
+    String lastName,
+    String email,
+    double score
+) {
+}
@@ -0,0 +1,18 @@
+package ems.app.dto;
+
+import java.time.LocalDate;
+
+public record EmployeeSummary(
+    Long employeeId,
+    String firstName,
+    String lastName,
+    String email,
+    String contactNo,
+    String jobTitle,
+    String status,
+    LocalDate hiredDate,
+    Long departmentId,
+    String departmentName,
+    Long managerId
+) {
+}
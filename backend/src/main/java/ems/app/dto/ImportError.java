@@ -0,0 +1,8 @@
+package ems.app.dto;
+
+public record ImportError(
+    long line,
+    String email,
+    String message
+) {
+}
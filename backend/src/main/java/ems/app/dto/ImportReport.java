@@ -0,0 +1,13 @@
+package ems.app.dto;
+
+import java.util.List;
+
+public record ImportReport(
+    long totalRows,
+    long imported,
+    long failed,
+    boolean dryRun,
+    List<ImportError> errors,
+    boolean errorsTruncated
+) {
+}
@@ -0,0 +1,10 @@
+package ems.app.dto;
+
+public record LeaveBalanceDelta(
+    Long employeeId,
+    String leaveType,
+    int year,
+    int usedDelta,
+    int pendingDelta
+) {
+}
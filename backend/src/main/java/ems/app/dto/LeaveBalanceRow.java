@@ -0,0 +1,16 @@
+package ems.app.dto;
+
+public record LeaveBalanceRow(
+    Long employeeId,
+    String employeeName,
+    String departmentName,
+    String leaveType,
+    Integer year,
+    Integer allowanceDays,
+    Integer usedDays,
+    Integer pendingDays
+) {
+    public int remainingDays() {
+        return allowanceDays - usedDays - pendingDays;
+    }
+}
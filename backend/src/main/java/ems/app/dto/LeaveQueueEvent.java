@@ -0,0 +1,10 @@
+package ems.app.dto;
+
+// ADDED carries the pending request; REMOVED means it left the queue and gives the status it moved to
+public record LeaveQueueEvent(
+    String type,
+    Long leaveId,
+    String status,
+    PendingLeave leave
+) {
+}
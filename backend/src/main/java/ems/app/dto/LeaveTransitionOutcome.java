@@ -0,0 +1,8 @@
+package ems.app.dto;
+
+public record LeaveTransitionOutcome(
+    Long leaveId,
+    String outcome,
+    String status
+) {
+}
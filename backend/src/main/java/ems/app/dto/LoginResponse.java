@@ -0,0 +1,17 @@
+package ems.app.dto;
+
+import java.time.Instant;
+
+public record LoginResponse(
+    Long userId,
+    String username,
+    String email,
+    String role,
+    String status,
+    EmployeeRef employee,
+    String token,
+    Instant expiresAt
+) {
+    public record EmployeeRef(Long employeeId, String firstName, String lastName) {
+    }
+}
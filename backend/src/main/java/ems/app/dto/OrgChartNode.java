@@ -0,0 +1,11 @@
+package ems.app.dto;
+
+public record OrgChartNode(
+    Long employeeId,
+    String firstName,
+    String lastName,
+    String jobTitle,
+    Long managerId,
+    int depth
+) {
+}
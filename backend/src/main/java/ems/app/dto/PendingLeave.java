@@ -0,0 +1,17 @@
+package ems.app.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+public record PendingLeave(
+    Long leaveId,
+    Long employeeId,
+    String employeeName,
+    String leaveType,
+    LocalDate startDate,
+    LocalDate endDate,
+    Integer totalDays,
+    String reason,
+    LocalDateTime createdAt
+) {
+}
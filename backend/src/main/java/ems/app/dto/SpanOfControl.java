@@ -0,0 +1,9 @@
+package ems.app.dto;
+
+public record SpanOfControl(
+    Long managerId,
+    long directReports,
+    long totalReports,
+    int levels
+) {
+}
@@ -0,0 +1,12 @@
+package ems.app.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public record TeamLeaveCalendar(
+    LocalDate startDate,
+    LocalDate endDate,
+    int teamSize,
+    List<TeamLeaveDay> days
+) {
+}
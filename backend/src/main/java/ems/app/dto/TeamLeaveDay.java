@@ -0,0 +1,12 @@
+package ems.app.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public record TeamLeaveDay(
+    LocalDate date,
+    int approved,
+    int pending,
+    List<TeamLeaveEntry> onLeave
+) {
+}
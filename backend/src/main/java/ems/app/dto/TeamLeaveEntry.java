@@ -0,0 +1,10 @@
+package ems.app.dto;
+
+public record TeamLeaveEntry(
+    Long leaveId,
+    Long employeeId,
+    String employeeName,
+    String leaveType,
+    String status
+) {
+}
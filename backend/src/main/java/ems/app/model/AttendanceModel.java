@@ -12,12 +12,16 @@ import com.fasterxml.jackson.annotation.JsonBackReference;
 @Entity
 @Table(name = "attendance", uniqueConstraints = {
     @UniqueConstraint(columnNames = {"employee_id", "date"})
+}, indexes = {
+    @Index(name = "idx_attendance_date_id", columnList = "date, attendance_id"),
+    @Index(name = "idx_attendance_status_date", columnList = "status, date, attendance_id")
 })
 @Data
 public class AttendanceModel {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "attendance_seq")
+    @SequenceGenerator(name = "attendance_seq", sequenceName = "attendance_seq", allocationSize = 50)
     @Column(name = "attendance_id")
     private Long attendance_id;
 
@@ -0,0 +1,43 @@
+package ems.app.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "attendance_monthly_rollup", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"employee_id", "month_start"})
+}, indexes = {
+    @Index(name = "idx_rollup_month_employee", columnList = "month_start, employee_id")
+})
+@Data
+public class AttendanceRollupModel {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "rollup_id")
+    private Long rollupId;
+
+    @Column(name = "employee_id", nullable = false)
+    private Long employeeId;
+
+    @Column(name = "month_start", nullable = false)
+    private LocalDate monthStart;
+
+    @Column(name = "total_working_hours", nullable = false)
+    private BigDecimal totalWorkingHours = BigDecimal.ZERO;
+
+    @Column(name = "present_count", nullable = false)
+    private Integer presentCount = 0;
+
+    @Column(name = "absent_count", nullable = false)
+    private Integer absentCount = 0;
+
+    @Column(name = "late_count", nullable = false)
+    private Integer lateCount = 0;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -5,11 +5,21 @@ import lombok.Data;
 import java.time.LocalDateTime;
 import java.util.*;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 
 @Entity
 @Table(name = "department")
+@DynamicUpdate
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "department")
+@NaturalIdCache(region = "department-by-name")
 @Data
 public class DepartmentModel {
     
@@ -18,6 +28,7 @@ public class DepartmentModel {
     @Column(name = "department_id")
     private Long departmentId;
 
+    @NaturalId(mutable = true)
     @Column(name = "department_name")
     private String departmentName;
 
@@ -8,11 +8,21 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 
 @Entity
 @Table(name = "employee")
+@DynamicUpdate
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "employee")
+@NaturalIdCache(region = "employee-by-email")
 @Data
 public class EmployeeModel {
 
@@ -27,6 +37,7 @@ public class EmployeeModel {
     @Column(name = "last_name", nullable = false)
     private String lastName;
 
+    @NaturalId(mutable = true)
     @Column(name = "email", nullable = false, unique = true)
     private String email;
 
@@ -0,0 +1,45 @@
+package ems.app.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "leave_balance", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"employee_id", "leave_type", "balance_year"})
+}, indexes = {
+    @Index(name = "idx_leave_balance_year_type", columnList = "balance_year, leave_type")
+})
+@Data
+public class LeaveBalanceModel {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "balance_id")
+    private Long balanceId;
+
+    @Column(name = "employee_id", nullable = false)
+    private Long employeeId;
+
+    @Column(name = "leave_type", nullable = false, length = 50)
+    private String leaveType;
+
+    @Column(name = "balance_year", nullable = false)
+    private Integer year;
+
+    @Column(name = "allowance_days", nullable = false)
+    private Integer allowanceDays = 0;
+
+    @Column(name = "used_days", nullable = false)
+    private Integer usedDays = 0;
+
+    @Column(name = "pending_days", nullable = false)
+    private Integer pendingDays = 0;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public int getRemainingDays() {
+        return allowanceDays - usedDays - pendingDays;
+    }
+}
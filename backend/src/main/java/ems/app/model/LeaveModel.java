@@ -9,7 +9,9 @@ import java.time.LocalDateTime;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 
 @Entity
-@Table(name = "leaves")
+@Table(name = "leaves", indexes = {
+    @Index(name = "idx_leaves_status_employee", columnList = "status, employee_id")
+})
 @Data
 public class LeaveModel {
 
@@ -2,7 +2,10 @@ package ems.app.model;
 
 import java.time.LocalDateTime;
 
+import org.hibernate.annotations.DynamicUpdate;
+
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonProperty;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -17,6 +20,7 @@ import jakarta.persistence.Table;
 
 @Entity
 @Table(name = "users")
+@DynamicUpdate
 public class UserModel {
     
     @Id
@@ -26,7 +30,9 @@ public class UserModel {
     @Column(name = "username", nullable = false, unique = true)
     private String username;
     
+    // Holds a PasswordHasher hash; accepted on register/update but never serialized back out
     @Column(name = "password", nullable = false)
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private String password;
     
     @Column(name = "email", nullable = false, unique = true)
@@ -64,10 +70,22 @@ public class UserModel {
         return username;
     }
 
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
     public String getEmail() {
         return email;
     }
 
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
     public void setStatus(String status) {
         this.status = status;
     }
@@ -80,15 +98,27 @@ public class UserModel {
         this.employee = employee;
     }
 
-    public Object getPassword() {
+    public String getPassword() {
         return password;
     }
 
-    public Object getStatus() {
+    public String getStatus() {
         return status;
     }
 
+    public Long getUserId() {
+        return userId;
+    }
+
     public void setUserId(Long id) {
         this.userId = id;
     }
+
+    public String getRole() {
+        return role;
+    }
+
+    public EmployeeModel getEmployee() {
+        return employee;
+    }
 }
@@ -1,19 +1,31 @@
 package ems.app.repo;
 
 import java.util.List;
+import java.util.Optional;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import ems.app.dto.AttendanceRow;
 import ems.app.model.AttendanceModel;
 import ems.app.model.EmployeeModel;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
 import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.stream.Stream;
 
 
 @Repository
-public interface AttendanceRepo extends JpaRepository<AttendanceModel, Long> {
+public interface AttendanceRepo extends JpaRepository<AttendanceModel, Long>, AttendanceRepoCustom {
     List<AttendanceModel> findByEmployee(EmployeeModel employee);
     List<AttendanceModel> findByDate(LocalDate date);
     List<AttendanceModel> findByEmployeeAndDate(EmployeeModel employee, LocalDate date);
@@ -30,4 +42,83 @@ public interface AttendanceRepo extends JpaRepository<AttendanceModel, Long> {
         @Param("employee") EmployeeModel employee,
         @Param("status") String status
     );
+
+    // Row lock on the (employee, date) record only, so other employees are never blocked
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT atd FROM AttendanceModel atd WHERE atd.employee = :employee AND atd.date = :date")
+    Optional<AttendanceModel> findByEmployeeAndDateForUpdate(
+        @Param("employee") EmployeeModel employee,
+        @Param("date") LocalDate date
+    );
+
+    @Query(value = "INSERT INTO attendance (attendance_id, employee_id, date, clock_in, status, created_at, updated_at) " +
+        "VALUES (nextval('attendance_seq'), :employeeId, :date, :clockIn, 'PRESENT', now(), now()) " +
+        "ON CONFLICT (employee_id, date) DO UPDATE SET " +
+        "clock_in = EXCLUDED.clock_in, status = 'PRESENT', updated_at = EXCLUDED.updated_at " +
+        "RETURNING *", nativeQuery = true)
+    AttendanceModel upsertClockIn(
+        @Param("employeeId") Long employeeId,
+        @Param("date") LocalDate date,
+        @Param("clockIn") LocalTime clockIn
+    );
+
+    // Declared query space keeps this write from evicting the employee and department cache regions
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "attendance"))
+    @Query(value = "INSERT INTO attendance (attendance_id, employee_id, date, status, created_at, updated_at) " +
+        "VALUES (nextval('attendance_seq'), :employeeId, :date, 'ABSENT', now(), now()) " +
+        "ON CONFLICT (employee_id, date) DO UPDATE SET " +
+        "status = 'ABSENT', updated_at = EXCLUDED.updated_at", nativeQuery = true)
+    int upsertAbsent(
+        @Param("employeeId") Long employeeId,
+        @Param("date") LocalDate date
+    );
+
+    // Row locks on everything a clock-event batch can touch, taken in id order so overlapping batches cannot deadlock
+    @Query(value = "SELECT attendance_id FROM attendance WHERE employee_id IN (:employeeIds) " +
+        "AND date BETWEEN :startDate AND :endDate ORDER BY attendance_id FOR UPDATE", nativeQuery = true)
+    List<Long> lockByEmployeeIdsAndDateBetween(
+        @Param("employeeIds") Collection<Long> employeeIds,
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate
+    );
+
+    @Query("SELECT atd FROM AttendanceModel atd JOIN FETCH atd.employee emp " +
+        "WHERE emp.employeeId IN :employeeIds AND atd.date BETWEEN :startDate AND :endDate")
+    List<AttendanceModel> findByEmployeeIdsAndDateBetween(
+        @Param("employeeIds") Collection<Long> employeeIds,
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate
+    );
+
+    // Inserts ABSENT / ON_LEAVE rows for every active employee without attendance on :date, returns counts per status
+    @Query(value = "WITH inserted AS (" +
+        "INSERT INTO attendance (attendance_id, employee_id, date, status, created_at, updated_at) " +
+        "SELECT nextval('attendance_seq'), emp.employee_id, :date, " +
+        "CASE WHEN EXISTS (SELECT 1 FROM leaves lv WHERE lv.employee_id = emp.employee_id " +
+        "AND lv.status = 'APPROVED' AND lv.start_date <= :date AND lv.end_date >= :date) " +
+        "THEN 'ON_LEAVE' ELSE 'ABSENT' END, now(), now() " +
+        "FROM employee emp WHERE emp.status = 'ACTIVE' " +
+        "AND NOT EXISTS (SELECT 1 FROM attendance atd WHERE atd.employee_id = emp.employee_id AND atd.date = :date) " +
+        "ON CONFLICT (employee_id, date) DO NOTHING " +
+        "RETURNING status) " +
+        "SELECT status, COUNT(*) FROM inserted GROUP BY status", nativeQuery = true)
+    List<Object[]> markAbsentForDate(@Param("date") LocalDate date);
+
+    // Projection stream with a server-side cursor; must be consumed inside a transaction
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.fetchSize", value = "1000"),
+        @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("SELECT new ems.app.dto.AttendanceRow(atd.attendance_id, emp.employeeId, atd.date, " +
+        "atd.clockIn, atd.clockOut, atd.status, atd.workingHrs) " +
+        "FROM AttendanceModel atd JOIN atd.employee emp " +
+        "WHERE atd.date BETWEEN :startDate AND :endDate " +
+        "AND (:departmentId IS NULL OR emp.department.departmentId = :departmentId) " +
+        "ORDER BY atd.date, atd.attendance_id")
+    Stream<AttendanceRow> streamRowsByDateBetween(
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate,
+        @Param("departmentId") Long departmentId
+    );
 }
@@ -0,0 +1,14 @@
+package ems.app.repo;
+
+import java.util.List;
+
+import ems.app.dto.AttendanceCursor;
+import ems.app.dto.AttendanceFilter;
+import ems.app.dto.AttendanceRow;
+import ems.app.model.AttendanceModel;
+
+public interface AttendanceRepoCustom {
+    List<AttendanceRow> findPage(AttendanceFilter filter, AttendanceCursor after, int limit);
+
+    int insertOrMerge(List<AttendanceModel> rows);
+}
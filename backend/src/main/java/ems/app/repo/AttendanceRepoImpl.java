@@ -0,0 +1,136 @@
+package ems.app.repo;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.Session;
+
+import ems.app.dto.AttendanceCursor;
+import ems.app.dto.AttendanceFilter;
+import ems.app.dto.AttendanceRow;
+import ems.app.model.AttendanceModel;
+import ems.app.model.EmployeeModel;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+public class AttendanceRepoImpl implements AttendanceRepoCustom {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    // Keyset page ordered by (date DESC, attendance_id DESC); only the filters that are set end up in the WHERE clause
+    @Override
+    public List<AttendanceRow> findPage(AttendanceFilter filter, AttendanceCursor after, int limit) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<AttendanceRow> query = cb.createQuery(AttendanceRow.class);
+        Root<AttendanceModel> atd = query.from(AttendanceModel.class);
+        Join<AttendanceModel, EmployeeModel> emp = atd.join("employee");
+
+        List<Predicate> where = new ArrayList<>();
+        if (filter.startDate() != null) {
+            where.add(cb.greaterThanOrEqualTo(atd.get("date"), filter.startDate()));
+        }
+        if (filter.endDate() != null) {
+            where.add(cb.lessThanOrEqualTo(atd.get("date"), filter.endDate()));
+        }
+        if (filter.employeeId() != null) {
+            where.add(cb.equal(emp.get("employeeId"), filter.employeeId()));
+        }
+        if (filter.departmentId() != null) {
+            where.add(cb.equal(emp.get("department").get("departmentId"), filter.departmentId()));
+        }
+        if (filter.status() != null) {
+            where.add(cb.equal(atd.get("status"), filter.status()));
+        }
+        if (after != null) {
+            where.add(cb.or(
+                cb.lessThan(atd.get("date"), after.date()),
+                cb.and(
+                    cb.equal(atd.get("date"), after.date()),
+                    cb.lessThan(atd.get("attendance_id"), after.attendanceId()))));
+        }
+
+        query.select(cb.construct(AttendanceRow.class,
+                atd.get("attendance_id"),
+                emp.get("employeeId"),
+                atd.get("date"),
+                atd.get("clockIn"),
+                atd.get("clockOut"),
+                atd.get("status"),
+                atd.get("workingHrs")))
+            .where(where.toArray(new Predicate[0]))
+            .orderBy(cb.desc(atd.get("date")), cb.desc(atd.get("attendance_id")));
+
+        return em.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    // Inserts rows a clock-event batch created. A row committed meanwhile for the same (employee, date), e.g. by a
+    // single clock-in, is merged instead of failing the batch: the batch's clock-in wins and a clock-out is kept
+    // unless the batch brings its own. Ids and merged values are written back onto the passed models.
+    @Override
+    public int insertOrMerge(List<AttendanceModel> rows) {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        Long[] employeeIds = new Long[rows.size()];
+        String[] dates = new String[rows.size()];
+        String[] clockIns = new String[rows.size()];
+        String[] clockOuts = new String[rows.size()];
+        Map<String, AttendanceModel> byKey = new HashMap<>();
+        for (int i = 0; i < rows.size(); i++) {
+            AttendanceModel row = rows.get(i);
+            employeeIds[i] = row.getEmployee().getEmployeeId();
+            dates[i] = row.getDate().toString();
+            clockIns[i] = row.getClockIn() == null ? null : row.getClockIn().toString();
+            clockOuts[i] = row.getClockOut() == null ? null : row.getClockOut().toString();
+            byKey.put(employeeIds[i] + ":" + dates[i], row);
+        }
+        return em.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(
+                    "INSERT INTO attendance (attendance_id, employee_id, date, clock_in, clock_out, status, working_hours, " +
+                    "created_at, updated_at) " +
+                    "SELECT nextval('attendance_seq'), d.employee_id, CAST(d.date AS date), CAST(d.clock_in AS time), " +
+                    "CAST(d.clock_out AS time), 'PRESENT', " + hours("CAST(d.clock_in AS time)", "CAST(d.clock_out AS time)") +
+                    ", now(), now() " +
+                    "FROM unnest(CAST(? AS bigint[]), CAST(? AS text[]), CAST(? AS text[]), CAST(? AS text[])) " +
+                    "AS d(employee_id, date, clock_in, clock_out) " +
+                    "ORDER BY d.employee_id, d.date " +
+                    "ON CONFLICT (employee_id, date) DO UPDATE SET " +
+                    "clock_in = EXCLUDED.clock_in, clock_out = COALESCE(EXCLUDED.clock_out, attendance.clock_out), " +
+                    "status = 'PRESENT', working_hours = " +
+                    hours("EXCLUDED.clock_in", "COALESCE(EXCLUDED.clock_out, attendance.clock_out)") + ", updated_at = now() " +
+                    "RETURNING attendance_id, employee_id, date, clock_out, working_hours")) {
+                ps.setArray(1, connection.createArrayOf("bigint", employeeIds));
+                ps.setArray(2, connection.createArrayOf("text", dates));
+                ps.setArray(3, connection.createArrayOf("text", clockIns));
+                ps.setArray(4, connection.createArrayOf("text", clockOuts));
+                int count = 0;
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        AttendanceModel row = byKey.get(rs.getLong(2) + ":" + rs.getDate(3).toLocalDate());
+                        row.setAttendance_id(rs.getLong(1));
+                        row.setClockOut(rs.getTime(4) == null ? null : rs.getTime(4).toLocalTime());
+                        row.setWorkingHrs(rs.getBigDecimal(5));
+                        count++;
+                    }
+                }
+                return count;
+            }
+        });
+    }
+
+    // Same rounding as AttendanceService.calculateWorkingHours: whole minutes, as hours
+    private static String hours(String clockIn, String clockOut) {
+        return "CASE WHEN " + clockIn + " IS NOT NULL AND " + clockOut + " IS NOT NULL " +
+            "THEN TRUNC(EXTRACT(EPOCH FROM (" + clockOut + " - " + clockIn + ")) / 60) / 60.0 END";
+    }
+}
@@ -0,0 +1,107 @@
+package ems.app.repo;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import ems.app.model.AttendanceRollupModel;
+import jakarta.persistence.QueryHint;
+
+// The native writes below declare their table as query space; without it Hibernate evicts every second-level cache
+// region (employees, departments) on each one, and refresh() runs on every clock-in and clock-out
+@Repository
+public interface AttendanceRollupRepo extends JpaRepository<AttendanceRollupModel, Long> {
+    Optional<AttendanceRollupModel> findByEmployeeIdAndMonthStart(Long employeeId, LocalDate monthStart);
+    List<AttendanceRollupModel> findByMonthStart(LocalDate monthStart);
+
+    @Query("SELECT r FROM AttendanceRollupModel r WHERE r.employeeId = :employeeId " +
+        "AND r.monthStart BETWEEN :fromMonth AND :toMonth ORDER BY r.monthStart")
+    List<AttendanceRollupModel> findByEmployeeIdAndMonthBetween(
+        @Param("employeeId") Long employeeId,
+        @Param("fromMonth") LocalDate fromMonth,
+        @Param("toMonth") LocalDate toMonth
+    );
+
+    @Query("SELECT r FROM AttendanceRollupModel r WHERE r.monthStart = :monthStart AND r.employeeId IN " +
+        "(SELECT emp.employeeId FROM EmployeeModel emp WHERE emp.department.departmentId = :departmentId)")
+    List<AttendanceRollupModel> findByMonthStartAndDepartment(
+        @Param("monthStart") LocalDate monthStart,
+        @Param("departmentId") Long departmentId
+    );
+
+    // Creates the rollup row if needed and holds its lock, so the recompute that follows sees every committed change
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "attendance_monthly_rollup"))
+    @Query(value = "INSERT INTO attendance_monthly_rollup " +
+        "(employee_id, month_start, total_working_hours, present_count, absent_count, late_count, updated_at) " +
+        "VALUES (:employeeId, :monthStart, 0, 0, 0, 0, now()) " +
+        "ON CONFLICT (employee_id, month_start) DO UPDATE SET updated_at = now()", nativeQuery = true)
+    int lockRollup(@Param("employeeId") Long employeeId, @Param("monthStart") LocalDate monthStart);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "attendance_monthly_rollup"))
+    @Query(value = "UPDATE attendance_monthly_rollup r SET " +
+        "total_working_hours = s.hours, present_count = s.present, absent_count = s.absent, late_count = s.late, updated_at = now() " +
+        "FROM (SELECT COALESCE(SUM(working_hours), 0) AS hours, " +
+        "COUNT(*) FILTER (WHERE status = 'PRESENT') AS present, " +
+        "COUNT(*) FILTER (WHERE status = 'ABSENT') AS absent, " +
+        "COUNT(*) FILTER (WHERE status = 'LATE') AS late " +
+        "FROM attendance WHERE employee_id = :employeeId AND date >= :monthStart AND date < :nextMonth) s " +
+        "WHERE r.employee_id = :employeeId AND r.month_start = :monthStart", nativeQuery = true)
+    int recompute(
+        @Param("employeeId") Long employeeId,
+        @Param("monthStart") LocalDate monthStart,
+        @Param("nextMonth") LocalDate nextMonth
+    );
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "attendance_monthly_rollup"))
+    @Query(value = "INSERT INTO attendance_monthly_rollup " +
+        "(employee_id, month_start, total_working_hours, present_count, absent_count, late_count, updated_at) " +
+        "SELECT atd.employee_id, :monthStart, COALESCE(SUM(atd.working_hours), 0), " +
+        "COUNT(*) FILTER (WHERE atd.status = 'PRESENT'), " +
+        "COUNT(*) FILTER (WHERE atd.status = 'ABSENT'), " +
+        "COUNT(*) FILTER (WHERE atd.status = 'LATE'), now() " +
+        "FROM attendance atd WHERE atd.date >= :monthStart AND atd.date < :nextMonth " +
+        "AND atd.employee_id IN (SELECT employee_id FROM attendance WHERE date = :date) " +
+        "GROUP BY atd.employee_id " +
+        "ON CONFLICT (employee_id, month_start) DO UPDATE SET " +
+        "total_working_hours = EXCLUDED.total_working_hours, present_count = EXCLUDED.present_count, " +
+        "absent_count = EXCLUDED.absent_count, late_count = EXCLUDED.late_count, updated_at = now()", nativeQuery = true)
+    int recomputeForDate(
+        @Param("date") LocalDate date,
+        @Param("monthStart") LocalDate monthStart,
+        @Param("nextMonth") LocalDate nextMonth
+    );
+
+    // Upserts rather than delete-and-insert, so a refresh creating a row meanwhile cannot make the rebuild conflict
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "attendance_monthly_rollup"))
+    @Query(value = "INSERT INTO attendance_monthly_rollup " +
+        "(employee_id, month_start, total_working_hours, present_count, absent_count, late_count, updated_at) " +
+        "SELECT employee_id, CAST(date_trunc('month', date) AS date), COALESCE(SUM(working_hours), 0), " +
+        "COUNT(*) FILTER (WHERE status = 'PRESENT'), " +
+        "COUNT(*) FILTER (WHERE status = 'ABSENT'), " +
+        "COUNT(*) FILTER (WHERE status = 'LATE'), now() " +
+        "FROM attendance WHERE employee_id IS NOT NULL " +
+        "GROUP BY employee_id, CAST(date_trunc('month', date) AS date) " +
+        "ON CONFLICT (employee_id, month_start) DO UPDATE SET " +
+        "total_working_hours = EXCLUDED.total_working_hours, present_count = EXCLUDED.present_count, " +
+        "absent_count = EXCLUDED.absent_count, late_count = EXCLUDED.late_count, updated_at = now()", nativeQuery = true)
+    int rebuildAll();
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "attendance_monthly_rollup"))
+    @Query(value = "DELETE FROM attendance_monthly_rollup r WHERE NOT EXISTS (SELECT 1 FROM attendance atd " +
+        "WHERE atd.employee_id = r.employee_id AND atd.date >= r.month_start " +
+        "AND atd.date < CAST(r.month_start + INTERVAL '1 month' AS date))", nativeQuery = true)
+    int deleteStaleRollups();
+}
@@ -1,16 +1,44 @@
 package ems.app.repo;
 
-import java.util.Optional;
+import java.time.LocalDate;
+import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import ems.app.dto.DepartmentSummary;
 import ems.app.model.DepartmentModel;
-import java.util.List;
 
 
 @Repository
-public interface DepartmentRepo extends JpaRepository<DepartmentModel, Long> {
-    Optional<DepartmentModel> findByDepartmentName(String departmentName);
+public interface DepartmentRepo extends JpaRepository<DepartmentModel, Long>, DepartmentRepoCustom {
     List<DepartmentModel> findByLocation(String location);
+
+    // List columns plus manager name and headcount; no collections are touched, so listing is a single query
+    @Query("SELECT new ems.app.dto.DepartmentSummary(dept.departmentId, dept.departmentName, dept.location, " +
+        "mgr.employeeId, CONCAT(mgr.firstName, ' ', mgr.lastName), COUNT(emp)) " +
+        "FROM DepartmentModel dept LEFT JOIN dept.manager mgr LEFT JOIN dept.employees emp " +
+        "GROUP BY dept.departmentId, dept.departmentName, dept.location, mgr.employeeId, mgr.firstName, mgr.lastName " +
+        "ORDER BY dept.departmentName, dept.departmentId")
+    List<DepartmentSummary> findAllSummaries();
+
+    // One row per department, empty departments included: id, name, headcount, active, salaried, sum, min, max
+    @Query("SELECT dept.departmentId, dept.departmentName, COUNT(emp), " +
+        "COALESCE(SUM(CASE WHEN emp.status = 'ACTIVE' THEN 1 ELSE 0 END), 0), COUNT(emp.salary), " +
+        "SUM(emp.salary), MIN(emp.salary), MAX(emp.salary) " +
+        "FROM DepartmentModel dept LEFT JOIN dept.employees emp " +
+        "GROUP BY dept.departmentId, dept.departmentName ORDER BY dept.departmentName, dept.departmentId")
+    List<Object[]> aggregateEmployees();
+
+    @Query("SELECT dept.departmentId, emp.status, COUNT(emp) FROM EmployeeModel emp JOIN emp.department dept " +
+        "GROUP BY dept.departmentId, emp.status")
+    List<Object[]> countEmployeesByStatus();
+
+    @Query(value = "SELECT department_id, CAST(date_trunc(:period, hire_date) AS date) AS period_start, COUNT(*) " +
+        "FROM employee WHERE department_id IS NOT NULL AND hire_date BETWEEN :startDate AND :endDate " +
+        "GROUP BY department_id, period_start ORDER BY department_id, period_start", nativeQuery = true)
+    List<Object[]> countHiresByPeriod(@Param("period") String period, @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate);
 }
\ No newline at end of file
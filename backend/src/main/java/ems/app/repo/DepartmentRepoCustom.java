@@ -0,0 +1,9 @@
+package ems.app.repo;
+
+import java.util.Optional;
+
+import ems.app.model.DepartmentModel;
+
+public interface DepartmentRepoCustom {
+    Optional<DepartmentModel> findByDepartmentName(String departmentName);
+}
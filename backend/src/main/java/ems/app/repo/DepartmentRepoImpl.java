@@ -0,0 +1,21 @@
+package ems.app.repo;
+
+import java.util.Optional;
+
+import org.hibernate.Session;
+
+import ems.app.model.DepartmentModel;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+public class DepartmentRepoImpl implements DepartmentRepoCustom {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    // Natural-id load: resolved through the department-by-name cache region instead of a query
+    @Override
+    public Optional<DepartmentModel> findByDepartmentName(String departmentName) {
+        return em.unwrap(Session.class).bySimpleNaturalId(DepartmentModel.class).loadOptional(departmentName);
+    }
+}
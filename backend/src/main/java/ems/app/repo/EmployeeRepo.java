@@ -2,19 +2,18 @@ package ems.app.repo;
 
 import java.time.LocalDate;
 import java.util.List;
-import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import ems.app.dto.EmployeeSummary;
 import ems.app.model.DepartmentModel;
 import ems.app.model.EmployeeModel;
 
 @Repository
-public interface EmployeeRepo extends JpaRepository<EmployeeModel, Long> {
-    Optional<EmployeeModel> findByEmail(String email);
+public interface EmployeeRepo extends JpaRepository<EmployeeModel, Long>, EmployeeRepoCustom {
     List<EmployeeModel> findByDepartment(DepartmentModel department);
     List<EmployeeModel> findByJobTitle(String jobTitle);
     List<EmployeeModel> findByStatus(String status);
@@ -24,4 +23,82 @@ public interface EmployeeRepo extends JpaRepository<EmployeeModel, Long> {
 
     @Query("SELECT emp FROM EmployeeModel emp WHERE LOWER(emp.firstName) LIKE LOWER(CONCAT('%', :keyword, '%')) OR LOWER(emp.lastName) LIKE LOWER(CONCAT('%', :keyword, '%'))")
     List<EmployeeModel> searchByName(@Param("keyword") String keyword);
+
+    @Query("SELECT emp.employeeId, dept.departmentId FROM EmployeeModel emp LEFT JOIN emp.department dept")
+    List<Object[]> findEmployeeDepartmentIds();
+
+    // Directory columns only; no collections are touched, so listing is a single query
+    @Query("SELECT new ems.app.dto.EmployeeSummary(emp.employeeId, emp.firstName, emp.lastName, emp.email, " +
+        "emp.contactNo, emp.jobTitle, emp.status, emp.hiredDate, dept.departmentId, dept.departmentName, mgr.employeeId) " +
+        "FROM EmployeeModel emp LEFT JOIN emp.department dept LEFT JOIN emp.manager mgr " +
+        "ORDER BY emp.lastName, emp.firstName, emp.employeeId")
+    List<EmployeeSummary> findAllSummaries();
+
+    @Query("SELECT new ems.app.dto.EmployeeSummary(emp.employeeId, emp.firstName, emp.lastName, emp.email, " +
+        "emp.contactNo, emp.jobTitle, emp.status, emp.hiredDate, dept.departmentId, dept.departmentName, mgr.employeeId) " +
+        "FROM EmployeeModel emp LEFT JOIN emp.department dept LEFT JOIN emp.manager mgr " +
+        "WHERE dept.departmentId = :departmentId ORDER BY emp.lastName, emp.firstName, emp.employeeId")
+    List<EmployeeSummary> findSummariesByDepartment(@Param("departmentId") Long departmentId);
+
+    @Query("SELECT new ems.app.dto.EmployeeSummary(emp.employeeId, emp.firstName, emp.lastName, emp.email, " +
+        "emp.contactNo, emp.jobTitle, emp.status, emp.hiredDate, dept.departmentId, dept.departmentName, mgr.employeeId) " +
+        "FROM EmployeeModel emp LEFT JOIN emp.department dept LEFT JOIN emp.manager mgr " +
+        "WHERE mgr.employeeId = :managerId ORDER BY emp.lastName, emp.firstName, emp.employeeId")
+    List<EmployeeSummary> findSummariesByManager(@Param("managerId") Long managerId);
+
+    // Reporting tree below :rootId, one row per employee with its depth from the root
+    @Query(value = "WITH RECURSIVE org AS (" +
+        "SELECT employee_id, manager_id, 0 AS depth FROM employee WHERE employee_id = :rootId " +
+        "UNION ALL " +
+        "SELECT e.employee_id, e.manager_id, org.depth + 1 FROM employee e " +
+        "JOIN org ON e.manager_id = org.employee_id WHERE org.depth < :maxDepth) " +
+        "SELECT org.employee_id, e.first_name, e.last_name, e.job_title, org.manager_id, org.depth " +
+        "FROM org JOIN employee e ON e.employee_id = org.employee_id " +
+        "ORDER BY org.depth, e.last_name, e.first_name, org.employee_id", nativeQuery = true)
+    List<Object[]> findSubtree(@Param("rootId") Long rootId, @Param("maxDepth") int maxDepth);
+
+    // Ids of everyone reporting to :managerId directly or indirectly, without the manager itself
+    @Query(value = "WITH RECURSIVE reports AS (" +
+        "SELECT employee_id, 1 AS depth FROM employee WHERE manager_id = :managerId " +
+        "UNION ALL " +
+        "SELECT e.employee_id, reports.depth + 1 FROM employee e " +
+        "JOIN reports ON e.manager_id = reports.employee_id WHERE reports.depth < :maxDepth) " +
+        "SELECT DISTINCT employee_id FROM reports", nativeQuery = true)
+    List<Long> findReportIds(@Param("managerId") Long managerId, @Param("maxDepth") int maxDepth);
+
+    // Managers from :employeeId up to the root, the employee itself at depth 0
+    @Query(value = "WITH RECURSIVE chain AS (" +
+        "SELECT employee_id, manager_id, 0 AS depth FROM employee WHERE employee_id = :employeeId " +
+        "UNION ALL " +
+        "SELECT e.employee_id, e.manager_id, chain.depth + 1 FROM employee e " +
+        "JOIN chain ON e.employee_id = chain.manager_id WHERE chain.depth < :maxDepth) " +
+        "SELECT chain.employee_id, e.first_name, e.last_name, e.job_title, chain.manager_id, chain.depth " +
+        "FROM chain JOIN employee e ON e.employee_id = chain.employee_id " +
+        "ORDER BY chain.depth", nativeQuery = true)
+    List<Object[]> findChainOfCommand(@Param("employeeId") Long employeeId, @Param("maxDepth") int maxDepth);
+
+    // Direct and transitive report counts for every manager, optionally limited to :rootId's tree
+    @Query(value = "WITH RECURSIVE reports AS (" +
+        "SELECT manager_id AS ancestor_id, employee_id, 1 AS depth FROM employee WHERE manager_id IS NOT NULL " +
+        "UNION ALL " +
+        "SELECT reports.ancestor_id, e.employee_id, reports.depth + 1 FROM employee e " +
+        "JOIN reports ON e.manager_id = reports.employee_id WHERE reports.depth < :maxDepth) " +
+        "SELECT ancestor_id, COUNT(*) FILTER (WHERE depth = 1), COUNT(*), MAX(depth) FROM reports " +
+        "WHERE CAST(:rootId AS BIGINT) IS NULL OR ancestor_id = :rootId " +
+        "OR ancestor_id IN (SELECT employee_id FROM reports WHERE ancestor_id = :rootId) " +
+        "GROUP BY ancestor_id ORDER BY COUNT(*) DESC, ancestor_id", nativeQuery = true)
+    List<Object[]> findSpanOfControl(@Param("rootId") Long rootId, @Param("maxDepth") int maxDepth);
+
+    @Query(value = "WITH RECURSIVE chain AS (" +
+        "SELECT employee_id, manager_id, 0 AS depth FROM employee WHERE employee_id = :managerId " +
+        "UNION ALL " +
+        "SELECT e.employee_id, e.manager_id, chain.depth + 1 FROM employee e " +
+        "JOIN chain ON e.employee_id = chain.manager_id WHERE chain.depth < :maxDepth) " +
+        "SELECT EXISTS (SELECT 1 FROM chain WHERE employee_id = :employeeId)", nativeQuery = true)
+    boolean isInChainOfCommand(@Param("employeeId") Long employeeId, @Param("managerId") Long managerId,
+        @Param("maxDepth") int maxDepth);
+
+    // Serializes manager reassignments so two concurrent moves cannot close a cycle between them
+    @Query(value = "SELECT 1 FROM (SELECT pg_advisory_xact_lock(:key)) l", nativeQuery = true)
+    Integer lockReportingLines(@Param("key") long key);
 }
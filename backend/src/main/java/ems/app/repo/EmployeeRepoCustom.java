@@ -0,0 +1,9 @@
+package ems.app.repo;
+
+import java.util.Optional;
+
+import ems.app.model.EmployeeModel;
+
+public interface EmployeeRepoCustom {
+    Optional<EmployeeModel> findByEmail(String email);
+}
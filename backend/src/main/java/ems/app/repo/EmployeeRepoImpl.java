@@ -0,0 +1,21 @@
+package ems.app.repo;
+
+import java.util.Optional;
+
+import org.hibernate.Session;
+
+import ems.app.model.EmployeeModel;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+public class EmployeeRepoImpl implements EmployeeRepoCustom {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    // Natural-id load: resolved through the employee-by-email cache region instead of a query
+    @Override
+    public Optional<EmployeeModel> findByEmail(String email) {
+        return em.unwrap(Session.class).bySimpleNaturalId(EmployeeModel.class).loadOptional(email);
+    }
+}
@@ -0,0 +1,37 @@
+package ems.app.repo;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import ems.app.dto.LeaveBalanceRow;
+import ems.app.model.LeaveBalanceModel;
+
+@Repository
+public interface LeaveBalanceRepo extends JpaRepository<LeaveBalanceModel, Long>, LeaveBalanceRepoCustom {
+    Optional<LeaveBalanceModel> findByEmployeeIdAndLeaveTypeAndYear(Long employeeId, String leaveType, Integer year);
+
+    @Query("SELECT new ems.app.dto.LeaveBalanceRow(bal.employeeId, CONCAT(emp.firstName, ' ', emp.lastName), " +
+        "dept.departmentName, bal.leaveType, bal.year, bal.allowanceDays, bal.usedDays, bal.pendingDays) " +
+        "FROM LeaveBalanceModel bal JOIN EmployeeModel emp ON emp.employeeId = bal.employeeId " +
+        "LEFT JOIN emp.department dept " +
+        "WHERE bal.year = :year AND (:leaveType IS NULL OR bal.leaveType = :leaveType) " +
+        "AND (:departmentId IS NULL OR dept.departmentId = :departmentId) " +
+        "ORDER BY dept.departmentName, emp.lastName, emp.firstName, bal.leaveType")
+    List<LeaveBalanceRow> findReport(
+        @Param("year") Integer year,
+        @Param("leaveType") String leaveType,
+        @Param("departmentId") Long departmentId
+    );
+
+    // Ledger writers take the lock shared; reconcile and rebuild take it exclusively so they never overwrite a delta
+    @Query(value = "SELECT 1 FROM (SELECT pg_advisory_xact_lock_shared(:key)) l", nativeQuery = true)
+    Integer lockLedgerShared(@Param("key") long key);
+
+    @Query(value = "SELECT 1 FROM (SELECT pg_advisory_xact_lock(:key)) l", nativeQuery = true)
+    Integer lockLedger(@Param("key") long key);
+}
@@ -0,0 +1,15 @@
+package ems.app.repo;
+
+import java.util.List;
+
+import ems.app.dto.LeaveBalanceDelta;
+
+public interface LeaveBalanceRepoCustom {
+    int applyDelta(Long employeeId, String leaveType, int year, int usedDelta, int pendingDelta, int allowance);
+
+    int applyDeltas(List<LeaveBalanceDelta> deltas, int allowance);
+
+    int reconcile(int allowance);
+
+    int rebuild(int allowance);
+}
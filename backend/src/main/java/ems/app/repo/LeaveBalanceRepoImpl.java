@@ -0,0 +1,126 @@
+package ems.app.repo;
+
+import java.sql.PreparedStatement;
+import java.util.List;
+
+import org.hibernate.Session;
+import org.hibernate.query.NativeQuery;
+
+import ems.app.dto.LeaveBalanceDelta;
+import ems.app.model.LeaveBalanceModel;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+public class LeaveBalanceRepoImpl implements LeaveBalanceRepoCustom {
+
+    // Used and pending days per employee, leave type and calendar year; a leave spanning New Year is split between years
+    private static final String ACTUAL_BALANCES =
+        "SELECT lv.employee_id, lv.leave_type, CAST(EXTRACT(YEAR FROM y.year_start) AS integer) AS balance_year, " +
+        "COALESCE(SUM(LEAST(lv.end_date, CAST(y.year_start + interval '1 year' - interval '1 day' AS date)) " +
+        "- GREATEST(lv.start_date, CAST(y.year_start AS date)) + 1) FILTER (WHERE lv.status = 'APPROVED'), 0) AS used_days, " +
+        "COALESCE(SUM(LEAST(lv.end_date, CAST(y.year_start + interval '1 year' - interval '1 day' AS date)) " +
+        "- GREATEST(lv.start_date, CAST(y.year_start AS date)) + 1) FILTER (WHERE lv.status = 'PENDING'), 0) AS pending_days " +
+        "FROM leaves lv CROSS JOIN LATERAL generate_series(date_trunc('year', CAST(lv.start_date AS timestamp)), " +
+        "date_trunc('year', CAST(lv.end_date AS timestamp)), interval '1 year') AS y(year_start) " +
+        "WHERE lv.employee_id IS NOT NULL AND lv.status IN ('APPROVED', 'PENDING') " +
+        "GROUP BY lv.employee_id, lv.leave_type, balance_year";
+
+    private static final String INSERT_COLUMNS =
+        "INSERT INTO leave_balance (employee_id, leave_type, balance_year, allowance_days, used_days, pending_days, updated_at) ";
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public int applyDelta(Long employeeId, String leaveType, int year, int usedDelta, int pendingDelta, int allowance) {
+        return ledgerUpdate(INSERT_COLUMNS +
+                "VALUES (:employeeId, :leaveType, :year, :allowance, :usedDelta, :pendingDelta, now()) " +
+                "ON CONFLICT (employee_id, leave_type, balance_year) DO UPDATE SET " +
+                "used_days = leave_balance.used_days + EXCLUDED.used_days, " +
+                "pending_days = leave_balance.pending_days + EXCLUDED.pending_days, updated_at = now()")
+            .setParameter("employeeId", employeeId)
+            .setParameter("leaveType", leaveType)
+            .setParameter("year", year)
+            .setParameter("allowance", allowance)
+            .setParameter("usedDelta", usedDelta)
+            .setParameter("pendingDelta", pendingDelta)
+            .executeUpdate();
+    }
+
+    // All deltas in one statement; keys must be distinct, and rows are upserted in key order to keep lock order stable
+    @Override
+    public int applyDeltas(List<LeaveBalanceDelta> deltas, int allowance) {
+        if (deltas.isEmpty()) {
+            return 0;
+        }
+        Long[] employeeIds = new Long[deltas.size()];
+        String[] leaveTypes = new String[deltas.size()];
+        Integer[] years = new Integer[deltas.size()];
+        Integer[] used = new Integer[deltas.size()];
+        Integer[] pending = new Integer[deltas.size()];
+        for (int i = 0; i < deltas.size(); i++) {
+            LeaveBalanceDelta delta = deltas.get(i);
+            employeeIds[i] = delta.employeeId();
+            leaveTypes[i] = delta.leaveType();
+            years[i] = delta.year();
+            used[i] = delta.usedDelta();
+            pending[i] = delta.pendingDelta();
+        }
+        return em.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_COLUMNS +
+                    "SELECT d.employee_id, d.leave_type, d.balance_year, ?, d.used_days, d.pending_days, now() " +
+                    "FROM unnest(CAST(? AS bigint[]), CAST(? AS text[]), CAST(? AS integer[]), CAST(? AS integer[]), " +
+                    "CAST(? AS integer[])) AS d(employee_id, leave_type, balance_year, used_days, pending_days) " +
+                    "ORDER BY d.employee_id, d.leave_type, d.balance_year " +
+                    "ON CONFLICT (employee_id, leave_type, balance_year) DO UPDATE SET " +
+                    "used_days = leave_balance.used_days + EXCLUDED.used_days, " +
+                    "pending_days = leave_balance.pending_days + EXCLUDED.pending_days, updated_at = now()")) {
+                ps.setInt(1, allowance);
+                ps.setArray(2, connection.createArrayOf("bigint", employeeIds));
+                ps.setArray(3, connection.createArrayOf("text", leaveTypes));
+                ps.setArray(4, connection.createArrayOf("integer", years));
+                ps.setArray(5, connection.createArrayOf("integer", used));
+                ps.setArray(6, connection.createArrayOf("integer", pending));
+                return ps.executeUpdate();
+            }
+        });
+    }
+
+    // Rewrites only the rows that disagree with the leaves table and returns how many that was
+    @Override
+    public int reconcile(int allowance) {
+        int drifted = ledgerUpdate(INSERT_COLUMNS +
+                "SELECT employee_id, leave_type, balance_year, :allowance, used_days, pending_days, now() " +
+                "FROM (" + ACTUAL_BALANCES + ") actual " +
+                "ON CONFLICT (employee_id, leave_type, balance_year) DO UPDATE SET " +
+                "used_days = EXCLUDED.used_days, pending_days = EXCLUDED.pending_days, updated_at = now() " +
+                "WHERE leave_balance.used_days <> EXCLUDED.used_days OR leave_balance.pending_days <> EXCLUDED.pending_days")
+            .setParameter("allowance", allowance)
+            .executeUpdate();
+        int stale = ledgerUpdate("UPDATE leave_balance bal SET used_days = 0, pending_days = 0, updated_at = now() " +
+                "WHERE (bal.used_days <> 0 OR bal.pending_days <> 0) AND NOT EXISTS (SELECT 1 FROM leaves lv " +
+                "WHERE lv.employee_id = bal.employee_id AND lv.leave_type = bal.leave_type " +
+                "AND lv.status IN ('APPROVED', 'PENDING') " +
+                "AND lv.start_date <= make_date(bal.balance_year, 12, 31) AND lv.end_date >= make_date(bal.balance_year, 1, 1))")
+            .executeUpdate();
+        return drifted + stale;
+    }
+
+    @Override
+    public int rebuild(int allowance) {
+        ledgerUpdate("DELETE FROM leave_balance").executeUpdate();
+        return ledgerUpdate(INSERT_COLUMNS +
+                "SELECT employee_id, leave_type, balance_year, :allowance, used_days, pending_days, now() " +
+                "FROM (" + ACTUAL_BALANCES + ") actual")
+            .setParameter("allowance", allowance)
+            .executeUpdate();
+    }
+
+    // Declaring the touched table keeps Hibernate from evicting every second-level cache region on each ledger write
+    private Query ledgerUpdate(String sql) {
+        Query query = em.createNativeQuery(sql);
+        query.unwrap(NativeQuery.class).addSynchronizedEntityClass(LeaveBalanceModel.class);
+        return query;
+    }
+}
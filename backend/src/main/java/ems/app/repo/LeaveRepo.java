@@ -1,14 +1,19 @@
 package ems.app.repo;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import ems.app.model.EmployeeModel;
 import ems.app.model.LeaveModel;
+import jakarta.persistence.LockModeType;
 import java.util.List;
+import java.util.Optional;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 @Repository
 public interface LeaveRepo extends JpaRepository<LeaveModel, Long> {
@@ -16,6 +21,11 @@ public interface LeaveRepo extends JpaRepository<LeaveModel, Long> {
     List<LeaveModel> findByStatus(String status);
     List<LeaveModel> findByLeaveType(String leaveType);
 
+    // Status transitions lock the leave row, so two reviewers can't both move the same days in the balance ledger
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT lv FROM LeaveModel lv WHERE lv.leave_id = :id")
+    Optional<LeaveModel> findByIdForUpdate(@Param("id") Long id);
+
     @Query("SELECT lv FROM LeaveModel lv WHERE lv.employee = :employee AND lv.status = :status")
     List<LeaveModel> findByEmployeeAndStatus(
         @Param("employee") EmployeeModel employee,
@@ -25,6 +35,64 @@ public interface LeaveRepo extends JpaRepository<LeaveModel, Long> {
     @Query("SELECT lv FROM LeaveModel lv WHERE lv.startDate <= :date AND lv.endDate >= :date")
     List<LeaveModel> findLeavesForDate(@Param("date") LocalDate date);
 
+    // Current state of a batch of leaves, row-locked in id order so concurrent batches cannot deadlock
+    @Query(value = "SELECT leave_id, employee_id, leave_type, status, start_date, end_date FROM leaves " +
+        "WHERE leave_id IN (:ids) ORDER BY leave_id FOR UPDATE", nativeQuery = true)
+    List<Object[]> lockStates(@Param("ids") List<Long> ids);
+
+    @Modifying
+    @Query("UPDATE LeaveModel lv SET lv.status = :status, lv.approvedBy = :reviewer, lv.approvalDate = :now, lv.updatedAt = :now " +
+        "WHERE lv.leave_id IN :ids")
+    int reviewAll(
+        @Param("ids") List<Long> ids,
+        @Param("status") String status,
+        @Param("reviewer") EmployeeModel reviewer,
+        @Param("now") LocalDateTime now
+    );
+
+    @Modifying
+    @Query("UPDATE LeaveModel lv SET lv.status = 'CANCELED', lv.approvalDate = :now, lv.updatedAt = :now WHERE lv.leave_id IN :ids")
+    int cancelAll(@Param("ids") List<Long> ids, @Param("now") LocalDateTime now);
+
+    // Pending requests anywhere below :managerId, oldest first; each team member is one probe of idx_leaves_status_employee
+    @Query(value = "WITH RECURSIVE team AS (" +
+        "SELECT employee_id, 1 AS depth FROM employee WHERE manager_id = :managerId " +
+        "UNION ALL " +
+        "SELECT e.employee_id, team.depth + 1 FROM employee e " +
+        "JOIN team ON e.manager_id = team.employee_id WHERE team.depth < :maxDepth) " +
+        "SELECT lv.leave_id, lv.employee_id, e.first_name, e.last_name, lv.leave_type, lv.start_date, lv.end_date, " +
+        "lv.total_days, lv.reason, lv.created_at " +
+        "FROM team JOIN leaves lv ON lv.employee_id = team.employee_id AND lv.status = 'PENDING' " +
+        "JOIN employee e ON e.employee_id = lv.employee_id " +
+        "WHERE lv.leave_id > :afterId ORDER BY lv.leave_id LIMIT :limit", nativeQuery = true)
+    List<Object[]> findPendingForManager(
+        @Param("managerId") Long managerId,
+        @Param("afterId") long afterId,
+        @Param("limit") int limit,
+        @Param("maxDepth") int maxDepth
+    );
+
+    @Query(value = "SELECT lv.leave_id, lv.employee_id, e.first_name, e.last_name, lv.leave_type, lv.start_date, lv.end_date, " +
+        "lv.total_days, lv.reason, lv.created_at " +
+        "FROM leaves lv JOIN employee e ON e.employee_id = lv.employee_id " +
+        "WHERE lv.leave_id = :leaveId AND lv.status = 'PENDING'", nativeQuery = true)
+    List<Object[]> findPendingById(@Param("leaveId") Long leaveId);
+
+    // Flat rows for the in-memory leave calendar, so the startup load hydrates no employees
+    @Query("SELECT lv.leave_id, emp.employeeId, lv.leaveType, lv.status, lv.startDate, lv.endDate " +
+        "FROM LeaveModel lv JOIN lv.employee emp WHERE lv.status IN ('PENDING', 'APPROVED')")
+    List<Object[]> findActiveIntervals();
+
+    // Same predicate as the leaves_no_active_overlap exclusion constraint, so the planner can answer it from that GiST index
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM leaves WHERE employee_id = :employeeId " +
+        "AND status IN ('PENDING', 'APPROVED') " +
+        "AND daterange(start_date, end_date, '[]') && daterange(:startDate, :endDate, '[]'))", nativeQuery = true)
+    boolean existsActiveOverlap(
+        @Param("employeeId") Long employeeId,
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate
+    );
+
     @Query("SELECT lv FROM LeaveModel lv WHERE lv.employee = :employee AND" +
         "((lv.startDate BETWEEN :startDate AND :endDate) OR" + 
         "(lv.endDate BETWEEN :startDate AND :endDate) OR" +
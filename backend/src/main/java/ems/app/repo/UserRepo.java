@@ -4,10 +4,14 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import ems.app.model.EmployeeModel;
 import ems.app.model.UserModel;
+import jakarta.transaction.Transactional;
 
 @Repository
 public interface UserRepo extends JpaRepository<UserModel, Long> {
@@ -16,4 +20,10 @@ public interface UserRepo extends JpaRepository<UserModel, Long> {
     List<UserModel> findByRole(String role);
     List<UserModel> findByStatus(String status);
     Optional<UserModel> findByEmployee(EmployeeModel employee);
+
+    // Compare-and-set, so a rehash racing a password change never overwrites the new password
+    @Modifying
+    @Transactional
+    @Query("UPDATE UserModel u SET u.password = :hash WHERE u.userId = :userId AND u.password = :current")
+    int replacePassword(@Param("userId") Long userId, @Param("current") String current, @Param("hash") String hash);
 }
@@ -0,0 +1,313 @@
+package ems.app.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Columnar employee x day store of status codes and worked minutes, laid out employee-major (employee * days + day)
+public class AttendanceCube {
+    public static final byte NONE = 0;
+    public static final byte PRESENT = 1;
+    public static final byte ABSENT = 2;
+    public static final byte LATE = 3;
+    public static final byte ON_LEAVE = 4;
+    public static final byte OTHER = 5;
+    public static final int STATUS_CODES = 6;
+
+    private static final int NO_DEPARTMENT = -1;
+
+    private final LocalDate origin;
+    private final int days;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, Integer> employeeIndex = new HashMap<>();
+    private final Map<Long, Integer> departmentIndex = new HashMap<>();
+    private long[] departmentIds = new long[16];
+    private int departmentCount;
+
+    private int employeeCount;
+    private int[] employeeDepartment;
+    private byte[] status;
+    private short[] minutes;
+
+    public AttendanceCube(LocalDate origin, int days, int expectedEmployees) {
+        this.origin = origin;
+        this.days = days;
+        int capacity = Math.max(expectedEmployees, 16);
+        this.employeeDepartment = new int[capacity];
+        this.status = new byte[capacity * days];
+        this.minutes = new short[capacity * days];
+    }
+
+    public LocalDate getOrigin() {
+        return origin;
+    }
+
+    public int getDays() {
+        return days;
+    }
+
+    public static byte statusCode(String status) {
+        if (status == null) {
+            return NONE;
+        }
+        switch (status) {
+            case "PRESENT": return PRESENT;
+            case "ABSENT": return ABSENT;
+            case "LATE": return LATE;
+            case "ON_LEAVE": return ON_LEAVE;
+            default: return OTHER;
+        }
+    }
+
+    public void setDepartment(long employeeId, Long departmentId) {
+        lock.writeLock().lock();
+        try {
+            int e = employeeSlot(employeeId);
+            employeeDepartment[e] = departmentSlot(departmentId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean record(long employeeId, LocalDate date, String statusValue, BigDecimal workingHrs) {
+        int d = dayIndex(date);
+        if (d < 0 || d >= days) {
+            return false;
+        }
+        lock.writeLock().lock();
+        try {
+            int cell = employeeSlot(employeeId) * days + d;
+            status[cell] = statusCode(statusValue);
+            minutes[cell] = toMinutes(workingHrs);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear(long employeeId, LocalDate date) {
+        int d = dayIndex(date);
+        if (d < 0 || d >= days) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Integer e = employeeIndex.get(employeeId);
+            if (e != null) {
+                status[e * days + d] = NONE;
+                minutes[e * days + d] = 0;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // counts[statusCode][day] for the requested range; departmentId null means every employee
+    public int[][] countByStatus(Long departmentId, LocalDate startDate, LocalDate endDate) {
+        int span = span(startDate, endDate);
+        int[][] counts = new int[STATUS_CODES][span];
+        int offset = dayIndex(startDate);
+
+        lock.readLock().lock();
+        try {
+            int dept = departmentFilter(departmentId);
+            if (dept == Integer.MIN_VALUE) {
+                return counts;
+            }
+            int from = Math.max(0, -offset);
+            int to = Math.min(span, days - offset);
+            for (int e = 0; e < employeeCount; e++) {
+                if (dept != Integer.MAX_VALUE && employeeDepartment[e] != dept) {
+                    continue;
+                }
+                int base = e * days + offset;
+                for (int i = from; i < to; i++) {
+                    counts[status[base + i]][i]++;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return counts;
+    }
+
+    // Share of recorded cells that are PRESENT or LATE, per day
+    public double[] presenceRate(Long departmentId, LocalDate startDate, LocalDate endDate) {
+        return rate(countByStatus(departmentId, startDate, endDate));
+    }
+
+    // One pass over every employee, bucketing by department; key null is "no department"
+    public Map<Long, double[]> presenceHeatmap(LocalDate startDate, LocalDate endDate) {
+        int span = span(startDate, endDate);
+        int offset = dayIndex(startDate);
+        Map<Long, double[]> heatmap = new LinkedHashMap<>();
+
+        lock.readLock().lock();
+        try {
+            int buckets = departmentCount + 1;
+            int[] present = new int[buckets * span];
+            int[] recorded = new int[buckets * span];
+            int from = Math.max(0, -offset);
+            int to = Math.min(span, days - offset);
+
+            for (int e = 0; e < employeeCount; e++) {
+                int bucket = (employeeDepartment[e] + 1) * span;
+                int base = e * days + offset;
+                for (int i = from; i < to; i++) {
+                    byte code = status[base + i];
+                    if (code != NONE) {
+                        recorded[bucket + i]++;
+                        if (code == PRESENT || code == LATE) {
+                            present[bucket + i]++;
+                        }
+                    }
+                }
+            }
+
+            for (int b = 0; b < buckets; b++) {
+                double[] rates = new double[span];
+                for (int i = 0; i < span; i++) {
+                    int n = recorded[b * span + i];
+                    rates[i] = n == 0 ? 0.0 : (double) present[b * span + i] / n;
+                }
+                heatmap.put(b == 0 ? null : departmentIds[b - 1], rates);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return heatmap;
+    }
+
+    // Total worked minutes in the slice, optionally restricted to one status
+    public long workedMinutes(Long departmentId, LocalDate startDate, LocalDate endDate, String statusValue) {
+        int span = span(startDate, endDate);
+        int offset = dayIndex(startDate);
+        byte wanted = statusValue == null ? NONE : statusCode(statusValue);
+        long total = 0;
+
+        lock.readLock().lock();
+        try {
+            int dept = departmentFilter(departmentId);
+            if (dept == Integer.MIN_VALUE) {
+                return 0;
+            }
+            int from = Math.max(0, -offset);
+            int to = Math.min(span, days - offset);
+            for (int e = 0; e < employeeCount; e++) {
+                if (dept != Integer.MAX_VALUE && employeeDepartment[e] != dept) {
+                    continue;
+                }
+                int base = e * days + offset;
+                for (int i = from; i < to; i++) {
+                    if (wanted == NONE || status[base + i] == wanted) {
+                        total += minutes[base + i];
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return total;
+    }
+
+    public int employeeCount() {
+        lock.readLock().lock();
+        try {
+            return employeeCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long memoryBytes() {
+        lock.readLock().lock();
+        try {
+            return (long) status.length + 2L * minutes.length + 4L * employeeDepartment.length + 8L * departmentIds.length;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static double[] rate(int[][] counts) {
+        int span = counts[0].length;
+        double[] rates = new double[span];
+        for (int i = 0; i < span; i++) {
+            int present = counts[PRESENT][i] + counts[LATE][i];
+            int recorded = present + counts[ABSENT][i] + counts[ON_LEAVE][i] + counts[OTHER][i];
+            rates[i] = recorded == 0 ? 0.0 : (double) present / recorded;
+        }
+        return rates;
+    }
+
+    private int dayIndex(LocalDate date) {
+        return (int) ChronoUnit.DAYS.between(origin, date);
+    }
+
+    // Capped at the window length: every result array is sized by the span, and days past the window are all zero
+    private int span(LocalDate startDate, LocalDate endDate) {
+        if (endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("endDate is before startDate");
+        }
+        long span = ChronoUnit.DAYS.between(startDate, endDate) + 1;
+        if (span > days) {
+            throw new IllegalArgumentException("The range may span at most " + days + " days");
+        }
+        return (int) span;
+    }
+
+    // MAX_VALUE = no filter, MIN_VALUE = unknown department (empty result)
+    private int departmentFilter(Long departmentId) {
+        if (departmentId == null) {
+            return Integer.MAX_VALUE;
+        }
+        Integer slot = departmentIndex.get(departmentId);
+        return slot == null ? Integer.MIN_VALUE : slot;
+    }
+
+    private int employeeSlot(long employeeId) {
+        Integer slot = employeeIndex.get(employeeId);
+        if (slot != null) {
+            return slot;
+        }
+        if (employeeCount == employeeDepartment.length) {
+            int capacity = employeeDepartment.length * 2;
+            employeeDepartment = Arrays.copyOf(employeeDepartment, capacity);
+            status = Arrays.copyOf(status, capacity * days);
+            minutes = Arrays.copyOf(minutes, capacity * days);
+        }
+        int e = employeeCount++;
+        employeeDepartment[e] = NO_DEPARTMENT;
+        employeeIndex.put(employeeId, e);
+        return e;
+    }
+
+    private int departmentSlot(Long departmentId) {
+        if (departmentId == null) {
+            return NO_DEPARTMENT;
+        }
+        Integer slot = departmentIndex.get(departmentId);
+        if (slot != null) {
+            return slot;
+        }
+        if (departmentCount == departmentIds.length) {
+            departmentIds = Arrays.copyOf(departmentIds, departmentCount * 2);
+        }
+        departmentIds[departmentCount] = departmentId;
+        departmentIndex.put(departmentId, departmentCount);
+        return departmentCount++;
+    }
+
+    private static short toMinutes(BigDecimal workingHrs) {
+        if (workingHrs == null) {
+            return 0;
+        }
+        int value = workingHrs.multiply(BigDecimal.valueOf(60)).intValue();
+        return (short) Math.max(0, Math.min(Short.MAX_VALUE, value));
+    }
+}
@@ -0,0 +1,173 @@
+package ems.app.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import ems.app.dto.AttendanceRow;
+import ems.app.dto.CubeSlice;
+import ems.app.dto.DepartmentPresence;
+import ems.app.model.AttendanceModel;
+import ems.app.repo.AttendanceRepo;
+import ems.app.repo.EmployeeRepo;
+import jakarta.transaction.Transactional;
+
+@Service
+public class AttendanceCubeService {
+    private final AttendanceRepo attRepo;
+    private final EmployeeRepo empRepo;
+    private final int historyDays;
+    private final int futureDays;
+
+    private final ReentrantLock swapLock = new ReentrantLock();
+    private volatile AttendanceCube cube;
+    private List<Consumer<AttendanceCube>> journal;
+
+    @Autowired
+    public AttendanceCubeService(
+        AttendanceRepo attRepo,
+        EmployeeRepo empRepo,
+        @Value("${ems.attendance.cube.history-days:366}") int historyDays,
+        @Value("${ems.attendance.cube.future-days:31}") int futureDays
+    ) {
+        this.attRepo = attRepo;
+        this.empRepo = empRepo;
+        this.historyDays = historyDays;
+        this.futureDays = futureDays;
+        this.cube = new AttendanceCube(LocalDate.now().minusDays(historyDays), historyDays + futureDays + 1, 0);
+    }
+
+    // Rebuilt at startup and nightly so the day window keeps rolling forward
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${ems.attendance.cube.rebuild-cron:0 0 3 * * *}")
+    @Transactional
+    public void rebuild() {
+        swapLock.lock();
+        try {
+            journal = new ArrayList<>();
+        } finally {
+            swapLock.unlock();
+        }
+
+        LocalDate origin = LocalDate.now().minusDays(historyDays);
+        int days = historyDays + futureDays + 1;
+        List<Object[]> employees = empRepo.findEmployeeDepartmentIds();
+        AttendanceCube fresh = new AttendanceCube(origin, days, employees.size());
+        for (Object[] row : employees) {
+            fresh.setDepartment((Long) row[0], (Long) row[1]);
+        }
+        try (Stream<AttendanceRow> rows = attRepo.streamRowsByDateBetween(origin, origin.plusDays(days - 1), null)) {
+            rows.forEach(row -> fresh.record(row.employeeId(), row.date(), row.status(), row.workingHrs()));
+        }
+
+        // Replay writes that landed while the new cube was loading
+        swapLock.lock();
+        try {
+            for (Consumer<AttendanceCube> change : journal) {
+                change.accept(fresh);
+            }
+            cube = fresh;
+            journal = null;
+        } finally {
+            swapLock.unlock();
+        }
+    }
+
+    public void record(AttendanceModel attendance) {
+        if (attendance.getEmployee() == null || attendance.getDate() == null) {
+            return;
+        }
+        Long employeeId = attendance.getEmployee().getEmployeeId();
+        LocalDate date = attendance.getDate();
+        String status = attendance.getStatus();
+        BigDecimal workingHrs = attendance.getWorkingHrs();
+        apply(target -> target.record(employeeId, date, status, workingHrs));
+    }
+
+    public void record(Collection<AttendanceModel> attendances) {
+        attendances.forEach(this::record);
+    }
+
+    public void recordRows(List<AttendanceRow> rows) {
+        apply(target -> rows.forEach(row -> target.record(row.employeeId(), row.date(), row.status(), row.workingHrs())));
+    }
+
+    public void clear(Long employeeId, LocalDate date) {
+        apply(target -> target.clear(employeeId, date));
+    }
+
+    public void setDepartment(Long employeeId, Long departmentId) {
+        apply(target -> target.setDepartment(employeeId, departmentId));
+    }
+
+    public void setDepartments(Map<Long, Long> departmentByEmployee) {
+        apply(target -> departmentByEmployee.forEach(target::setDepartment));
+    }
+
+    public boolean fitsWindow(LocalDate startDate, LocalDate endDate) {
+        return !endDate.isBefore(startDate) && ChronoUnit.DAYS.between(startDate, endDate) < cube.getDays();
+    }
+
+    public List<DepartmentPresence> getPresenceHeatmap(LocalDate startDate, LocalDate endDate) {
+        Map<Long, double[]> heatmap = cube.presenceHeatmap(startDate, endDate);
+        List<DepartmentPresence> result = new ArrayList<>(heatmap.size());
+        heatmap.forEach((departmentId, rates) -> result.add(new DepartmentPresence(departmentId, startDate, rates)));
+        return result;
+    }
+
+    public CubeSlice getSlice(Long departmentId, LocalDate startDate, LocalDate endDate) {
+        AttendanceCube current = cube;
+        int[][] counts = current.countByStatus(departmentId, startDate, endDate);
+        return new CubeSlice(
+            departmentId,
+            startDate,
+            endDate,
+            counts[AttendanceCube.PRESENT],
+            counts[AttendanceCube.ABSENT],
+            counts[AttendanceCube.LATE],
+            counts[AttendanceCube.ON_LEAVE],
+            current.presenceRate(departmentId, startDate, endDate),
+            current.workedMinutes(departmentId, startDate, endDate, null));
+    }
+
+    public long getWorkedMinutes(Long departmentId, LocalDate startDate, LocalDate endDate, String status) {
+        return cube.workedMinutes(departmentId, startDate, endDate, status);
+    }
+
+    public Map<String, Object> getStats() {
+        AttendanceCube current = cube;
+        return Map.of(
+            "origin", current.getOrigin(),
+            "days", current.getDays(),
+            "employees", current.employeeCount(),
+            "memoryBytes", current.memoryBytes());
+    }
+
+    private void apply(Consumer<AttendanceCube> change) {
+        AfterCommit.run(() -> {
+            swapLock.lock();
+            try {
+                change.accept(cube);
+                if (journal != null) {
+                    journal.add(change);
+                }
+            } finally {
+                swapLock.unlock();
+            }
+        });
+    }
+}
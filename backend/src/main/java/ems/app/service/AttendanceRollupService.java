@@ -0,0 +1,84 @@
+package ems.app.service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeSet;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import ems.app.model.AttendanceModel;
+import ems.app.model.AttendanceRollupModel;
+import ems.app.repo.AttendanceRollupRepo;
+import jakarta.transaction.Transactional;
+
+@Service
+public class AttendanceRollupService {
+    private final AttendanceRollupRepo repo;
+
+    @Autowired
+    public AttendanceRollupService(AttendanceRollupRepo repo) {
+        this.repo = repo;
+    }
+
+    public Optional<AttendanceRollupModel> getMonthlySummary(Long employeeId, YearMonth month) {
+        return repo.findByEmployeeIdAndMonthStart(employeeId, month.atDay(1));
+    }
+
+    public List<AttendanceRollupModel> getSummaryRange(Long employeeId, YearMonth from, YearMonth to) {
+        return repo.findByEmployeeIdAndMonthBetween(employeeId, from.atDay(1), to.atDay(1));
+    }
+
+    public List<AttendanceRollupModel> getMonthSummaries(YearMonth month, Long departmentId) {
+        if (departmentId != null) {
+            return repo.findByMonthStartAndDepartment(month.atDay(1), departmentId);
+        }
+        return repo.findByMonthStart(month.atDay(1));
+    }
+
+    @Transactional
+    public void refresh(Long employeeId, LocalDate date) {
+        YearMonth month = YearMonth.from(date);
+        repo.lockRollup(employeeId, month.atDay(1));
+        repo.recompute(employeeId, month.atDay(1), month.plusMonths(1).atDay(1));
+    }
+
+    // Locks in a fixed order so two writers touching the same employees can't deadlock
+    @Transactional
+    public void refresh(Collection<AttendanceModel> rows) {
+        TreeSet<RollupKey> keys = new TreeSet<>(Comparator
+            .comparing(RollupKey::employeeId)
+            .thenComparing(RollupKey::month));
+        for (AttendanceModel row : rows) {
+            if (row.getEmployee() != null && row.getDate() != null) {
+                keys.add(new RollupKey(row.getEmployee().getEmployeeId(), YearMonth.from(row.getDate())));
+            }
+        }
+        for (RollupKey key : keys) {
+            repo.lockRollup(key.employeeId(), key.month().atDay(1));
+            repo.recompute(key.employeeId(), key.month().atDay(1), key.month().plusMonths(1).atDay(1));
+        }
+    }
+
+    @Transactional
+    public int refreshForDate(LocalDate date) {
+        YearMonth month = YearMonth.from(date);
+        return repo.recomputeForDate(date, month.atDay(1), month.plusMonths(1).atDay(1));
+    }
+
+    @Scheduled(cron = "${ems.attendance.rollup.rebuild-cron:-}")
+    @Transactional
+    public int rebuild() {
+        int rebuilt = repo.rebuildAll();
+        repo.deleteStaleRollups();
+        return rebuilt;
+    }
+
+    private record RollupKey(Long employeeId, YearMonth month) {
+    }
+}
@@ -1,15 +1,36 @@
 package ems.app.service;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ems.app.dto.AbsenceSweepResult;
+import ems.app.dto.AttendanceCursor;
+import ems.app.dto.AttendanceFilter;
+import ems.app.dto.AttendanceRow;
+import ems.app.dto.ClockEvent;
+import ems.app.dto.ClockEventResult;
+import ems.app.dto.CursorPage;
 import ems.app.model.AttendanceModel;
 import ems.app.model.EmployeeModel;
 import ems.app.repo.AttendanceRepo;
@@ -18,16 +39,69 @@ import jakarta.transaction.Transactional;
 @Service
 public class AttendanceService {
     private final AttendanceRepo repo;
+    private final AttendanceRollupService rollupService;
+    private final AttendanceCubeService cubeService;
+    private final ObjectMapper objectMapper;
 
     @Autowired
-    public AttendanceService(AttendanceRepo repo) {
+    public AttendanceService(
+        AttendanceRepo repo,
+        AttendanceRollupService rollupService,
+        AttendanceCubeService cubeService,
+        ObjectMapper objectMapper
+    ) {
         this.repo = repo;
+        this.rollupService = rollupService;
+        this.cubeService = cubeService;
+        this.objectMapper = objectMapper;
     }
 
     public List<AttendanceModel> getALlAttendances() {
         return repo.findAll();
     }
 
+    public CursorPage<AttendanceRow> getAttendancePage(AttendanceFilter filter, String cursor, int size) {
+        AttendanceCursor after = (cursor != null && !cursor.isEmpty()) ? AttendanceCursor.decode(cursor) : null;
+
+        // Fetch one extra row to know whether another page exists
+        List<AttendanceRow> rows = repo.findPage(filter, after, size + 1);
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null);
+        }
+
+        List<AttendanceRow> page = rows.subList(0, size);
+        AttendanceRow last = page.get(size - 1);
+        return new CursorPage<>(page, new AttendanceCursor(last.date(), last.attendanceId()).encode());
+    }
+
+    // Writes rows as they come off the cursor, so memory stays flat regardless of the range exported
+    @Transactional
+    public long exportAttendance(LocalDate startDate, LocalDate endDate, Long departmentId, boolean ndjson, OutputStream out) {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        long count = 0;
+
+        try (Stream<AttendanceRow> rows = repo.streamRowsByDateBetween(startDate, endDate, departmentId)) {
+            if (!ndjson) {
+                writer.write("attendance_id,employee_id,date,clock_in,clock_out,status,working_hours\r\n");
+            }
+            for (AttendanceRow row : (Iterable<AttendanceRow>) rows::iterator) {
+                if (ndjson) {
+                    writer.write(objectMapper.writeValueAsString(row));
+                } else {
+                    writer.write(row.attendanceId() + "," + row.employeeId() + "," + row.date() + ","
+                        + csv(row.clockIn()) + "," + csv(row.clockOut()) + ","
+                        + csv(row.status()) + "," + csv(row.workingHrs()));
+                }
+                writer.write(ndjson ? "\n" : "\r\n");
+                count++;
+            }
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return count;
+    }
+
     public Optional<AttendanceModel> getAttendanceById(Long id) {
         return repo.findById(id);
     }
@@ -51,55 +125,121 @@ public class AttendanceService {
 
     @Transactional
     public AttendanceModel saveAttedance(AttendanceModel attendance) {
-        // Calculate working hours if both clock in and clock out are provided
-        if (attendance.getClockIn() != null && attendance.getClockOut() != null) {
-            Duration duration = Duration.between(attendance.getClockIn(), attendance.getClockOut());
-            double hours = duration.toMinutes() / 60.0;
-            attendance.setWorkingHrs(BigDecimal.valueOf(hours));
+        List<AttendanceModel> touched = new ArrayList<>();
+        if (attendance.getAttendance_id() != null) {
+            repo.findById(attendance.getAttendance_id())
+                .ifPresent(existing -> touched.add(snapshotKey(existing)));
         }
 
-        return repo.save(attendance);
+        calculateWorkingHours(attendance);
+        AttendanceModel saved = repo.saveAndFlush(attendance);
+
+        touched.add(saved);
+        rollupService.refresh(touched);
+        touched.forEach(row -> {
+            if (row.getEmployee() != null) {
+                cubeService.clear(row.getEmployee().getEmployeeId(), row.getDate());
+            }
+        });
+        cubeService.record(saved);
+        return saved;
     }
 
 
     @Transactional
-    public synchronized AttendanceModel clockIn(EmployeeModel employee, LocalDate date, LocalTime clockInTime) {
-        List<AttendanceModel> attendances = repo.findByEmployeeAndDate(employee, date);
+    public AttendanceModel clockIn(EmployeeModel employee, LocalDate date, LocalTime clockInTime) {
+        // Single-statement upsert on (employee_id, date); concurrent clock-ins only contend on the same row
+        AttendanceModel attendance = repo.upsertClockIn(employee.getEmployeeId(), date, clockInTime);
+        rollupService.refresh(employee.getEmployeeId(), date);
+        cubeService.record(attendance);
+        return attendance;
+    }
 
-        AttendanceModel attendance;
-        if (attendances.isEmpty()) {
-            attendance = new AttendanceModel();
-            attendance.setEmployee(employee);
-            attendance.setDate(date);
-            attendance.setStatus("PRESENT");
-        } else {
-            attendance = attendances.get(0);
-            attendance.setStatus("PRESENT");
-        }
+    @Transactional
+    public AttendanceModel clockOut(EmployeeModel employee, LocalDate date, LocalTime time) {
+        AttendanceModel attendance = repo.findByEmployeeAndDateForUpdate(employee, date)
+            .orElseThrow(() -> new RuntimeException("No clock-in record found for this employee on this date"));
+
+        attendance.setClockOut(time);
+        calculateWorkingHours(attendance);
+        AttendanceModel saved = repo.saveAndFlush(attendance);
 
-        attendance.setClockIn(clockInTime);
-        return repo.save(attendance);
+        rollupService.refresh(employee.getEmployeeId(), date);
+        cubeService.record(saved);
+        return saved;
     }
 
     @Transactional
-    public synchronized AttendanceModel clockOut(EmployeeModel employee, LocalDate date, LocalTime time) {
-        List<AttendanceModel> attendances = repo.findByEmployeeAndDate(employee, date);
+    public List<ClockEventResult> ingestClockEvents(List<ClockEvent> events, Map<Long, EmployeeModel> employees) {
+        List<ClockEventResult> results = new ArrayList<>(events.size());
+        if (events.isEmpty()) {
+            return results;
+        }
 
-        if (attendances.isEmpty()) {
-            throw new RuntimeException("No clock-in record found for this employee on this date");
+        // Lock, then load, every existing row the batch can touch, so concurrent writers to those rows wait for us
+        LocalDate minDate = events.stream().map(ClockEvent::date).min(LocalDate::compareTo).get();
+        LocalDate maxDate = events.stream().map(ClockEvent::date).max(LocalDate::compareTo).get();
+        Map<String, AttendanceModel> rows = new HashMap<>();
+        if (!employees.isEmpty()) {
+            repo.lockByEmployeeIdsAndDateBetween(employees.keySet(), minDate, maxDate);
+            for (AttendanceModel existing : repo.findByEmployeeIdsAndDateBetween(employees.keySet(), minDate, maxDate)) {
+                rows.put(rowKey(existing.getEmployee().getEmployeeId(), existing.getDate()), existing);
+            }
         }
 
-        AttendanceModel attendance = attendances.get(0);
-        attendance.setClockOut(time);
+        Map<Integer, AttendanceModel> applied = new HashMap<>();
+        List<AttendanceModel> created = new ArrayList<>();
+        for (int i = 0; i < events.size(); i++) {
+            ClockEvent event = events.get(i);
+            EmployeeModel employee = employees.get(event.employeeId());
+            if (employee == null) {
+                results.add(ClockEventResult.failed(i, event.employeeId(), "NOT_FOUND", "Employee not found"));
+                continue;
+            }
 
-        // Calculate working hours
-        if (attendance.getClockIn() != null) {
-            Duration duration = Duration.between(attendance.getClockIn(), time);
-            double hours = duration.toMinutes() / 60.0;
-            attendance.setWorkingHrs(BigDecimal.valueOf(hours));
+            String key = rowKey(employee.getEmployeeId(), event.date());
+            AttendanceModel attendance = rows.get(key);
+
+            if (ClockEvent.CLOCK_IN.equals(event.type())) {
+                if (attendance == null) {
+                    attendance = new AttendanceModel();
+                    attendance.setEmployee(employee);
+                    attendance.setDate(event.date());
+                    rows.put(key, attendance);
+                    created.add(attendance);
+                }
+                attendance.setStatus("PRESENT");
+                attendance.setClockIn(event.time());
+            } else if (ClockEvent.CLOCK_OUT.equals(event.type())) {
+                if (attendance == null) {
+                    results.add(ClockEventResult.failed(i, event.employeeId(), "REJECTED",
+                        "No clock-in record found for this employee on this date"));
+                    continue;
+                }
+                attendance.setClockOut(event.time());
+            } else {
+                results.add(ClockEventResult.failed(i, event.employeeId(), "REJECTED", "Unknown event type: " + event.type()));
+                continue;
+            }
+
+            calculateWorkingHours(attendance);
+            applied.put(i, attendance);
+            results.add(null);
         }
 
-        return repo.save(attendance);
+        // Locked rows are updated by dirty checking; new rows go out in one upsert that merges with any row a
+        // concurrent clock-in committed since the lock
+        List<AttendanceModel> touched = applied.values().stream().distinct().collect(Collectors.toList());
+        repo.flush();
+        repo.insertOrMerge(created);
+        rollupService.refresh(touched);
+        cubeService.record(touched);
+
+        for (Map.Entry<Integer, AttendanceModel> entry : applied.entrySet()) {
+            int index = entry.getKey();
+            results.set(index, ClockEventResult.ok(index, events.get(index).employeeId(), entry.getValue().getAttendance_id()));
+        }
+        return results;
     }
 
     @Transactional
@@ -108,7 +248,11 @@ public class AttendanceService {
         if(attendanceOpt.isPresent()) {
             AttendanceModel attendance = attendanceOpt.get();
             attendance.setStatus(status);
-            return repo.save(attendance);
+            AttendanceModel saved = repo.saveAndFlush(attendance);
+
+            rollupService.refresh(List.of(saved));
+            cubeService.record(saved);
+            return saved;
         }
 
         throw new RuntimeException("Attendance record not found");
@@ -116,7 +260,15 @@ public class AttendanceService {
 
     @Transactional
     public void deleteAttendance(Long id) {
+        Optional<AttendanceModel> existing = repo.findById(id);
         repo.deleteById(id);
+        repo.flush();
+        existing.ifPresent(attendance -> {
+            rollupService.refresh(List.of(attendance));
+            if (attendance.getEmployee() != null) {
+                cubeService.clear(attendance.getEmployee().getEmployeeId(), attendance.getDate());
+            }
+        });
     }
 
     public boolean hasAttendanceForDate(EmployeeModel employee, LocalDate date) {
@@ -125,20 +277,71 @@ public class AttendanceService {
     }
 
     @Transactional
-    public synchronized void markAbsent(EmployeeModel employee, LocalDate date) {
-        List<AttendanceModel> attendances = repo.findByEmployeeAndDate(employee, date);
+    public void markAbsent(EmployeeModel employee, LocalDate date) {
+        repo.upsertAbsent(employee.getEmployeeId(), date);
+        rollupService.refresh(employee.getEmployeeId(), date);
+        cubeService.record(snapshotKey(employee, date, "ABSENT"));
+    }
+
+    @Transactional
+    public AbsenceSweepResult markAbsentForDate(LocalDate date) {
+        long start = System.nanoTime();
+        int absent = 0;
+        int onLeave = 0;
+
+        for (Object[] row : repo.markAbsentForDate(date)) {
+            int count = ((Number) row[1]).intValue();
+            if ("ON_LEAVE".equals(row[0])) {
+                onLeave = count;
+            } else {
+                absent = count;
+            }
+        }
 
-        AttendanceModel attendance;
-        if(attendances.isEmpty()) {
-            attendance = new AttendanceModel();
-            attendance.setEmployee(employee);
-            attendance.setDate(date);
-        } else {
-            attendance = attendances.get(0);
+        rollupService.refreshForDate(date);
+        try (Stream<AttendanceRow> rows = repo.streamRowsByDateBetween(date, date, null)) {
+            cubeService.recordRows(rows.collect(Collectors.toList()));
         }
 
-        attendance.setStatus("ABSENT");
-        repo.save(attendance);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        return new AbsenceSweepResult(date, absent, onLeave, elapsedMillis);
+    }
+
+    private void calculateWorkingHours(AttendanceModel attendance) {
+        if (attendance.getClockIn() != null && attendance.getClockOut() != null) {
+            Duration duration = Duration.between(attendance.getClockIn(), attendance.getClockOut());
+            double hours = duration.toMinutes() / 60.0;
+            attendance.setWorkingHrs(BigDecimal.valueOf(hours));
+        }
+    }
+
+    // Detached copy of the fields that decide which rollup a row belongs to
+    private static AttendanceModel snapshotKey(AttendanceModel attendance) {
+        return snapshotKey(attendance.getEmployee(), attendance.getDate(), attendance.getStatus());
+    }
+
+    private static AttendanceModel snapshotKey(EmployeeModel employee, LocalDate date, String status) {
+        AttendanceModel key = new AttendanceModel();
+        key.setEmployee(employee);
+        key.setDate(date);
+        key.setStatus(status);
+        return key;
+    }
+
+    // RFC 4180: a field holding a comma, quote or line break is quoted, with inner quotes doubled
+    static String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+
+    private static String rowKey(Long employeeId, LocalDate date) {
+        return employeeId + ":" + date;
     }
 
 }
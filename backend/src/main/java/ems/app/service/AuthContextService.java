@@ -0,0 +1,110 @@
+package ems.app.service;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import ems.app.dto.AuthContext;
+import ems.app.model.EmployeeModel;
+import ems.app.model.UserModel;
+import ems.app.repo.EmployeeRepo;
+import ems.app.repo.UserRepo;
+
+// Caller role, employee, department and reporting tree, loaded on the first request after a change and then served
+// from memory. Writers invalidate after commit; the TTL only bounds staleness from changes made outside this service.
+@Service
+public class AuthContextService {
+    private final UserRepo userRepo;
+    private final EmployeeRepo empRepo;
+    private final Cache<Long, AuthContext> contexts;
+    // Bumped by every invalidation, so a load that raced one is returned but not cached
+    private final AtomicLong invalidations = new AtomicLong();
+
+    @Autowired
+    public AuthContextService(UserRepo userRepo, EmployeeRepo empRepo,
+            @Value("${ems.auth.context-cache-size:10000}") long cacheSize,
+            @Value("${ems.auth.context-ttl:15m}") Duration ttl) {
+        this.userRepo = userRepo;
+        this.empRepo = empRepo;
+        this.contexts = Caffeine.newBuilder()
+            .maximumSize(cacheSize)
+            .expireAfterWrite(ttl)
+            .build();
+    }
+
+    // Deleted users resolve to an inactive context, so a still-valid token for them never reaches the database again.
+    // Loaded outside the cache's compute: Caffeine runs loaders under a map-bin monitor, which would pin a virtual
+    // thread's carrier for the whole query.
+    public AuthContext resolve(Long userId) {
+        AuthContext context = contexts.getIfPresent(userId);
+        if (context == null) {
+            long seen = invalidations.get();
+            context = load(userId);
+            contexts.put(userId, context);
+            if (invalidations.get() != seen) {
+                contexts.asMap().remove(userId, context);
+            }
+        }
+        return context;
+    }
+
+    public void userChanged(Long userId) {
+        AfterCommit.run(() -> {
+            invalidations.incrementAndGet();
+            contexts.invalidate(userId);
+        });
+    }
+
+    // Drops the employee's own context, every cached ancestor whose report set contains it (the old chain) and the new
+    // manager with its ancestors; the scan runs after commit, so a context reloaded mid-transaction is caught too
+    public void reportingLineChanged(Long employeeId, Long newManagerId) {
+        AfterCommit.run(() -> {
+            invalidations.incrementAndGet();
+            contexts.asMap().values().removeIf(context -> employeeId.equals(context.employeeId())
+                || context.manages(employeeId)
+                || (newManagerId != null && (newManagerId.equals(context.employeeId()) || context.manages(newManagerId))));
+        });
+    }
+
+    // Department moves only affect the employee's own context
+    public void employeeChanged(Long employeeId) {
+        AfterCommit.run(() -> {
+            invalidations.incrementAndGet();
+            contexts.asMap().values().removeIf(context -> employeeId.equals(context.employeeId()));
+        });
+    }
+
+    public void invalidateAll() {
+        AfterCommit.run(() -> {
+            invalidations.incrementAndGet();
+            contexts.invalidateAll();
+        });
+    }
+
+    public long size() {
+        return contexts.estimatedSize();
+    }
+
+    private AuthContext load(Long userId) {
+        Optional<UserModel> userOpt = userRepo.findById(userId);
+        if (userOpt.isEmpty()) {
+            return new AuthContext(userId, null, false, null, null, Set.of());
+        }
+        UserModel user = userOpt.get();
+        EmployeeModel employee = user.getEmployee();
+        Long employeeId = employee != null ? employee.getEmployeeId() : null;
+        Long departmentId = employee != null && employee.getDepartment() != null
+            ? employee.getDepartment().getDepartmentId() : null;
+        Set<Long> reports = employeeId != null
+            ? Set.copyOf(empRepo.findReportIds(employeeId, EmployeeService.MAX_ORG_DEPTH)) : Set.of();
+        return new AuthContext(userId, user.getRole(), "ACTIVE".equals(user.getStatus()), employeeId, departmentId, reports);
+    }
+}
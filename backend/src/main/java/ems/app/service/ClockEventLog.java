@@ -0,0 +1,215 @@
+package ems.app.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+import ems.app.dto.ClockEvent;
+
+// Memory-mapped log of clock events, used as a ring over the record area so a flusher that keeps up never lets it fill.
+// The header holds the checkpoint (offset and sequence of the first unflushed record); from there, records with
+// consecutive sequence numbers are replayed on open, wrapping at the end of the file, up to the first invalid one.
+public class ClockEventLog implements Closeable {
+    static final int HEADER_SIZE = 64;
+    static final int RECORD_SIZE = 48;
+    private static final long MAGIC = 0x454d53434c4f4b31L;
+
+    private static final byte CLOCK_IN = 1;
+    private static final byte CLOCK_OUT = 2;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private final int slots;
+    private final boolean syncEachAppend;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private long checkpointOffset;
+    private long checkpointSeq;
+    private long writeOffset;
+    private long nextSeq;
+
+    public record Entry(long seq, long offset, long appendedAt, ClockEvent event) {
+    }
+
+    public ClockEventLog(Path file, int capacityBytes, boolean syncEachAppend) throws IOException {
+        this.capacity = capacityBytes;
+        this.slots = (capacityBytes - HEADER_SIZE) / RECORD_SIZE;
+        this.syncEachAppend = syncEachAppend;
+        this.channel = FileChannel.open(file,
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacityBytes);
+
+        if (buffer.getLong(0) != MAGIC) {
+            checkpointOffset = HEADER_SIZE;
+            checkpointSeq = 1;
+            writeHeader();
+        } else {
+            checkpointOffset = buffer.getLong(8);
+            checkpointSeq = buffer.getLong(16);
+        }
+        recover();
+    }
+
+    // Returns the sequence number, or -1 when every slot holds an unflushed record
+    public long append(ClockEvent event, long nowMillis) {
+        return appendAll(List.of(event), nowMillis);
+    }
+
+    // Appends all events or none; returns the first sequence number, or -1 when too few slots are free
+    public long appendAll(List<ClockEvent> events, long nowMillis) {
+        lock.lock();
+        try {
+            if (nextSeq - checkpointSeq + events.size() > slots) {
+                return -1;
+            }
+            long first = nextSeq;
+            for (ClockEvent event : events) {
+                byte[] record = encode(nextSeq, event, nowMillis);
+                buffer.put((int) writeOffset, record);
+                if (syncEachAppend) {
+                    buffer.force((int) writeOffset, RECORD_SIZE);
+                }
+                writeOffset = next(writeOffset);
+                nextSeq++;
+            }
+            return first;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public List<Entry> readPending(int max) {
+        lock.lock();
+        try {
+            List<Entry> entries = new ArrayList<>();
+            long offset = checkpointOffset;
+            long count = Math.min(max, nextSeq - checkpointSeq);
+            for (long i = 0; i < count; i++) {
+                entries.add(decode(offset));
+                offset = next(offset);
+            }
+            return entries;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Marks everything up to and including the entry as flushed, freeing its slots for new appends
+    public void commit(Entry last) {
+        lock.lock();
+        try {
+            checkpointOffset = next(last.offset());
+            checkpointSeq = last.seq() + 1;
+            writeHeader();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int maxPending() {
+        return slots;
+    }
+
+    public int pendingCount() {
+        lock.lock();
+        try {
+            return (int) (nextSeq - checkpointSeq);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Append time of the oldest unflushed record, or -1 when nothing is pending
+    public long oldestPendingMillis() {
+        lock.lock();
+        try {
+            return nextSeq > checkpointSeq ? buffer.getLong((int) checkpointOffset + 28) : -1;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            buffer.force();
+            channel.close();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void recover() {
+        long offset = checkpointOffset;
+        long seq = checkpointSeq;
+        // A slot past the newest record still holds one from the previous lap, whose sequence is lower
+        while (seq - checkpointSeq < slots && isValid(offset, seq)) {
+            offset = next(offset);
+            seq++;
+        }
+        writeOffset = offset;
+        nextSeq = seq;
+    }
+
+    private long next(long offset) {
+        long following = offset + RECORD_SIZE;
+        return following + RECORD_SIZE > capacity ? HEADER_SIZE : following;
+    }
+
+    private boolean isValid(long offset, long expectedSeq) {
+        byte[] record = new byte[RECORD_SIZE];
+        buffer.get((int) offset, record);
+        ByteBuffer view = ByteBuffer.wrap(record);
+        if (view.getLong(0) != expectedSeq) {
+            return false;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(record, 0, RECORD_SIZE - 4);
+        return view.getInt(RECORD_SIZE - 4) == (int) crc.getValue();
+    }
+
+    private void writeHeader() {
+        buffer.putLong(0, MAGIC);
+        buffer.putLong(8, checkpointOffset);
+        buffer.putLong(16, checkpointSeq);
+        buffer.force(0, HEADER_SIZE);
+    }
+
+    // seq(8) employeeId(8) epochDay(4) nanoOfDay(8) appendedAt(8) type(1) padding(7) crc(4)
+    private static byte[] encode(long seq, ClockEvent event, long nowMillis) {
+        byte[] record = new byte[RECORD_SIZE];
+        ByteBuffer view = ByteBuffer.wrap(record);
+        view.putLong(0, seq);
+        view.putLong(8, event.employeeId());
+        view.putInt(16, (int) event.date().toEpochDay());
+        view.putLong(20, event.time().toNanoOfDay());
+        view.putLong(28, nowMillis);
+        view.put(36, ClockEvent.CLOCK_OUT.equals(event.type()) ? CLOCK_OUT : CLOCK_IN);
+        CRC32 crc = new CRC32();
+        crc.update(record, 0, RECORD_SIZE - 4);
+        view.putInt(RECORD_SIZE - 4, (int) crc.getValue());
+        return record;
+    }
+
+    private Entry decode(long offset) {
+        int base = (int) offset;
+        ClockEvent event = new ClockEvent(
+            buffer.getLong(base + 8),
+            buffer.get(base + 36) == CLOCK_OUT ? ClockEvent.CLOCK_OUT : ClockEvent.CLOCK_IN,
+            LocalDate.ofEpochDay(buffer.getInt(base + 16)),
+            LocalTime.ofNanoOfDay(buffer.getLong(base + 20)));
+        return new Entry(buffer.getLong(base), offset, buffer.getLong(base + 28), event);
+    }
+}
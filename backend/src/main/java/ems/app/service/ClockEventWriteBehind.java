@@ -0,0 +1,225 @@
+package ems.app.service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ems.app.dto.ClockEvent;
+import ems.app.dto.ClockEventResult;
+import ems.app.model.EmployeeModel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+// Optional mode: clock events are acknowledged once they are in the local log and reach Postgres in batches
+@Service
+public class ClockEventWriteBehind {
+    private static final Logger log = LoggerFactory.getLogger(ClockEventWriteBehind.class);
+
+    private final AttendanceService attService;
+    private final EmployeeService empService;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Path path;
+    private final Path deadLetterPath;
+    private final int capacityBytes;
+    private final boolean sync;
+    private final long flushIntervalMs;
+    private final int batchSize;
+
+    private ClockEventLog eventLog;
+    private ScheduledExecutorService flusher;
+
+    @Autowired
+    public ClockEventWriteBehind(
+        AttendanceService attService,
+        EmployeeService empService,
+        MeterRegistry meterRegistry,
+        ObjectMapper objectMapper,
+        @Value("${ems.attendance.write-behind.enabled:false}") boolean enabled,
+        @Value("${ems.attendance.write-behind.path:data/clock-events.log}") String path,
+        @Value("${ems.attendance.write-behind.dead-letter-path:data/clock-events.rejected}") String deadLetterPath,
+        @Value("${ems.attendance.write-behind.capacity-bytes:67108864}") int capacityBytes,
+        @Value("${ems.attendance.write-behind.sync:true}") boolean sync,
+        @Value("${ems.attendance.write-behind.flush-interval-ms:200}") long flushIntervalMs,
+        @Value("${ems.attendance.write-behind.batch-size:1000}") int batchSize
+    ) {
+        this.attService = attService;
+        this.empService = empService;
+        this.meterRegistry = meterRegistry;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.path = Path.of(path);
+        this.deadLetterPath = Path.of(deadLetterPath);
+        this.capacityBytes = capacityBytes;
+        this.sync = sync;
+        this.flushIntervalMs = flushIntervalMs;
+        this.batchSize = batchSize;
+    }
+
+    // Also opens an existing log when the mode is off, so a tail left by a previous run still gets replayed
+    @PostConstruct
+    public void start() throws IOException {
+        if (!enabled && !Files.exists(path)) {
+            return;
+        }
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        eventLog = new ClockEventLog(path, capacityBytes, sync);
+
+        Gauge.builder("ems.attendance.writebehind.queue.depth", eventLog, ClockEventLog::pendingCount)
+            .description("Clock events appended but not yet flushed to the database")
+            .register(meterRegistry);
+        Gauge.builder("ems.attendance.writebehind.flush.lag", eventLog, ClockEventWriteBehind::lagSeconds)
+            .description("Age of the oldest unflushed clock event")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "clock-event-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws IOException, InterruptedException {
+        if (eventLog == null) {
+            return;
+        }
+        flusher.shutdown();
+        flusher.awaitTermination(10, TimeUnit.SECONDS);
+        flushQuietly();
+        eventLog.close();
+    }
+
+    public boolean isEnabled() {
+        return enabled && eventLog != null;
+    }
+
+    // Returns the log sequence, or -1 when the log is full; callers must not write through then, or a clock-out could
+    // reach the database ahead of its still-logged clock-in
+    public long append(ClockEvent event) {
+        return eventLog.append(event, System.currentTimeMillis());
+    }
+
+    // All or nothing, so a client retrying after a full log does not log the first part of its batch twice
+    public long appendAll(List<ClockEvent> events) {
+        return eventLog.appendAll(events, System.currentTimeMillis());
+    }
+
+    public int getCapacity() {
+        return eventLog == null ? 0 : eventLog.maxPending();
+    }
+
+    // Direct writes must not overtake events a previous run left in the log
+    public void flushPending() {
+        if (eventLog != null && eventLog.pendingCount() > 0) {
+            flushOnce();
+        }
+    }
+
+    public int getQueueDepth() {
+        return eventLog == null ? 0 : eventLog.pendingCount();
+    }
+
+    // Drains the log in batches; the checkpoint only moves after the batch has committed, so a crash replays it.
+    // Events the database refuses were already acknowledged with 202, so they are dead-lettered rather than dropped.
+    public synchronized int flushOnce() {
+        int flushed = 0;
+        while (true) {
+            List<ClockEventLog.Entry> entries = eventLog.readPending(batchSize);
+            if (entries.isEmpty()) {
+                return flushed;
+            }
+
+            List<ClockEvent> events = entries.stream().map(ClockEventLog.Entry::event).collect(Collectors.toList());
+            Set<Long> employeeIds = events.stream().map(ClockEvent::employeeId).collect(Collectors.toSet());
+            Map<Long, EmployeeModel> employees = empService.getEmployeesByIds(employeeIds);
+            List<ClockEventResult> results = attService.ingestClockEvents(events, employees);
+            deadLetter(entries, results);
+
+            eventLog.commit(entries.get(entries.size() - 1));
+            flushed += entries.size();
+        }
+    }
+
+    private void deadLetter(List<ClockEventLog.Entry> entries, List<ClockEventResult> results) {
+        StringBuilder lines = new StringBuilder();
+        for (ClockEventResult result : results) {
+            if ("OK".equals(result.outcome())) {
+                continue;
+            }
+            ClockEventLog.Entry entry = entries.get(result.index());
+            log.warn("Acknowledged clock event {} rejected on flush ({}): {} {}", entry.seq(), result.outcome(),
+                entry.event(), result.message());
+            Counter.builder("ems.attendance.writebehind.rejected")
+                .description("Acknowledged clock events the database refused on flush")
+                .tag("outcome", result.outcome())
+                .register(meterRegistry)
+                .increment();
+
+            Map<String, Object> line = new LinkedHashMap<>();
+            line.put("seq", entry.seq());
+            line.put("appendedAt", entry.appendedAt());
+            line.put("event", entry.event());
+            line.put("outcome", result.outcome());
+            line.put("message", result.message());
+            try {
+                lines.append(objectMapper.writeValueAsString(line)).append('\n');
+            } catch (JsonProcessingException e) {
+                log.error("Could not serialize rejected clock event {}", entry.seq(), e);
+            }
+        }
+        if (lines.isEmpty()) {
+            return;
+        }
+        try {
+            if (deadLetterPath.getParent() != null) {
+                Files.createDirectories(deadLetterPath.getParent());
+            }
+            Files.writeString(deadLetterPath, lines, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            log.error("Could not write rejected clock events to {}", deadLetterPath, e);
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flushOnce();
+        } catch (RuntimeException e) {
+            // Left pending; retried on the next tick
+            log.warn("Clock event flush failed, {} events pending", eventLog.pendingCount(), e);
+        }
+    }
+
+    private static double lagSeconds(ClockEventLog eventLog) {
+        long oldest = eventLog.oldestPendingMillis();
+        return oldest < 0 ? 0.0 : (System.currentTimeMillis() - oldest) / 1000.0;
+    }
+}
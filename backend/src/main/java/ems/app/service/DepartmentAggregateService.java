@@ -0,0 +1,91 @@
+package ems.app.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+import ems.app.dto.DepartmentAggregate;
+import ems.app.dto.DepartmentHires;
+import ems.app.repo.DepartmentRepo;
+
+@Service
+public class DepartmentAggregateService {
+    public static final String CACHE = "department-aggregates";
+
+    private final DepartmentRepo repo;
+    private final CacheManager cacheManager;
+
+    @Autowired
+    public DepartmentAggregateService(DepartmentRepo repo, CacheManager cacheManager) {
+        this.repo = repo;
+        this.cacheManager = cacheManager;
+    }
+
+    // Two GROUP BY queries no matter how many departments there are
+    @Cacheable(cacheNames = CACHE, key = "'all'")
+    public List<DepartmentAggregate> getAggregates() {
+        Map<Long, Map<String, Long>> statusCounts = new HashMap<>();
+        for (Object[] row : repo.countEmployeesByStatus()) {
+            String status = row[1] != null ? (String) row[1] : "UNKNOWN";
+            statusCounts.computeIfAbsent((Long) row[0], id -> new TreeMap<>())
+                .merge(status, ((Number) row[2]).longValue(), Long::sum);
+        }
+
+        List<Object[]> rows = repo.aggregateEmployees();
+        List<DepartmentAggregate> aggregates = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            Long departmentId = (Long) row[0];
+            long headcount = ((Number) row[2]).longValue();
+            long active = ((Number) row[3]).longValue();
+            long salaried = ((Number) row[4]).longValue();
+            BigDecimal salarySum = (BigDecimal) row[5];
+            BigDecimal salaryAvg = salaried > 0
+                ? salarySum.divide(BigDecimal.valueOf(salaried), 2, RoundingMode.HALF_UP)
+                : null;
+            aggregates.add(new DepartmentAggregate(
+                departmentId,
+                (String) row[1],
+                headcount,
+                active,
+                headcount - active,
+                statusCounts.getOrDefault(departmentId, Map.of()),
+                salarySum,
+                salaryAvg,
+                (BigDecimal) row[6],
+                (BigDecimal) row[7]));
+        }
+        return aggregates;
+    }
+
+    public List<DepartmentHires> getHires(String period, LocalDate startDate, LocalDate endDate) {
+        List<Object[]> rows = repo.countHiresByPeriod(period, startDate, endDate);
+        List<DepartmentHires> hires = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            LocalDate periodStart = row[1] instanceof Date date ? date.toLocalDate() : (LocalDate) row[1];
+            hires.add(new DepartmentHires(((Number) row[0]).longValue(), periodStart, ((Number) row[2]).longValue()));
+        }
+        return hires;
+    }
+
+    // Called by every employee and department write; the cached list is dropped once the write commits
+    public void invalidate() {
+        AfterCommit.run(() -> {
+            Cache cache = cacheManager.getCache(CACHE);
+            if (cache != null) {
+                cache.clear();
+            }
+        });
+    }
+}
@@ -1,29 +1,40 @@
 package ems.app.service;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import ems.app.dto.DepartmentSummary;
 import ems.app.model.DepartmentModel;
 import ems.app.model.EmployeeModel;
 import ems.app.repo.DepartmentRepo;
+import ems.app.repo.EmployeeRepo;
 import jakarta.transaction.Transactional;
 
 @Service
 public class DepartmentService {
     private final DepartmentRepo repo;
+    private final EmployeeRepo empRepo;
+    private final DepartmentAggregateService aggregateService;
 
     @Autowired
-    public DepartmentService(DepartmentRepo repo) {
+    public DepartmentService(DepartmentRepo repo, EmployeeRepo empRepo, DepartmentAggregateService aggregateService) {
         this.repo = repo;
+        this.empRepo = empRepo;
+        this.aggregateService = aggregateService;
     }
 
     public List<DepartmentModel> getAllDepartments() {
         return repo.findAll();
     }
 
+    public List<DepartmentSummary> getDepartmentSummaries() {
+        return repo.findAllSummaries();
+    }
+
     public Optional<DepartmentModel> getDepartmentById(Long id) {
         return repo.findById(id);
     }
@@ -38,17 +49,43 @@ public class DepartmentService {
 
     @Transactional
     public DepartmentModel saveDepartment(DepartmentModel department) {
+        aggregateService.invalidate();
         return repo.save(department);
     }
 
     @Transactional
     public DepartmentModel updateDepartment(DepartmentModel department) {
+        aggregateService.invalidate();
         return repo.save(department);
     }
 
+    @Transactional
+    public DepartmentModel patchDepartment(Long deptId, Map<String, Object> changes) {
+        DepartmentModel department = repo.findById(deptId)
+            .orElseThrow(() -> new NotFoundException("Department not found"));
+
+        for (Map.Entry<String, Object> change : changes.entrySet()) {
+            String field = change.getKey();
+            Object value = change.getValue();
+            switch (field) {
+                case "departmentName" -> department.setDepartmentName(PatchValues.string(value, field, false));
+                case "location" -> department.setLocation(PatchValues.string(value, field, false));
+                case "managerId" -> {
+                    Long managerId = PatchValues.id(value, field);
+                    department.setManager(managerId == null ? null : empRepo.findById(managerId)
+                        .orElseThrow(() -> new IllegalArgumentException("Manager " + managerId + " not found")));
+                }
+                default -> throw PatchValues.unknown(field);
+            }
+        }
+        aggregateService.invalidate();
+        return department;
+    }
+
     @Transactional
     public void deleteDepartment(Long id) {
         repo.deleteById(id);
+        aggregateService.invalidate();
     }
 
     @Transactional
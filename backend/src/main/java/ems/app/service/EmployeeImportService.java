@@ -0,0 +1,374 @@
+package ems.app.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ems.app.dto.EmployeeImportRow;
+import ems.app.dto.EmployeeSummary;
+import ems.app.dto.ImportError;
+import ems.app.dto.ImportReport;
+import jakarta.transaction.Transactional;
+
+@Service
+public class EmployeeImportService {
+    static final int BATCH_SIZE = 1000;
+    static final int MAX_REPORTED_ERRORS = 10000;
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+    private static final List<String> REQUIRED_COLUMNS = List.of("firstName", "lastName", "email", "hiredDate", "jobTitle");
+
+    private static final String INSERT_SQL = "INSERT INTO employee (first_name, last_name, email, contact_number, " +
+        "hire_date, job_title, salary, address, date_of_birth, gender, status, department_id, manager_id, " +
+        "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, now(), now())";
+
+    private final JdbcTemplate jdbc;
+    private final ObjectMapper objectMapper;
+    private final EmployeeSearchService searchService;
+    private final AttendanceCubeService cubeService;
+    private final DepartmentAggregateService aggregateService;
+    private final AuthContextService authContexts;
+
+    @Autowired
+    public EmployeeImportService(JdbcTemplate jdbc, ObjectMapper objectMapper, EmployeeSearchService searchService,
+            AttendanceCubeService cubeService, DepartmentAggregateService aggregateService,
+            AuthContextService authContexts) {
+        this.jdbc = jdbc;
+        this.objectMapper = objectMapper;
+        this.searchService = searchService;
+        this.cubeService = cubeService;
+        this.aggregateService = aggregateService;
+        this.authContexts = authContexts;
+    }
+
+    // A validated row waiting in the current batch
+    private record PendingEmployee(
+        long line,
+        String firstName,
+        String lastName,
+        String email,
+        String contactNo,
+        LocalDate hiredDate,
+        String jobTitle,
+        BigDecimal salary,
+        String address,
+        LocalDate dateOfBirth,
+        String gender,
+        String status,
+        Long departmentId,
+        String departmentName,
+        String managerEmail,
+        Long managerId
+    ) {
+    }
+
+    // Per-import state; only the email -> id map grows with the file, rows are flushed every BATCH_SIZE
+    private final class ImportRun {
+        final boolean dryRun;
+        final Map<String, Long> departmentIds = new HashMap<>();
+        final Map<String, String> departmentNames = new HashMap<>();
+        final Map<String, Long> employeeIds = new HashMap<>();
+        final Map<String, Long> fileLines = new HashMap<>();
+        final List<PendingEmployee> batch = new ArrayList<>(BATCH_SIZE);
+        final List<ImportError> errors = new ArrayList<>();
+        long total;
+        long imported;
+        long failed;
+
+        ImportRun(boolean dryRun) {
+            this.dryRun = dryRun;
+            jdbc.query("SELECT department_id, department_name FROM department", rs -> {
+                String name = rs.getString(2);
+                if (name != null) {
+                    departmentIds.put(name.toLowerCase(Locale.ROOT), rs.getLong(1));
+                    departmentNames.put(name.toLowerCase(Locale.ROOT), name);
+                }
+            });
+            // One pass over existing emails covers both duplicate detection and manager lookup
+            jdbc.query("SELECT email, employee_id FROM employee", rs -> {
+                employeeIds.put(rs.getString(1), rs.getLong(2));
+            });
+        }
+
+        void accept(long line, EmployeeImportRow row) {
+            total++;
+            String email = trim(row.email());
+            PendingEmployee pending;
+            try {
+                pending = validate(line, row, email);
+            } catch (IllegalArgumentException e) {
+                reject(line, email, e.getMessage());
+                return;
+            }
+            fileLines.put(email, line);
+            batch.add(pending);
+            if (batch.size() >= BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        void reject(long line, String email, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ImportError(line, email, message));
+            }
+        }
+
+        PendingEmployee validate(long line, EmployeeImportRow row, String email) {
+            String firstName = required(row.firstName(), "firstName");
+            String lastName = required(row.lastName(), "lastName");
+            String jobTitle = required(row.jobTitle(), "jobTitle");
+            if (email == null) {
+                throw new IllegalArgumentException("email is required");
+            }
+            if (!EMAIL.matcher(email).matches()) {
+                throw new IllegalArgumentException("email is not valid");
+            }
+            if (fileLines.containsKey(email)) {
+                throw new IllegalArgumentException("email duplicates line " + fileLines.get(email));
+            }
+            if (employeeIds.containsKey(email)) {
+                throw new IllegalArgumentException("email already belongs to employee " + employeeIds.get(email));
+            }
+
+            LocalDate hiredDate = date(required(row.hiredDate(), "hiredDate"), "hiredDate");
+            LocalDate dateOfBirth = date(trim(row.dateOfBirth()), "dateOfBirth");
+            BigDecimal salary = null;
+            String rawSalary = trim(row.salary());
+            if (rawSalary != null) {
+                try {
+                    salary = new BigDecimal(rawSalary);
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("salary is not a number");
+                }
+            }
+            String status = trim(row.status());
+            status = status != null ? status.toUpperCase(Locale.ROOT) : "ACTIVE";
+            if (status.length() > 20) {
+                throw new IllegalArgumentException("status is longer than 20 characters");
+            }
+
+            Long departmentId = null;
+            String departmentName = null;
+            String department = trim(row.department());
+            if (department != null) {
+                String key = department.toLowerCase(Locale.ROOT);
+                departmentId = departmentIds.get(key);
+                if (departmentId == null) {
+                    throw new IllegalArgumentException("department '" + department + "' not found");
+                }
+                departmentName = departmentNames.get(key);
+            }
+
+            // Managers must already exist or appear earlier in the file, which also rules out reporting cycles
+            String managerEmail = trim(row.managerEmail());
+            Long managerId = null;
+            if (managerEmail != null) {
+                if (managerEmail.equals(email)) {
+                    throw new IllegalArgumentException("employee cannot be their own manager");
+                }
+                managerId = employeeIds.get(managerEmail);
+                if (managerId == null && !fileLines.containsKey(managerEmail)) {
+                    throw new IllegalArgumentException("manager '" + managerEmail + "' not found in earlier rows or existing employees");
+                }
+            }
+
+            return new PendingEmployee(line, firstName, lastName, email, trim(row.contactNo()), hiredDate, jobTitle,
+                salary, trim(row.address()), dateOfBirth, trim(row.gender()), status, departmentId, departmentName,
+                managerEmail, managerId);
+        }
+
+        void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            if (dryRun) {
+                imported += batch.size();
+                batch.clear();
+                return;
+            }
+
+            // Managers earlier in this same batch have no id yet; they are linked right after the insert
+            jdbc.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, employee) -> {
+                ps.setString(1, employee.firstName());
+                ps.setString(2, employee.lastName());
+                ps.setString(3, employee.email());
+                ps.setString(4, employee.contactNo());
+                ps.setDate(5, Date.valueOf(employee.hiredDate()));
+                ps.setString(6, employee.jobTitle());
+                ps.setBigDecimal(7, employee.salary());
+                ps.setString(8, employee.address());
+                ps.setDate(9, employee.dateOfBirth() != null ? Date.valueOf(employee.dateOfBirth()) : null);
+                ps.setString(10, employee.gender());
+                ps.setString(11, employee.status());
+                ps.setObject(12, employee.departmentId(), Types.BIGINT);
+                ps.setObject(13, employee.managerId(), Types.BIGINT);
+            });
+
+            String[] emails = batch.stream().map(PendingEmployee::email).toArray(String[]::new);
+            jdbc.query("SELECT email, employee_id FROM employee WHERE email = ANY(?)",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("text", emails)),
+                rs -> {
+                    employeeIds.put(rs.getString(1), rs.getLong(2));
+                });
+
+            List<Object[]> managerLinks = new ArrayList<>();
+            List<EmployeeSummary> summaries = new ArrayList<>(batch.size());
+            Map<Long, Long> departments = new HashMap<>();
+            for (PendingEmployee employee : batch) {
+                Long id = employeeIds.get(employee.email());
+                Long managerId = employee.managerId();
+                if (managerId == null && employee.managerEmail() != null) {
+                    managerId = employeeIds.get(employee.managerEmail());
+                    managerLinks.add(new Object[] {managerId, id});
+                }
+                summaries.add(new EmployeeSummary(id, employee.firstName(), employee.lastName(), employee.email(),
+                    employee.contactNo(), employee.jobTitle(), employee.status(), employee.hiredDate(),
+                    employee.departmentId(), employee.departmentName(), managerId));
+                departments.put(id, employee.departmentId());
+            }
+            if (!managerLinks.isEmpty()) {
+                jdbc.batchUpdate("UPDATE employee SET manager_id = ? WHERE employee_id = ?", managerLinks);
+            }
+
+            searchService.indexAll(summaries);
+            cubeService.setDepartments(departments);
+            imported += batch.size();
+            batch.clear();
+        }
+
+        ImportReport report() {
+            return new ImportReport(total, imported, failed, dryRun, errors, failed > errors.size());
+        }
+    }
+
+    // Streams the upload in one transaction: invalid rows are reported and skipped, valid rows go in JDBC batches.
+    // An unreadable upload rolls back the batches already flushed, checked IOException included.
+    @Transactional(rollbackOn = Exception.class)
+    public ImportReport importEmployees(InputStream in, boolean ndjson, boolean dryRun) throws IOException {
+        ImportRun run = new ImportRun(dryRun);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        if (ndjson) {
+            readNdjson(reader, run);
+        } else {
+            readCsv(reader, run);
+        }
+        run.flush();
+        if (!dryRun && run.imported > 0) {
+            aggregateService.invalidate();
+            // New rows can land under any existing manager
+            authContexts.invalidateAll();
+        }
+        return run.report();
+    }
+
+    private void readNdjson(BufferedReader reader, ImportRun run) throws IOException {
+        long line = 0;
+        String text;
+        while ((text = reader.readLine()) != null) {
+            line++;
+            if (text.isBlank()) {
+                continue;
+            }
+            EmployeeImportRow row;
+            try {
+                row = objectMapper.readValue(text, EmployeeImportRow.class);
+            } catch (JsonProcessingException e) {
+                run.total++;
+                run.reject(line, null, "malformed JSON: " + e.getOriginalMessage());
+                continue;
+            }
+            run.accept(line, row);
+        }
+    }
+
+    private void readCsv(BufferedReader reader, ImportRun run) throws IOException {
+        CsvReader csv = new CsvReader(reader);
+        List<String> header = csv.next();
+        if (header == null) {
+            return;
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i).replace("\uFEFF", "").trim();
+            columns.put(name, i);
+        }
+        for (String required : REQUIRED_COLUMNS) {
+            if (!columns.containsKey(required)) {
+                throw new IllegalArgumentException("CSV header is missing column " + required);
+            }
+        }
+
+        List<String> values;
+        while ((values = csv.next()) != null) {
+            if (values.size() == 1 && values.get(0).isBlank()) {
+                continue;
+            }
+            run.accept(csv.recordLine(), new EmployeeImportRow(
+                column(columns, values, "firstName"),
+                column(columns, values, "lastName"),
+                column(columns, values, "email"),
+                column(columns, values, "contactNo"),
+                column(columns, values, "hiredDate"),
+                column(columns, values, "jobTitle"),
+                column(columns, values, "salary"),
+                column(columns, values, "address"),
+                column(columns, values, "dateOfBirth"),
+                column(columns, values, "gender"),
+                column(columns, values, "status"),
+                column(columns, values, "department"),
+                column(columns, values, "managerEmail")));
+        }
+    }
+
+    private static String column(Map<String, Integer> columns, List<String> values, String name) {
+        Integer index = columns.get(name);
+        return index != null && index < values.size() ? values.get(index) : null;
+    }
+
+    private static String trim(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    private static String required(String value, String name) {
+        String trimmed = trim(value);
+        if (trimmed == null) {
+            throw new IllegalArgumentException(name + " is required");
+        }
+        return trimmed;
+    }
+
+    private static LocalDate date(String value, String name) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(name + " must be an ISO date (yyyy-MM-dd)");
+        }
+    }
+}
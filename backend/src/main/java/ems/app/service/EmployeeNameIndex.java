@@ -0,0 +1,320 @@
+package ems.app.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+import ems.app.dto.EmployeeSearchHit;
+
+// Typeahead index over first name, last name and the local part of the email.
+// Prefix matches come from a range scan of a sorted token map; one-typo matches come from a deletion-neighbourhood map.
+public class EmployeeNameIndex {
+    private static final double NAME_PREFIX = 80;
+    private static final double EMAIL_PREFIX = 60;
+    private static final double ONE_TYPO = 40;
+    private static final int FUZZY_MIN_LENGTH = 3;
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final TreeMap<String, Postings> tokens = new TreeMap<>();
+    private final Map<String, Set<String>> deletions = new HashMap<>();
+
+    private record Entry(String firstName, String lastName, String email, List<String> nameTokens, List<String> emailTokens) {
+    }
+
+    private static final class Postings {
+        private final Set<Long> name = new LinkedHashSet<>();
+        private final Set<Long> email = new LinkedHashSet<>();
+
+        private boolean isEmpty() {
+            return name.isEmpty() && email.isEmpty();
+        }
+    }
+
+    private record Candidate(String token, boolean name, double score) {
+    }
+
+    private static final Comparator<Candidate> BEST_FIRST = Comparator.comparingDouble(Candidate::score).reversed()
+        .thenComparing(Candidate::token)
+        .thenComparing(Candidate::name);
+
+    public void put(Long employeeId, String firstName, String lastName, String email) {
+        List<String> nameTokens = split(firstName);
+        for (String token : split(lastName)) {
+            if (!nameTokens.contains(token)) {
+                nameTokens.add(token);
+            }
+        }
+        List<String> emailTokens = new ArrayList<>();
+        if (email != null) {
+            int at = email.indexOf('@');
+            emailTokens = split(at >= 0 ? email.substring(0, at) : email);
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(employeeId);
+            entries.put(employeeId, new Entry(firstName, lastName, email, nameTokens, emailTokens));
+            for (String token : nameTokens) {
+                Postings postings = tokens.computeIfAbsent(token, t -> new Postings());
+                if (postings.name.isEmpty()) {
+                    for (String variant : deletionsOf(token)) {
+                        deletions.computeIfAbsent(variant, v -> new HashSet<>()).add(token);
+                    }
+                }
+                postings.name.add(employeeId);
+            }
+            for (String token : emailTokens) {
+                tokens.computeIfAbsent(token, t -> new Postings()).email.add(employeeId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long employeeId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(employeeId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            entries.clear();
+            tokens.clear();
+            deletions.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Every query word has to match one of the employee's tokens; scores add up across words
+    public List<EmployeeSearchHit> search(String query, int limit, boolean fuzzy) {
+        List<String> words = split(query);
+        if (words.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        // Drive the lookup with the longest (most selective) word, verify the rest against each candidate
+        String driver = words.stream().max(Comparator.comparingInt(String::length)).get();
+        List<String> others = new ArrayList<>(words);
+        others.remove(driver);
+
+        lock.readLock().lock();
+        try {
+            boolean singleWord = others.isEmpty();
+            // Polled best first; a single-word query stops at limit distinct employees, which may take more than
+            // limit tokens since one employee can own several that match (Jo, Jon)
+            PriorityQueue<Candidate> candidates = candidateTokens(driver, fuzzy);
+
+            Map<Long, Double> scores = new HashMap<>();
+            search:
+            while (!candidates.isEmpty()) {
+                Candidate candidate = candidates.poll();
+                Postings postings = tokens.get(candidate.token());
+                for (Long id : candidate.name() ? postings.name : postings.email) {
+                    if (singleWord && scores.size() >= limit) {
+                        break search;
+                    }
+                    if (scores.containsKey(id)) {
+                        continue;
+                    }
+                    double total = candidate.score();
+                    Entry entry = entries.get(id);
+                    for (String word : others) {
+                        double wordScore = scoreAgainst(word, entry, fuzzy);
+                        if (wordScore == 0) {
+                            total = 0;
+                            break;
+                        }
+                        total += wordScore;
+                    }
+                    if (total > 0) {
+                        scores.put(id, total);
+                    }
+                }
+            }
+
+            return topHits(scores, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<EmployeeSearchHit> topHits(Map<Long, Double> scores, int limit) {
+        Comparator<Map.Entry<Long, Double>> worstFirst = Map.Entry.<Long, Double>comparingByValue()
+            .thenComparing(Map.Entry.<Long, Double>comparingByKey().reversed());
+        PriorityQueue<Map.Entry<Long, Double>> top = new PriorityQueue<>(limit + 1, worstFirst);
+        for (Map.Entry<Long, Double> score : scores.entrySet()) {
+            top.add(score);
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+
+        List<EmployeeSearchHit> hits = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            Map.Entry<Long, Double> score = top.poll();
+            Entry entry = entries.get(score.getKey());
+            hits.add(new EmployeeSearchHit(score.getKey(), entry.firstName(), entry.lastName(), entry.email(), score.getValue()));
+        }
+        Collections.reverse(hits);
+        return hits;
+    }
+
+    private PriorityQueue<Candidate> candidateTokens(String word, boolean fuzzy) {
+        // A heap rather than a sorted list: a single-word query usually polls only the first few
+        PriorityQueue<Candidate> candidates = new PriorityQueue<>(BEST_FIRST);
+        Set<String> seen = new HashSet<>();
+
+        for (Map.Entry<String, Postings> token : tokens.subMap(word, true, word + Character.MAX_VALUE, false).entrySet()) {
+            double closeness = 10.0 * word.length() / token.getKey().length();
+            seen.add(token.getKey());
+            if (!token.getValue().name.isEmpty()) {
+                candidates.add(new Candidate(token.getKey(), true, NAME_PREFIX + closeness));
+            }
+            if (!token.getValue().email.isEmpty()) {
+                candidates.add(new Candidate(token.getKey(), false, EMAIL_PREFIX + closeness));
+            }
+        }
+
+        if (fuzzy && word.length() >= FUZZY_MIN_LENGTH) {
+            for (String variant : deletionsOf(word)) {
+                Set<String> matches = deletions.get(variant);
+                if (matches == null) {
+                    continue;
+                }
+                for (String token : matches) {
+                    if (seen.add(token) && withinOneEdit(word, token)) {
+                        candidates.add(new Candidate(token, true, ONE_TYPO));
+                    }
+                }
+            }
+        }
+        return candidates;
+    }
+
+    private static double scoreAgainst(String word, Entry entry, boolean fuzzy) {
+        double best = 0;
+        for (String token : entry.nameTokens()) {
+            if (token.startsWith(word)) {
+                best = Math.max(best, NAME_PREFIX + 10.0 * word.length() / token.length());
+            } else if (fuzzy && word.length() >= FUZZY_MIN_LENGTH && withinOneEdit(word, token)) {
+                best = Math.max(best, ONE_TYPO);
+            }
+        }
+        for (String token : entry.emailTokens()) {
+            if (token.startsWith(word)) {
+                best = Math.max(best, EMAIL_PREFIX + 10.0 * word.length() / token.length());
+            }
+        }
+        return best;
+    }
+
+    private void removeLocked(Long employeeId) {
+        Entry previous = entries.remove(employeeId);
+        if (previous == null) {
+            return;
+        }
+        for (String token : previous.nameTokens()) {
+            Postings postings = tokens.get(token);
+            if (postings != null && postings.name.remove(employeeId) && postings.name.isEmpty()) {
+                for (String variant : deletionsOf(token)) {
+                    Set<String> withVariant = deletions.get(variant);
+                    if (withVariant != null) {
+                        withVariant.remove(token);
+                        if (withVariant.isEmpty()) {
+                            deletions.remove(variant);
+                        }
+                    }
+                }
+            }
+            if (postings != null && postings.isEmpty()) {
+                tokens.remove(token);
+            }
+        }
+        for (String token : previous.emailTokens()) {
+            Postings postings = tokens.get(token);
+            if (postings != null) {
+                postings.email.remove(employeeId);
+                if (postings.isEmpty()) {
+                    tokens.remove(token);
+                }
+            }
+        }
+    }
+
+    private static List<String> split(String value) {
+        List<String> words = new ArrayList<>();
+        if (value == null) {
+            return words;
+        }
+        for (String word : SEPARATORS.split(value.toLowerCase(Locale.ROOT))) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    // The token itself plus every single-character deletion; two words within one edit share at least one of these
+    private static Set<String> deletionsOf(String token) {
+        Set<String> variants = new HashSet<>();
+        variants.add(token);
+        for (int i = 0; i < token.length(); i++) {
+            variants.add(token.substring(0, i) + token.substring(i + 1));
+        }
+        return variants;
+    }
+
+    // Levenshtein distance <= 1, also counting one adjacent transposition as a single edit
+    static boolean withinOneEdit(String a, String b) {
+        int la = a.length();
+        int lb = b.length();
+        if (Math.abs(la - lb) > 1) {
+            return false;
+        }
+        int i = 0;
+        while (i < la && i < lb && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        if (i == la && i == lb) {
+            return true;
+        }
+        if (la == lb) {
+            if (a.regionMatches(i + 1, b, i + 1, la - i - 1)) {
+                return true;
+            }
+            return i + 1 < la && a.charAt(i) == b.charAt(i + 1) && a.charAt(i + 1) == b.charAt(i)
+                && a.regionMatches(i + 2, b, i + 2, la - i - 2);
+        }
+        return la > lb
+            ? a.regionMatches(i + 1, b, i, lb - i)
+            : b.regionMatches(i + 1, a, i, la - i);
+    }
+}
@@ -0,0 +1,101 @@
+package ems.app.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import ems.app.dto.EmployeeSearchHit;
+import ems.app.dto.EmployeeSummary;
+import ems.app.model.EmployeeModel;
+import ems.app.repo.EmployeeRepo;
+
+@Service
+public class EmployeeSearchService {
+    private final EmployeeRepo repo;
+    private final ReentrantLock swapLock = new ReentrantLock();
+    private volatile EmployeeNameIndex index = new EmployeeNameIndex();
+    private List<Consumer<EmployeeNameIndex>> journal;
+
+    @Autowired
+    public EmployeeSearchService(EmployeeRepo repo) {
+        this.repo = repo;
+    }
+
+    // Rebuilt at startup and periodically, so employees written through another instance become searchable here too
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${ems.employee.search.rebuild-cron:0 */5 * * * *}")
+    public void rebuild() {
+        swapLock.lock();
+        try {
+            journal = new ArrayList<>();
+        } finally {
+            swapLock.unlock();
+        }
+
+        EmployeeNameIndex fresh = new EmployeeNameIndex();
+        for (EmployeeSummary employee : repo.findAllSummaries()) {
+            fresh.put(employee.employeeId(), employee.firstName(), employee.lastName(), employee.email());
+        }
+
+        // Replay writes that landed while the new index was loading
+        swapLock.lock();
+        try {
+            for (Consumer<EmployeeNameIndex> change : journal) {
+                change.accept(fresh);
+            }
+            index = fresh;
+            journal = null;
+        } finally {
+            swapLock.unlock();
+        }
+    }
+
+    public void indexAll(List<EmployeeSummary> employees) {
+        apply(target -> {
+            for (EmployeeSummary employee : employees) {
+                target.put(employee.employeeId(), employee.firstName(), employee.lastName(), employee.email());
+            }
+        });
+    }
+
+    public List<EmployeeSearchHit> search(String keyword, int limit, boolean fuzzy) {
+        return index.search(keyword, limit, fuzzy);
+    }
+
+    public void indexEmployee(EmployeeModel employee) {
+        Long id = employee.getEmployeeId();
+        String firstName = employee.getFirstName();
+        String lastName = employee.getLastName();
+        String email = employee.getEmail();
+        apply(target -> target.put(id, firstName, lastName, email));
+    }
+
+    public void removeEmployee(Long employeeId) {
+        apply(target -> target.remove(employeeId));
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    private void apply(Consumer<EmployeeNameIndex> change) {
+        AfterCommit.run(() -> {
+            swapLock.lock();
+            try {
+                change.accept(index);
+                if (journal != null) {
+                    journal.add(change);
+                }
+            } finally {
+                swapLock.unlock();
+            }
+        });
+    }
+}
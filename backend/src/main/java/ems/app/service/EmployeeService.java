@@ -1,35 +1,69 @@
 package ems.app.service;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import ems.app.dto.EmployeeSummary;
+import ems.app.dto.OrgChartNode;
+import ems.app.dto.SpanOfControl;
 import ems.app.model.DepartmentModel;
 import ems.app.model.EmployeeModel;
+import ems.app.repo.DepartmentRepo;
 import ems.app.repo.EmployeeRepo;
 import jakarta.transaction.Transactional;
 
 
 @Service
 public class EmployeeService {
+    // Deeper than any real org; also stops runaway recursion if a cycle predates the check below
+    static final int MAX_ORG_DEPTH = 64;
+    private static final long REPORTING_LINES_LOCK = 4101L;
+
     private final EmployeeRepo repo;
+    private final DepartmentRepo deptRepo;
+    private final AttendanceCubeService cubeService;
+    private final EmployeeSearchService searchService;
+    private final DepartmentAggregateService aggregateService;
+    private final AuthContextService authContexts;
 
     @Autowired
-    public EmployeeService(EmployeeRepo repo) {
+    public EmployeeService(EmployeeRepo repo, DepartmentRepo deptRepo, AttendanceCubeService cubeService,
+            EmployeeSearchService searchService, DepartmentAggregateService aggregateService,
+            AuthContextService authContexts) {
         this.repo = repo;
+        this.deptRepo = deptRepo;
+        this.cubeService = cubeService;
+        this.searchService = searchService;
+        this.aggregateService = aggregateService;
+        this.authContexts = authContexts;
     }
 
     public List<EmployeeModel> getAllEmployees() {
         return repo.findAll();
     }
 
+    public List<EmployeeSummary> getEmployeeSummaries() {
+        return repo.findAllSummaries();
+    }
+
     public Optional<EmployeeModel> getEmployeeById(Long id) {
         return repo.findById(id);
     }
 
+    public Map<Long, EmployeeModel> getEmployeesByIds(Collection<Long> ids) {
+        return repo.findAllById(ids).stream()
+            .collect(Collectors.toMap(EmployeeModel::getEmployeeId, Function.identity()));
+    }
+
     public Optional<EmployeeModel> getEmployeeByEmail(String email) {
         return repo.findByEmail(email);
     }
@@ -56,17 +90,94 @@ public class EmployeeService {
 
     @Transactional
     public EmployeeModel saveEmployee(EmployeeModel employee) {
-        return repo.save(employee);
+        EmployeeModel saved = repo.save(employee);
+        syncDepartment(saved);
+        searchService.indexEmployee(saved);
+        authContexts.reportingLineChanged(saved.getEmployeeId(), managerIdOf(saved));
+        return saved;
     }
 
     @Transactional
     public EmployeeModel updateEmployee(EmployeeModel employee) {
-        return repo.save(employee);
+        EmployeeModel saved = repo.save(employee);
+        syncDepartment(saved);
+        searchService.indexEmployee(saved);
+        authContexts.reportingLineChanged(saved.getEmployeeId(), managerIdOf(saved));
+        return saved;
     }
 
     @Transactional
     public void deleteEmployee(Long id) {
         repo.deleteById(id);
+        searchService.removeEmployee(id);
+        aggregateService.invalidate();
+        authContexts.reportingLineChanged(id, null);
+    }
+
+    public List<OrgChartNode> getSubtree(Long managerId, int depth) {
+        return toNodes(repo.findSubtree(managerId, Math.min(depth, MAX_ORG_DEPTH)));
+    }
+
+    public List<OrgChartNode> getChainOfCommand(Long employeeId) {
+        return toNodes(repo.findChainOfCommand(employeeId, MAX_ORG_DEPTH));
+    }
+
+    public List<SpanOfControl> getSpanOfControl(Long managerId) {
+        List<SpanOfControl> spans = new ArrayList<>();
+        for (Object[] row : repo.findSpanOfControl(managerId, MAX_ORG_DEPTH)) {
+            spans.add(new SpanOfControl(
+                ((Number) row[0]).longValue(),
+                ((Number) row[1]).longValue(),
+                ((Number) row[2]).longValue(),
+                ((Number) row[3]).intValue()));
+        }
+        return spans;
+    }
+
+    @Transactional
+    public EmployeeModel patchEmployee(Long employeeId, Map<String, Object> changes) {
+        EmployeeModel employee = repo.findById(employeeId)
+            .orElseThrow(() -> new NotFoundException("Employee not found"));
+
+        for (Map.Entry<String, Object> change : changes.entrySet()) {
+            String field = change.getKey();
+            Object value = change.getValue();
+            switch (field) {
+                case "firstName" -> employee.setFirstName(PatchValues.string(value, field, true));
+                case "lastName" -> employee.setLastName(PatchValues.string(value, field, true));
+                case "email" -> employee.setEmail(PatchValues.string(value, field, true));
+                case "contactNo" -> employee.setContactNo(PatchValues.string(value, field, false));
+                case "hiredDate" -> employee.setHiredDate(PatchValues.date(value, field, true));
+                case "jobTitle" -> employee.setJobTitle(PatchValues.string(value, field, true));
+                case "salary" -> employee.setSalary(PatchValues.decimal(value, field));
+                case "address" -> employee.setAddress(PatchValues.string(value, field, false));
+                case "dateOfBirth" -> employee.setDateOfBirth(PatchValues.date(value, field, false));
+                case "gender" -> employee.setGender(PatchValues.string(value, field, false));
+                case "status" -> employee.setStatus(PatchValues.string(value, field, true));
+                case "departmentId" -> {
+                    Long departmentId = PatchValues.id(value, field);
+                    employee.setDepartment(departmentId == null ? null : deptRepo.findById(departmentId)
+                        .orElseThrow(() -> new IllegalArgumentException("Department " + departmentId + " not found")));
+                }
+                case "managerId" -> {
+                    Long managerId = PatchValues.id(value, field);
+                    EmployeeModel manager = managerId == null ? null : repo.findById(managerId)
+                        .orElseThrow(() -> new IllegalArgumentException("Manager " + managerId + " not found"));
+                    checkReportingLine(employeeId, manager);
+                    employee.setManager(manager);
+                }
+                default -> throw PatchValues.unknown(field);
+            }
+        }
+
+        syncDepartment(employee);
+        searchService.indexEmployee(employee);
+        if (changes.containsKey("managerId")) {
+            authContexts.reportingLineChanged(employeeId, managerIdOf(employee));
+        } else if (changes.containsKey("departmentId")) {
+            authContexts.employeeChanged(employeeId);
+        }
+        return employee;
     }
 
     @Transactional
@@ -74,7 +185,9 @@ public class EmployeeService {
         Optional<EmployeeModel> employeeOpt = repo.findById(employeeId);
         if (employeeOpt.isPresent()) {
             EmployeeModel employee = employeeOpt.get();
+            checkReportingLine(employeeId, manager);
             employee.setManager(manager);
+            authContexts.reportingLineChanged(employeeId, manager != null ? manager.getEmployeeId() : null);
             return repo.save(employee);
         }
         throw new RuntimeException("Employee not found");
@@ -86,7 +199,10 @@ public class EmployeeService {
         if (employeeOpt.isPresent()) {
             EmployeeModel employee = employeeOpt.get();
             employee.setDepartment(department);
-            return repo.save(employee);
+            EmployeeModel saved = repo.save(employee);
+            syncDepartment(saved);
+            authContexts.employeeChanged(employeeId);
+            return saved;
         }
         throw new RuntimeException("Employee not found");
     }
@@ -97,8 +213,44 @@ public class EmployeeService {
         if (employeeOpt.isPresent()) {
             EmployeeModel employee = employeeOpt.get();
             employee.setStatus(status);
+            aggregateService.invalidate();
             return repo.save(employee);
         }
         throw new RuntimeException("Employee not found");
     }
+
+    private void checkReportingLine(Long employeeId, EmployeeModel manager) {
+        if (manager == null) {
+            return;
+        }
+        repo.lockReportingLines(REPORTING_LINES_LOCK);
+        if (employeeId.equals(manager.getEmployeeId())
+                || repo.isInChainOfCommand(employeeId, manager.getEmployeeId(), MAX_ORG_DEPTH)) {
+            throw new IllegalArgumentException("Manager assignment would create a reporting cycle");
+        }
+    }
+
+    private static List<OrgChartNode> toNodes(List<Object[]> rows) {
+        List<OrgChartNode> nodes = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            nodes.add(new OrgChartNode(
+                ((Number) row[0]).longValue(),
+                (String) row[1],
+                (String) row[2],
+                (String) row[3],
+                row[4] != null ? ((Number) row[4]).longValue() : null,
+                ((Number) row[5]).intValue()));
+        }
+        return nodes;
+    }
+
+    private static Long managerIdOf(EmployeeModel employee) {
+        return employee.getManager() != null ? employee.getManager().getEmployeeId() : null;
+    }
+
+    private void syncDepartment(EmployeeModel employee) {
+        Long departmentId = employee.getDepartment() != null ? employee.getDepartment().getDepartmentId() : null;
+        cubeService.setDepartment(employee.getEmployeeId(), departmentId);
+        aggregateService.invalidate();
+    }
 }
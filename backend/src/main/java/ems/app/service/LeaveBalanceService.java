@@ -0,0 +1,146 @@
+package ems.app.service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import ems.app.dto.LeaveBalanceDelta;
+import ems.app.dto.LeaveBalanceRow;
+import ems.app.model.LeaveBalanceModel;
+import ems.app.model.LeaveModel;
+import ems.app.repo.LeaveBalanceRepo;
+import jakarta.transaction.Transactional;
+
+@Service
+public class LeaveBalanceService {
+    private static final long LEDGER_LOCK = 4102L;
+    private static final Logger log = LoggerFactory.getLogger(LeaveBalanceService.class);
+
+    private final LeaveBalanceRepo repo;
+    private final int defaultAllowance;
+
+    @Autowired
+    public LeaveBalanceService(LeaveBalanceRepo repo, @Value("${ems.leave.default-allowance:20}") int defaultAllowance) {
+        this.repo = repo;
+        this.defaultAllowance = defaultAllowance;
+    }
+
+    public Optional<LeaveBalanceModel> getBalance(Long employeeId, String leaveType, int year) {
+        return repo.findByEmployeeIdAndLeaveTypeAndYear(employeeId, leaveType, year);
+    }
+
+    public List<LeaveBalanceRow> getReport(int year, String leaveType, Long departmentId) {
+        return repo.findReport(year, leaveType, departmentId);
+    }
+
+    // Moves the leave's days out of the column for its old status and into the one for its new status, per year touched
+    @Transactional
+    public void recordTransition(LeaveModel leave, String fromStatus, String toStatus) {
+        if (leave.getEmployee() == null || leave.getEmployee().getEmployeeId() == null) {
+            return;
+        }
+        int usedDelta = weight(toStatus, "APPROVED") - weight(fromStatus, "APPROVED");
+        int pendingDelta = weight(toStatus, "PENDING") - weight(fromStatus, "PENDING");
+        if (usedDelta == 0 && pendingDelta == 0) {
+            return;
+        }
+        repo.lockLedgerShared(LEDGER_LOCK);
+        // Years ascend, so two writers touching the same rows always lock them in the same order
+        for (Map.Entry<Integer, Integer> year : daysByYear(leave.getStartDate(), leave.getEndDate()).entrySet()) {
+            repo.applyDelta(leave.getEmployee().getEmployeeId(), leave.getLeaveType(), year.getKey(),
+                usedDelta * year.getValue(), pendingDelta * year.getValue(), defaultAllowance);
+        }
+    }
+
+    // Set-based form of recordTransition: deltas are summed per (employee, type, year) and written in one statement
+    @Transactional
+    public void recordTransitions(Collection<LeaveCalendarIndex.Interval> leaves, String toStatus) {
+        TreeMap<DeltaKey, int[]> sums = new TreeMap<>(DELTA_ORDER);
+        for (LeaveCalendarIndex.Interval leave : leaves) {
+            if (leave.employeeId() == null) {
+                continue;
+            }
+            int usedDelta = weight(toStatus, "APPROVED") - weight(leave.status(), "APPROVED");
+            int pendingDelta = weight(toStatus, "PENDING") - weight(leave.status(), "PENDING");
+            if (usedDelta == 0 && pendingDelta == 0) {
+                continue;
+            }
+            for (Map.Entry<Integer, Integer> year : daysByYear(leave.startDate(), leave.endDate()).entrySet()) {
+                int[] sum = sums.computeIfAbsent(new DeltaKey(leave.employeeId(), leave.leaveType(), year.getKey()), k -> new int[2]);
+                sum[0] += usedDelta * year.getValue();
+                sum[1] += pendingDelta * year.getValue();
+            }
+        }
+        if (sums.isEmpty()) {
+            return;
+        }
+        List<LeaveBalanceDelta> deltas = new ArrayList<>(sums.size());
+        sums.forEach((key, sum) -> deltas.add(new LeaveBalanceDelta(key.employeeId(), key.leaveType(), key.year(), sum[0], sum[1])));
+        repo.lockLedgerShared(LEDGER_LOCK);
+        repo.applyDeltas(deltas, defaultAllowance);
+    }
+
+    @Scheduled(cron = "${ems.leave.balance.reconcile-cron:-}")
+    @Transactional
+    public int reconcile() {
+        repo.lockLedger(LEDGER_LOCK);
+        int drifted = repo.reconcile(defaultAllowance);
+        if (drifted > 0) {
+            log.warn("Leave balance ledger had drifted from the leaves table; corrected {} rows", drifted);
+        }
+        return drifted;
+    }
+
+    @Transactional
+    public int rebuild() {
+        repo.lockLedger(LEDGER_LOCK);
+        return repo.rebuild(defaultAllowance);
+    }
+
+    // First start after the ledger was introduced: seed it from the leaves that already exist
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void seedIfEmpty() {
+        repo.lockLedger(LEDGER_LOCK);
+        if (repo.count() == 0) {
+            repo.rebuild(defaultAllowance);
+        }
+    }
+
+    static SortedMap<Integer, Integer> daysByYear(LocalDate startDate, LocalDate endDate) {
+        SortedMap<Integer, Integer> days = new TreeMap<>();
+        for (int year = startDate.getYear(); year <= endDate.getYear(); year++) {
+            LocalDate from = year == startDate.getYear() ? startDate : LocalDate.of(year, 1, 1);
+            LocalDate to = year == endDate.getYear() ? endDate : LocalDate.of(year, 12, 31);
+            days.put(year, (int) ChronoUnit.DAYS.between(from, to) + 1);
+        }
+        return days;
+    }
+
+    private static int weight(String status, String column) {
+        return column.equals(status) ? 1 : 0;
+    }
+
+    private record DeltaKey(Long employeeId, String leaveType, int year) {
+    }
+
+    private static final Comparator<DeltaKey> DELTA_ORDER = Comparator.comparing(DeltaKey::employeeId)
+        .thenComparing(DeltaKey::leaveType)
+        .thenComparingInt(DeltaKey::year);
+}
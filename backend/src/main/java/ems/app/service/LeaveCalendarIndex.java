@@ -0,0 +1,122 @@
+package ems.app.service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Interval index over PENDING and APPROVED leaves: per employee, leaves sorted by start date.
+// A window query scans starts in [from - longest + 1, to] for each requested employee, so it never touches other teams.
+public class LeaveCalendarIndex {
+
+    public record Interval(Long leaveId, Long employeeId, String leaveType, String status, LocalDate startDate, LocalDate endDate) {
+    }
+
+    private static final class EmployeeLeaves {
+        private final TreeMap<LocalDate, List<Interval>> byStart = new TreeMap<>();
+        // Only ever grows until the next rebuild; a stale value widens the scan but never loses a match
+        private long longestDays = 1;
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Interval> byLeave = new HashMap<>();
+    private final Map<Long, EmployeeLeaves> byEmployee = new HashMap<>();
+
+    // Replaces any earlier version of the leave; a leave that is no longer active is dropped
+    public void put(Interval interval) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(interval.leaveId());
+            if (!isActive(interval.status()) || interval.employeeId() == null) {
+                return;
+            }
+            byLeave.put(interval.leaveId(), interval);
+            EmployeeLeaves leaves = byEmployee.computeIfAbsent(interval.employeeId(), id -> new EmployeeLeaves());
+            leaves.byStart.computeIfAbsent(interval.startDate(), d -> new ArrayList<>(1)).add(interval);
+            leaves.longestDays = Math.max(leaves.longestDays, lengthInDays(interval));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long leaveId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(leaveId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            byLeave.clear();
+            byEmployee.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return byLeave.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Interval> overlapping(Collection<Long> employeeIds, LocalDate from, LocalDate to) {
+        List<Interval> matches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (Long employeeId : employeeIds) {
+                EmployeeLeaves leaves = byEmployee.get(employeeId);
+                if (leaves == null) {
+                    continue;
+                }
+                LocalDate earliestStart = from.minusDays(leaves.longestDays - 1);
+                for (List<Interval> starting : leaves.byStart.subMap(earliestStart, true, to, true).values()) {
+                    for (Interval interval : starting) {
+                        if (!interval.endDate().isBefore(from)) {
+                            matches.add(interval);
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return matches;
+    }
+
+    private void removeLocked(Long leaveId) {
+        Interval old = byLeave.remove(leaveId);
+        if (old == null) {
+            return;
+        }
+        EmployeeLeaves leaves = byEmployee.get(old.employeeId());
+        List<Interval> starting = leaves.byStart.get(old.startDate());
+        starting.removeIf(interval -> interval.leaveId().equals(leaveId));
+        if (starting.isEmpty()) {
+            leaves.byStart.remove(old.startDate());
+        }
+        if (leaves.byStart.isEmpty()) {
+            byEmployee.remove(old.employeeId());
+        }
+    }
+
+    private static boolean isActive(String status) {
+        return "PENDING".equals(status) || "APPROVED".equals(status);
+    }
+
+    private static long lengthInDays(Interval interval) {
+        return ChronoUnit.DAYS.between(interval.startDate(), interval.endDate()) + 1;
+    }
+}
@@ -0,0 +1,155 @@
+package ems.app.service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import ems.app.dto.EmployeeSummary;
+import ems.app.dto.TeamLeaveCalendar;
+import ems.app.dto.TeamLeaveDay;
+import ems.app.dto.TeamLeaveEntry;
+import ems.app.model.LeaveModel;
+import ems.app.repo.EmployeeRepo;
+import ems.app.repo.LeaveRepo;
+
+@Service
+public class LeaveCalendarService {
+    static final int MAX_WINDOW_DAYS = 366;
+
+    private final LeaveRepo leaveRepo;
+    private final EmployeeRepo empRepo;
+    private final ReentrantLock swapLock = new ReentrantLock();
+    private volatile LeaveCalendarIndex index = new LeaveCalendarIndex();
+    private List<Consumer<LeaveCalendarIndex>> journal;
+
+    @Autowired
+    public LeaveCalendarService(LeaveRepo leaveRepo, EmployeeRepo empRepo) {
+        this.leaveRepo = leaveRepo;
+        this.empRepo = empRepo;
+    }
+
+    // Rebuilt at startup and periodically, so leaves written through another instance show up here too
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${ems.leave.calendar.rebuild-cron:0 */5 * * * *}")
+    public void rebuild() {
+        swapLock.lock();
+        try {
+            journal = new ArrayList<>();
+        } finally {
+            swapLock.unlock();
+        }
+
+        LeaveCalendarIndex fresh = new LeaveCalendarIndex();
+        for (Object[] row : leaveRepo.findActiveIntervals()) {
+            fresh.put(new LeaveCalendarIndex.Interval(((Number) row[0]).longValue(), ((Number) row[1]).longValue(),
+                (String) row[2], (String) row[3], (LocalDate) row[4], (LocalDate) row[5]));
+        }
+
+        // Replay writes that landed while the new index was loading
+        swapLock.lock();
+        try {
+            for (Consumer<LeaveCalendarIndex> change : journal) {
+                change.accept(fresh);
+            }
+            index = fresh;
+            journal = null;
+        } finally {
+            swapLock.unlock();
+        }
+    }
+
+    public void leaveChanged(LeaveModel leave) {
+        if (leave.getEmployee() == null) {
+            return;
+        }
+        LeaveCalendarIndex.Interval interval = new LeaveCalendarIndex.Interval(leave.getLeave_id(),
+            leave.getEmployee().getEmployeeId(), leave.getLeaveType(), leave.getStatus(), leave.getStartDate(), leave.getEndDate());
+        apply(target -> target.put(interval));
+    }
+
+    public void leavesChanged(List<LeaveCalendarIndex.Interval> leaves, String status) {
+        List<LeaveCalendarIndex.Interval> updated = leaves.stream()
+            .map(leave -> new LeaveCalendarIndex.Interval(leave.leaveId(), leave.employeeId(), leave.leaveType(), status,
+                leave.startDate(), leave.endDate()))
+            .toList();
+        apply(target -> updated.forEach(target::put));
+    }
+
+    public void leaveRemoved(Long leaveId) {
+        apply(target -> target.remove(leaveId));
+    }
+
+    // Per-day occupancy for a department or a manager's direct reports; the leaves come from the index, not the database
+    public TeamLeaveCalendar getCalendar(Long departmentId, Long managerId, LocalDate startDate, LocalDate endDate) {
+        if ((departmentId == null) == (managerId == null)) {
+            throw new IllegalArgumentException("Exactly one of departmentId and managerId is required");
+        }
+        if (endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("endDate must not be before startDate");
+        }
+        int days = (int) ChronoUnit.DAYS.between(startDate, endDate) + 1;
+        if (days > MAX_WINDOW_DAYS) {
+            throw new IllegalArgumentException("The window may span at most " + MAX_WINDOW_DAYS + " days");
+        }
+
+        List<EmployeeSummary> members = departmentId != null
+            ? empRepo.findSummariesByDepartment(departmentId)
+            : empRepo.findSummariesByManager(managerId);
+        Map<Long, String> names = new HashMap<>();
+        for (EmployeeSummary member : members) {
+            names.put(member.employeeId(), member.firstName() + " " + member.lastName());
+        }
+
+        List<LeaveCalendarIndex.Interval> intervals = new ArrayList<>(index.overlapping(names.keySet(), startDate, endDate));
+        intervals.sort(Comparator.comparing((LeaveCalendarIndex.Interval i) -> names.get(i.employeeId()))
+            .thenComparing(LeaveCalendarIndex.Interval::leaveId));
+
+        List<List<TeamLeaveEntry>> perDay = new ArrayList<>(days);
+        for (int d = 0; d < days; d++) {
+            perDay.add(new ArrayList<>());
+        }
+        for (LeaveCalendarIndex.Interval interval : intervals) {
+            TeamLeaveEntry entry = new TeamLeaveEntry(interval.leaveId(), interval.employeeId(),
+                names.get(interval.employeeId()), interval.leaveType(), interval.status());
+            LocalDate from = interval.startDate().isBefore(startDate) ? startDate : interval.startDate();
+            LocalDate to = interval.endDate().isAfter(endDate) ? endDate : interval.endDate();
+            for (long d = ChronoUnit.DAYS.between(startDate, from); d <= ChronoUnit.DAYS.between(startDate, to); d++) {
+                perDay.get((int) d).add(entry);
+            }
+        }
+
+        List<TeamLeaveDay> calendar = new ArrayList<>(days);
+        for (int d = 0; d < days; d++) {
+            List<TeamLeaveEntry> onLeave = perDay.get(d);
+            int approved = (int) onLeave.stream().filter(entry -> "APPROVED".equals(entry.status())).count();
+            calendar.add(new TeamLeaveDay(startDate.plusDays(d), approved, onLeave.size() - approved, onLeave));
+        }
+        return new TeamLeaveCalendar(startDate, endDate, members.size(), calendar);
+    }
+
+    private void apply(Consumer<LeaveCalendarIndex> change) {
+        AfterCommit.run(() -> {
+            swapLock.lock();
+            try {
+                change.accept(index);
+                if (journal != null) {
+                    journal.add(change);
+                }
+            } finally {
+                swapLock.unlock();
+            }
+        });
+    }
+}
@@ -0,0 +1,211 @@
+package ems.app.service;
+
+import java.io.IOException;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import ems.app.dto.CursorPage;
+import ems.app.dto.LeaveQueueEvent;
+import ems.app.dto.PendingLeave;
+import ems.app.repo.EmployeeRepo;
+import ems.app.repo.LeaveRepo;
+import jakarta.annotation.PreDestroy;
+
+// Per-manager approval queue: a keyset-paged read of pending leaves below the manager, plus SSE pushes of changes
+@Service
+public class LeaveQueueService {
+    private static final Logger log = LoggerFactory.getLogger(LeaveQueueService.class);
+
+    private final LeaveRepo leaveRepo;
+    private final EmployeeRepo empRepo;
+    private final long emitterTimeoutMs;
+    private final Map<Long, Set<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+    // Fan-out runs off the request thread, so a slow client never holds up the write that produced the event
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "leave-queue-events");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    public LeaveQueueService(LeaveRepo leaveRepo, EmployeeRepo empRepo,
+            @Value("${ems.leave.queue.sse-timeout:30m}") Duration emitterTimeout) {
+        this.leaveRepo = leaveRepo;
+        this.empRepo = empRepo;
+        this.emitterTimeoutMs = emitterTimeout.toMillis();
+    }
+
+    public CursorPage<PendingLeave> getQueue(Long managerId, String cursor, int size) {
+        long afterId = (cursor != null && !cursor.isEmpty()) ? decodeCursor(cursor) : 0L;
+
+        // Fetch one extra row to know whether another page exists
+        List<PendingLeave> rows = leaveRepo.findPendingForManager(managerId, afterId, size + 1, EmployeeService.MAX_ORG_DEPTH)
+            .stream().map(LeaveQueueService::toPendingLeave).toList();
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null);
+        }
+        List<PendingLeave> page = rows.subList(0, size);
+        return new CursorPage<>(page, String.valueOf(page.get(size - 1).leaveId()));
+    }
+
+    public SseEmitter subscribe(Long managerId) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        Set<SseEmitter> emitters = subscribers.computeIfAbsent(managerId, id -> new CopyOnWriteArraySet<>());
+        emitters.add(emitter);
+        emitter.onCompletion(() -> unsubscribe(managerId, emitter));
+        emitter.onTimeout(() -> unsubscribe(managerId, emitter));
+        emitter.onError(e -> unsubscribe(managerId, emitter));
+        try {
+            emitter.send(SseEmitter.event().comment("subscribed"));
+        } catch (IOException e) {
+            unsubscribe(managerId, emitter);
+        }
+        return emitter;
+    }
+
+    // Called from the write path; managers above the employee are told once the change has committed
+    public void leaveChanged(Long leaveId, Long employeeId, String status) {
+        if (employeeId == null) {
+            return;
+        }
+        AfterCommit.run(() -> publish(Map.of(employeeId, List.of(new Change(leaveId, status)))));
+    }
+
+    public void leavesChanged(List<LeaveCalendarIndex.Interval> leaves, String status) {
+        Map<Long, List<Change>> byEmployee = new LinkedHashMap<>();
+        for (LeaveCalendarIndex.Interval leave : leaves) {
+            if (leave.employeeId() != null) {
+                byEmployee.computeIfAbsent(leave.employeeId(), id -> new ArrayList<>()).add(new Change(leave.leaveId(), status));
+            }
+        }
+        AfterCommit.run(() -> publish(byEmployee));
+    }
+
+    // Keeps idle connections open through proxies and drops clients that have gone away
+    @Scheduled(fixedDelayString = "${ems.leave.queue.heartbeat-ms:25000}")
+    public void heartbeat() {
+        subscribers.forEach((managerId, emitters) -> {
+            for (SseEmitter emitter : emitters) {
+                try {
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                } catch (IOException | IllegalStateException e) {
+                    unsubscribe(managerId, emitter);
+                }
+            }
+        });
+    }
+
+    public int subscriberCount() {
+        return subscribers.values().stream().mapToInt(Set::size).sum();
+    }
+
+    @PreDestroy
+    public void stop() {
+        dispatcher.shutdown();
+        subscribers.values().forEach(emitters -> emitters.forEach(SseEmitter::complete));
+        subscribers.clear();
+    }
+
+    private void publish(Map<Long, List<Change>> byEmployee) {
+        if (subscribers.isEmpty() || byEmployee.isEmpty()) {
+            return;
+        }
+        dispatcher.execute(() -> {
+            try {
+                byEmployee.forEach(this::deliver);
+            } catch (RuntimeException e) {
+                log.warn("Could not push leave queue events", e);
+            }
+        });
+    }
+
+    private void deliver(Long employeeId, List<Change> changes) {
+        List<Long> managers = new ArrayList<>();
+        for (Object[] row : empRepo.findChainOfCommand(employeeId, EmployeeService.MAX_ORG_DEPTH)) {
+            if (((Number) row[5]).intValue() > 0 && subscribers.containsKey(((Number) row[0]).longValue())) {
+                managers.add(((Number) row[0]).longValue());
+            }
+        }
+        if (managers.isEmpty()) {
+            return;
+        }
+        for (Change change : changes) {
+            LeaveQueueEvent event = toEvent(change);
+            for (Long managerId : managers) {
+                for (SseEmitter emitter : subscribers.getOrDefault(managerId, Set.of())) {
+                    try {
+                        emitter.send(SseEmitter.event().name("leave").id(String.valueOf(change.leaveId())).data(event));
+                    } catch (IOException | IllegalStateException e) {
+                        unsubscribe(managerId, emitter);
+                    }
+                }
+            }
+        }
+    }
+
+    // Re-read rather than trust the caller's entity, which may only carry the employee id
+    private LeaveQueueEvent toEvent(Change change) {
+        if ("PENDING".equals(change.status())) {
+            List<Object[]> rows = leaveRepo.findPendingById(change.leaveId());
+            if (!rows.isEmpty()) {
+                return new LeaveQueueEvent("ADDED", change.leaveId(), "PENDING", toPendingLeave(rows.get(0)));
+            }
+        }
+        return new LeaveQueueEvent("REMOVED", change.leaveId(), change.status(), null);
+    }
+
+    private void unsubscribe(Long managerId, SseEmitter emitter) {
+        subscribers.computeIfPresent(managerId, (id, emitters) -> {
+            emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+
+    private static long decodeCursor(String cursor) {
+        try {
+            return Long.parseLong(cursor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    private static PendingLeave toPendingLeave(Object[] row) {
+        return new PendingLeave(
+            ((Number) row[0]).longValue(),
+            ((Number) row[1]).longValue(),
+            row[2] + " " + row[3],
+            (String) row[4],
+            toLocalDate(row[5]),
+            toLocalDate(row[6]),
+            row[7] == null ? null : ((Number) row[7]).intValue(),
+            (String) row[8],
+            row[9] instanceof Timestamp ts ? ts.toLocalDateTime() : (LocalDateTime) row[9]);
+    }
+
+    private static LocalDate toLocalDate(Object value) {
+        return value instanceof Date date ? date.toLocalDate() : (LocalDate) value;
+    }
+
+    private record Change(Long leaveId, String status) {
+    }
+}
@@ -1,15 +1,25 @@
 package ems.app.service;
 
+import java.sql.Date;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
+import ems.app.config.LeaveOverlapConstraintInitializer;
+import ems.app.dto.AuthContext;
+import ems.app.dto.BulkLeaveReport;
+import ems.app.dto.LeaveTransitionOutcome;
 import ems.app.model.EmployeeModel;
 import ems.app.model.LeaveModel;
 import ems.app.repo.LeaveRepo;
@@ -17,11 +27,21 @@ import jakarta.transaction.Transactional;
 
 @Service
 public class LeaveService {
+    private static final String OVERLAP_MESSAGE = "Employee already has approved/pending leave for this period";
+    static final int MAX_BULK_SIZE = 1000;
+
     private final LeaveRepo repo;
+    private final LeaveBalanceService balanceService;
+    private final LeaveCalendarService calendarService;
+    private final LeaveQueueService queueService;
 
     @Autowired
-    public LeaveService(LeaveRepo repo) {
+    public LeaveService(LeaveRepo repo, LeaveBalanceService balanceService, LeaveCalendarService calendarService,
+            LeaveQueueService queueService) {
         this.repo = repo;
+        this.balanceService = balanceService;
+        this.calendarService = calendarService;
+        this.queueService = queueService;
     }
 
     public List<LeaveModel> getAllLeaves() {
@@ -44,9 +64,12 @@ public class LeaveService {
         return repo.findLeavesForDate(date);
     }
 
+    // Only PENDING and APPROVED leaves block a period; rejected and canceled ones do not
     public boolean hasOverlappingLeaves(EmployeeModel employee, LocalDate startDate, LocalDate endDate) {
-        List<LeaveModel> overlappingLeaves = repo.findOverlappingLeaves(employee, startDate, endDate);
-        return !overlappingLeaves.isEmpty();
+        if (employee == null || employee.getEmployeeId() == null) {
+            return false;
+        }
+        return repo.existsActiveOverlap(employee.getEmployeeId(), startDate, endDate);
     }
 
     @Transactional
@@ -57,23 +80,48 @@ public class LeaveService {
 
         // Check for overlapping leaves
         if (hasOverlappingLeaves(leave.getEmployee(), leave.getStartDate(), leave.getEndDate())) {
-            throw new RuntimeException("Employee already has approved/pending leave for this period");
+            throw new RuntimeException(OVERLAP_MESSAGE);
         }
 
         // Set initial status
         leave.setStatus("PENDING");
 
-        return repo.save(leave);
+        // The check above is only a fast path; a concurrent application for the same period is stopped by the
+        // leaves_no_active_overlap exclusion constraint when this insert runs
+        LeaveModel saved;
+        try {
+            saved = repo.save(leave);
+        } catch (DataIntegrityViolationException e) {
+            if (!violates(e, LeaveOverlapConstraintInitializer.CONSTRAINT)) {
+                throw e;
+            }
+            throw new RuntimeException(OVERLAP_MESSAGE, e);
+        }
+        balanceService.recordTransition(saved, null, "PENDING");
+        calendarService.leaveChanged(saved);
+        queueService.leaveChanged(saved.getLeave_id(), employeeIdOf(saved), "PENDING");
+        return saved;
     }
 
     @Transactional
     public LeaveModel approveLeave(Long id, EmployeeModel approver) {
-        Optional<LeaveModel> leaveOpt = repo.findById(id);
+        return approveLeave(id, approver, null);
+    }
+
+    // A null actor skips the permission check and is reserved for internal callers
+    @Transactional
+    public LeaveModel approveLeave(Long id, EmployeeModel approver, AuthContext actor) {
+        Optional<LeaveModel> leaveOpt = repo.findByIdForUpdate(id);
         if(leaveOpt.isPresent()) {
             LeaveModel leave = leaveOpt.get();
+            authorize(actor, leave, "APPROVED");
+            String previous = leave.getStatus();
             leave.setStatus("APPROVED");
             leave.setApprovedBy(approver);
             leave.setApprovalDate(LocalDateTime.now());
+            balanceService.recordTransition(leave, previous, "APPROVED");
+            calendarService.leaveChanged(leave);
+            queueService.leaveChanged(id, employeeIdOf(leave), "APPROVED");
             return repo.save(leave);
         }
         throw new RuntimeException("Leave request not found");
@@ -82,13 +130,23 @@ public class LeaveService {
 
     @Transactional
     public LeaveModel rejectedLeave(Long id, EmployeeModel reviewer) {
-        Optional<LeaveModel> leaveOpt = repo.findById(id);
+        return rejectedLeave(id, reviewer, null);
+    }
+
+    @Transactional
+    public LeaveModel rejectedLeave(Long id, EmployeeModel reviewer, AuthContext actor) {
+        Optional<LeaveModel> leaveOpt = repo.findByIdForUpdate(id);
 
         if(leaveOpt.isPresent()) {
             LeaveModel leave = leaveOpt.get();
+            authorize(actor, leave, "REJECTED");
+            String previous = leave.getStatus();
             leave.setStatus("REJECTED");
             leave.setApprovedBy(reviewer);
             leave.setApprovalDate(LocalDateTime.now());
+            balanceService.recordTransition(leave, previous, "REJECTED");
+            calendarService.leaveChanged(leave);
+            queueService.leaveChanged(id, employeeIdOf(leave), "REJECTED");
             return repo.save(leave);
         }
         throw new RuntimeException("Leave Request not found");
@@ -97,30 +155,162 @@ public class LeaveService {
 
     @Transactional
     public LeaveModel cancelLeave(Long id) {
-        Optional<LeaveModel> leaveOpt = repo.findById(id);
+        return cancelLeave(id, null);
+    }
+
+    @Transactional
+    public LeaveModel cancelLeave(Long id, AuthContext actor) {
+        Optional<LeaveModel> leaveOpt = repo.findByIdForUpdate(id);
 
         if(leaveOpt.isPresent()) {
             LeaveModel leave = leaveOpt.get();
+            authorize(actor, leave, "CANCELED");
+            String previous = leave.getStatus();
             leave.setStatus("CANCELED");
             leave.setApprovalDate(LocalDateTime.now());
+            balanceService.recordTransition(leave, previous, "CANCELED");
+            calendarService.leaveChanged(leave);
+            queueService.leaveChanged(id, employeeIdOf(leave), "CANCELED");
             return repo.save(leave);
         }
         throw new RuntimeException("Leave Request not found");
     }
 
+    @Transactional
+    public BulkLeaveReport approveLeaves(List<Long> leaveIds, EmployeeModel approver) {
+        return transitionAll(leaveIds, "APPROVED", approver, null);
+    }
+
+    @Transactional
+    public BulkLeaveReport approveLeaves(List<Long> leaveIds, EmployeeModel approver, AuthContext actor) {
+        return transitionAll(leaveIds, "APPROVED", approver, actor);
+    }
+
+    @Transactional
+    public BulkLeaveReport rejectLeaves(List<Long> leaveIds, EmployeeModel reviewer) {
+        return transitionAll(leaveIds, "REJECTED", reviewer, null);
+    }
+
+    @Transactional
+    public BulkLeaveReport rejectLeaves(List<Long> leaveIds, EmployeeModel reviewer, AuthContext actor) {
+        return transitionAll(leaveIds, "REJECTED", reviewer, actor);
+    }
+
+    @Transactional
+    public BulkLeaveReport cancelLeaves(List<Long> leaveIds) {
+        return transitionAll(leaveIds, "CANCELED", null, null);
+    }
+
+    @Transactional
+    public BulkLeaveReport cancelLeaves(List<Long> leaveIds, AuthContext actor) {
+        return transitionAll(leaveIds, "CANCELED", null, actor);
+    }
+
     @Transactional
     public void deleteLeave(Long id) {
-        repo.deleteById(id);
+        repo.findByIdForUpdate(id).ifPresent(leave -> {
+            balanceService.recordTransition(leave, leave.getStatus(), null);
+            repo.delete(leave);
+            calendarService.leaveRemoved(id);
+            queueService.leaveChanged(id, employeeIdOf(leave), "DELETED");
+        });
     }
 
+    // Approved plus pending days, read from the balance ledger instead of summing the year's leaves
     public int getUsedLeavesByTypeAndYear(EmployeeModel employee, String type, int year) {
-        LocalDate startOfYear = LocalDate.of(year, 1, 1);
-        LocalDate endOfYear = LocalDate.of(year, 12, 31);
-
-        List<LeaveModel> leaves = repo.findOverlappingLeaves(employee, startOfYear, endOfYear);
-        return leaves.stream()
-            .filter(leave -> leave.getLeaveType().equals(type) && (leave.getStatus().equals("APPROVED") || leave.getStatus().equals("PENDING")))
-            .mapToInt(LeaveModel::getTotaldays)
-            .sum();
+        return balanceService.getBalance(employee.getEmployeeId(), type, year)
+            .map(balance -> balance.getUsedDays() + balance.getPendingDays())
+            .orElse(0);
+    }
+
+    // One locking read, one UPDATE and one ledger write however many ids are passed
+    private BulkLeaveReport transitionAll(List<Long> leaveIds, String toStatus, EmployeeModel reviewer, AuthContext actor) {
+        if (leaveIds == null || leaveIds.isEmpty()) {
+            throw new IllegalArgumentException("leaveIds must not be empty");
+        }
+        List<Long> ids = leaveIds.stream().filter(Objects::nonNull).distinct().toList();
+        if (ids.size() > MAX_BULK_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_SIZE + " leave requests can be processed at once");
+        }
+
+        Map<Long, LeaveCalendarIndex.Interval> current = new HashMap<>();
+        for (Object[] row : repo.lockStates(ids)) {
+            Long leaveId = ((Number) row[0]).longValue();
+            Long employeeId = row[1] == null ? null : ((Number) row[1]).longValue();
+            current.put(leaveId, new LeaveCalendarIndex.Interval(leaveId, employeeId, (String) row[2], (String) row[3],
+                toLocalDate(row[4]), toLocalDate(row[5])));
+        }
+
+        List<LeaveCalendarIndex.Interval> eligible = new ArrayList<>();
+        List<LeaveTransitionOutcome> outcomes = new ArrayList<>(ids.size());
+        int notFound = 0;
+        for (Long id : ids) {
+            LeaveCalendarIndex.Interval leave = current.get(id);
+            if (leave == null) {
+                notFound++;
+                outcomes.add(new LeaveTransitionOutcome(id, "NOT_FOUND", null));
+            } else if (!permits(actor, leave.employeeId(), toStatus)) {
+                outcomes.add(new LeaveTransitionOutcome(id, "FORBIDDEN", leave.status()));
+            } else if (!canMove(leave.status(), toStatus)) {
+                outcomes.add(new LeaveTransitionOutcome(id, "SKIPPED", leave.status()));
+            } else {
+                eligible.add(leave);
+                outcomes.add(new LeaveTransitionOutcome(id, "UPDATED", toStatus));
+            }
+        }
+
+        if (!eligible.isEmpty()) {
+            List<Long> eligibleIds = eligible.stream().map(LeaveCalendarIndex.Interval::leaveId).toList();
+            LocalDateTime now = LocalDateTime.now();
+            if ("CANCELED".equals(toStatus)) {
+                repo.cancelAll(eligibleIds, now);
+            } else {
+                repo.reviewAll(eligibleIds, toStatus, reviewer, now);
+            }
+            balanceService.recordTransitions(eligible, toStatus);
+            calendarService.leavesChanged(eligible, toStatus);
+            queueService.leavesChanged(eligible, toStatus);
+        }
+        return new BulkLeaveReport(ids.size(), eligible.size(), notFound, ids.size() - eligible.size() - notFound, outcomes);
+    }
+
+    private static void authorize(AuthContext actor, LeaveModel leave, String toStatus) {
+        if (!permits(actor, employeeIdOf(leave), toStatus)) {
+            throw new SecurityException("Not allowed to change leave request " + leave.getLeave_id());
+        }
+    }
+
+    // Reviews need ADMIN/HR or a reporting line to the requester; canceling is also open to the requester.
+    // A null actor is an internal caller: the leave endpoints refuse requests without a token before they get here.
+    private static boolean permits(AuthContext actor, Long employeeId, String toStatus) {
+        if (actor == null) {
+            return true;
+        }
+        return "CANCELED".equals(toStatus) ? actor.canCancel(employeeId) : actor.canReview(employeeId);
+    }
+
+    // In a batch only pending requests can be reviewed, and only pending or approved leave can be canceled
+    private static boolean canMove(String fromStatus, String toStatus) {
+        if ("CANCELED".equals(toStatus)) {
+            return "PENDING".equals(fromStatus) || "APPROVED".equals(fromStatus);
+        }
+        return "PENDING".equals(fromStatus);
+    }
+
+    private static Long employeeIdOf(LeaveModel leave) {
+        return leave.getEmployee() == null ? null : leave.getEmployee().getEmployeeId();
+    }
+
+    private static boolean violates(DataIntegrityViolationException e, String constraint) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                return constraint.equalsIgnoreCase(violation.getConstraintName());
+            }
+        }
+        return false;
+    }
+
+    private static LocalDate toLocalDate(Object value) {
+        return value instanceof Date date ? date.toLocalDate() : (LocalDate) value;
     }
 }
@@ -0,0 +1,93 @@
+package ems.app.service;
+
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import ems.app.model.UserModel;
+import ems.app.repo.UserRepo;
+import jakarta.annotation.PreDestroy;
+
+// Password verification is deliberately slow, so it runs on its own bounded pool instead of the servlet threads.
+// When the pool and its queue are full the login is refused up front (RejectedExecutionException) rather than
+// letting a shift-start burst pile up behind every other endpoint.
+@Service
+public class LoginService {
+    private static final Logger log = LoggerFactory.getLogger(LoginService.class);
+
+    private final UserRepo repo;
+    private final PasswordHasher hasher;
+    private final ThreadPoolExecutor verifier;
+    // Verified against when the username is unknown, so a miss costs the same as a wrong password
+    private final String dummyHash;
+
+    @Autowired
+    public LoginService(UserRepo repo, PasswordHasher hasher,
+            @Value("${ems.auth.login.threads:0}") int threads,
+            @Value("${ems.auth.login.queue-capacity:200}") int queueCapacity) {
+        this.repo = repo;
+        this.hasher = hasher;
+        int poolSize = threads > 0 ? threads : Math.max(2, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger counter = new AtomicInteger();
+        this.verifier = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                Thread thread = new Thread(runnable, "login-verifier-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.AbortPolicy());
+        this.dummyHash = hasher.hash("not-a-password");
+    }
+
+    // Completes with the user when the credentials match an active account; throws RejectedExecutionException
+    // immediately when the verifier is saturated
+    public CompletableFuture<Optional<UserModel>> login(String username, String password) {
+        Optional<UserModel> found = repo.findByUsername(username);
+        return CompletableFuture.supplyAsync(() -> verify(found, password), verifier);
+    }
+
+    public int getQueuedLogins() {
+        return verifier.getQueue().size();
+    }
+
+    @PreDestroy
+    public void stop() {
+        verifier.shutdownNow();
+    }
+
+    private Optional<UserModel> verify(Optional<UserModel> found, String password) {
+        if (found.isEmpty()) {
+            hasher.matches(password, dummyHash);
+            return Optional.empty();
+        }
+        UserModel user = found.get();
+        String stored = user.getPassword();
+        if (!hasher.matches(password, stored) || !"ACTIVE".equals(user.getStatus())) {
+            return Optional.empty();
+        }
+        if (hasher.needsRehash(stored)) {
+            upgrade(user, stored, password);
+        }
+        return found;
+    }
+
+    // Plaintext rows and hashes with an outdated work factor are replaced the first time their owner logs in
+    private void upgrade(UserModel user, String stored, String password) {
+        String hash = hasher.hash(password);
+        try {
+            if (repo.replacePassword(user.getUserId(), stored, hash) == 1) {
+                user.setPassword(hash);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not upgrade password hash for user {}", user.getUserId(), e);
+        }
+    }
+}
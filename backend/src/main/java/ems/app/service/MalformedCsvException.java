@@ -0,0 +1,15 @@
+package ems.app.service;
+
+// The upload stops parsing at the given line; the import rolls back and controllers map it to 400
+public class MalformedCsvException extends IllegalArgumentException {
+    private final long line;
+
+    public MalformedCsvException(long line, String message) {
+        super(message);
+        this.line = line;
+    }
+
+    public long getLine() {
+        return line;
+    }
+}
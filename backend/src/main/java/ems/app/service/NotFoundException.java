@@ -0,0 +1,9 @@
+package ems.app.service;
+
+// The entity a request addresses does not exist; controllers map it to 404
+public class NotFoundException extends RuntimeException {
+
+    public NotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,66 @@
+package ems.app.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+// Conversions for JSON merge-patch bodies, which arrive as Map<String, Object>. The patch services set only the supplied
+// fields on the managed entity, and with @DynamicUpdate the UPDATE lists just the changed columns.
+final class PatchValues {
+
+    private PatchValues() {
+    }
+
+    static String string(Object value, String field, boolean required) {
+        if (value == null) {
+            if (required) {
+                throw new IllegalArgumentException(field + " cannot be null");
+            }
+            return null;
+        }
+        if (!(value instanceof String text)) {
+            throw new IllegalArgumentException(field + " must be a string");
+        }
+        if (required && text.isBlank()) {
+            throw new IllegalArgumentException(field + " cannot be blank");
+        }
+        return text;
+    }
+
+    static LocalDate date(Object value, String field, boolean required) {
+        String text = string(value, field, required);
+        if (text == null) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(text);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(field + " must be an ISO date (yyyy-MM-dd)");
+        }
+    }
+
+    static BigDecimal decimal(Object value, String field) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return new BigDecimal(value.toString());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(field + " must be a number");
+        }
+    }
+
+    static Long id(Object value, String field) {
+        if (value == null) {
+            return null;
+        }
+        if (!(value instanceof Number number)) {
+            throw new IllegalArgumentException(field + " must be a number");
+        }
+        return number.longValue();
+    }
+
+    static IllegalArgumentException unknown(String field) {
+        return new IllegalArgumentException("Field " + field + " cannot be patched");
+    }
+}
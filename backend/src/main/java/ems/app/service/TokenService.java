@@ -0,0 +1,245 @@
+package ems.app.service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import ems.app.dto.AuthPrincipal;
+import ems.app.model.UserModel;
+
+// Issues and verifies HS256 JWTs. Keys live in a keyring addressed by the token's "kid": new tokens are signed with the
+// active key, and any key still in the ring verifies, so keys can be rotated without logging anyone out.
+@Service
+public class TokenService {
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder B64 = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder B64_DECODE = Base64.getUrlDecoder();
+    private static final Logger log = LoggerFactory.getLogger(TokenService.class);
+
+    private final ObjectMapper objectMapper;
+    private final Duration tokenTtl;
+    private final Clock clock;
+    private final SecureRandom random = new SecureRandom();
+    // Verified tokens, so a repeat request skips the HMAC and the JSON parse
+    private final Cache<String, AuthPrincipal> verified;
+    private volatile Keyring keyring;
+    // Not synchronized: a monitor would pin the carrier when rotation runs on a virtual thread
+    private final ReentrantLock rotationLock = new ReentrantLock();
+
+    private record SigningKey(String id, SecretKeySpec secret, Instant retiresAt) {
+    }
+
+    // rotation lists the configured key ids in order; it is empty when the keys are generated in-process
+    private record Keyring(String activeId, Map<String, SigningKey> keys, List<String> rotation) {
+    }
+
+    @Autowired
+    public TokenService(ObjectMapper objectMapper,
+            @Value("${ems.auth.token-ttl:8h}") Duration tokenTtl,
+            @Value("${ems.auth.signing-keys:}") String signingKeys,
+            @Value("${ems.auth.active-key-id:}") String activeKeyId,
+            @Value("${ems.auth.verified-cache-size:10000}") long verifiedCacheSize) {
+        this(objectMapper, tokenTtl, signingKeys, activeKeyId, verifiedCacheSize, Clock.systemUTC());
+    }
+
+    TokenService(ObjectMapper objectMapper, Duration tokenTtl, String signingKeys, String activeKeyId,
+            long verifiedCacheSize, Clock clock) {
+        this.objectMapper = objectMapper;
+        this.tokenTtl = tokenTtl;
+        this.clock = clock;
+        this.verified = Caffeine.newBuilder()
+            .maximumSize(verifiedCacheSize)
+            .expireAfterWrite(tokenTtl)
+            .build();
+        this.keyring = configuredKeyring(signingKeys, activeKeyId);
+    }
+
+    public String issue(UserModel user) {
+        Instant now = clock.instant();
+        Keyring ring = keyring;
+        Map<String, Object> header = new LinkedHashMap<>();
+        header.put("alg", "HS256");
+        header.put("typ", "JWT");
+        header.put("kid", ring.activeId());
+        Map<String, Object> claims = new LinkedHashMap<>();
+        claims.put("sub", String.valueOf(user.getUserId()));
+        claims.put("name", user.getUsername());
+        claims.put("role", user.getRole());
+        claims.put("emp", user.getEmployee() == null ? null : user.getEmployee().getEmployeeId());
+        claims.put("iat", now.getEpochSecond());
+        claims.put("exp", now.plus(tokenTtl).getEpochSecond());
+
+        String signingInput = encode(header) + "." + encode(claims);
+        return signingInput + "." + B64.encodeToString(sign(ring.keys().get(ring.activeId()), signingInput));
+    }
+
+    public Duration getTokenTtl() {
+        return tokenTtl;
+    }
+
+    public Optional<AuthPrincipal> verify(String token) {
+        Instant now = clock.instant();
+        AuthPrincipal cached = verified.getIfPresent(token);
+        if (cached != null) {
+            if (cached.expiresAt().isAfter(now)) {
+                return Optional.of(cached);
+            }
+            verified.invalidate(token);
+            return Optional.empty();
+        }
+
+        String[] parts = token.split("\\.", -1);
+        if (parts.length != 3) {
+            return Optional.empty();
+        }
+        try {
+            JsonNode header = objectMapper.readTree(B64_DECODE.decode(parts[0]));
+            SigningKey key = keyring.keys().get(header.path("kid").asText());
+            if (key == null || !"HS256".equals(header.path("alg").asText())) {
+                return Optional.empty();
+            }
+            byte[] expected = sign(key, parts[0] + "." + parts[1]);
+            if (!MessageDigest.isEqual(expected, B64_DECODE.decode(parts[2]))) {
+                return Optional.empty();
+            }
+
+            JsonNode claims = objectMapper.readTree(B64_DECODE.decode(parts[1]));
+            Instant expiresAt = Instant.ofEpochSecond(claims.path("exp").asLong());
+            if (!expiresAt.isAfter(now)) {
+                return Optional.empty();
+            }
+            JsonNode employee = claims.path("emp");
+            AuthPrincipal principal = new AuthPrincipal(
+                Long.valueOf(claims.path("sub").asText()),
+                claims.path("name").asText(null),
+                claims.path("role").asText(null),
+                employee.isNumber() ? employee.asLong() : null,
+                expiresAt);
+            verified.put(token, principal);
+            return Optional.of(principal);
+        } catch (IllegalArgumentException | IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    // With configured keys, moves the active key to the next one in ems.auth.signing-keys, so every instance on the
+    // same cron signs with the same key and each still verifies the others. A process-local keyring instead gets a
+    // freshly generated key; older keys keep verifying until every token they signed has expired.
+    @Scheduled(cron = "${ems.auth.key-rotation-cron:-}")
+    public String rotateKey() {
+        rotationLock.lock();
+        try {
+            Keyring ring = keyring;
+            if (!ring.rotation().isEmpty()) {
+                List<String> ids = ring.rotation();
+                String next = ids.get((ids.indexOf(ring.activeId()) + 1) % ids.size());
+                keyring = new Keyring(next, ring.keys(), ids);
+                return next;
+            }
+
+            Instant now = clock.instant();
+            Map<String, SigningKey> keys = new LinkedHashMap<>();
+            boolean dropped = false;
+            for (SigningKey key : ring.keys().values()) {
+                if (key.retiresAt() != null && !key.retiresAt().isAfter(now)) {
+                    dropped = true;
+                    continue;
+                }
+                Instant retiresAt = key.id().equals(ring.activeId()) ? now.plus(tokenTtl) : key.retiresAt();
+                keys.put(key.id(), new SigningKey(key.id(), key.secret(), retiresAt));
+            }
+            SigningKey fresh = generatedKey();
+            keys.put(fresh.id(), fresh);
+            keyring = new Keyring(fresh.id(), Map.copyOf(keys), List.of());
+            if (dropped) {
+                // A key left the ring; tokens it verified must be checked again
+                verified.invalidateAll();
+            }
+            return fresh.id();
+        } finally {
+            rotationLock.unlock();
+        }
+    }
+
+    private Keyring configuredKeyring(String signingKeys, String activeKeyId) {
+        Map<String, SigningKey> keys = new LinkedHashMap<>();
+        for (String entry : signingKeys.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int colon = entry.indexOf(':');
+            if (colon <= 0) {
+                throw new IllegalArgumentException("ems.auth.signing-keys entries must be <kid>:<base64 secret>");
+            }
+            String id = entry.substring(0, colon).trim();
+            byte[] secret = Base64.getDecoder().decode(entry.substring(colon + 1).trim());
+            if (secret.length < 32) {
+                throw new IllegalArgumentException("Signing key " + id + " must be at least 256 bits");
+            }
+            keys.put(id, new SigningKey(id, new SecretKeySpec(secret, ALGORITHM), null));
+        }
+        if (keys.isEmpty()) {
+            log.warn("No ems.auth.signing-keys configured; using a generated key, so tokens are lost on restart "
+                + "and are not accepted by other instances");
+            SigningKey generated = generatedKey();
+            return new Keyring(generated.id(), Map.of(generated.id(), generated), List.of());
+        }
+        String active = activeKeyId.isBlank() ? keys.keySet().iterator().next() : activeKeyId;
+        if (!keys.containsKey(active)) {
+            throw new IllegalArgumentException("ems.auth.active-key-id " + active + " is not in ems.auth.signing-keys");
+        }
+        return new Keyring(active, Map.copyOf(keys), List.copyOf(keys.keySet()));
+    }
+
+    private SigningKey generatedKey() {
+        byte[] secret = new byte[32];
+        random.nextBytes(secret);
+        return new SigningKey("gen-" + UUID.randomUUID(), new SecretKeySpec(secret, ALGORITHM), null);
+    }
+
+    private String encode(Map<String, Object> json) {
+        try {
+            return B64.encodeToString(objectMapper.writeValueAsBytes(json));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] sign(SigningKey key, String signingInput) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key.secret());
+            return mac.doFinal(signingInput.getBytes(StandardCharsets.US_ASCII));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
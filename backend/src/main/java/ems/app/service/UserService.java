@@ -1,6 +1,7 @@
 package ems.app.service;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,10 +15,14 @@ import jakarta.transaction.Transactional;
 @Service
 public class UserService {
     private final UserRepo repo;
+    private final PasswordHasher hasher;
+    private final AuthContextService authContexts;
     
     @Autowired
-    public UserService(UserRepo repo) {
+    public UserService(UserRepo repo, PasswordHasher hasher, AuthContextService authContexts) {
         this.repo = repo;
+        this.hasher = hasher;
+        this.authContexts = authContexts;
     }
     
     public List<UserModel> getAllUsers() {
@@ -54,17 +59,61 @@ public class UserService {
             throw new RuntimeException("Email already in use");
         }
     
+        user.setPassword(hasher.hash(user.getPassword()));
         return repo.save(user);
     }
 
     @Transactional
     public UserModel updateUser(UserModel user) {
+        // The password is write-only in JSON, so a full update that omits it keeps the stored hash
+        String password = user.getPassword();
+        if (password == null || password.isBlank()) {
+            user.setPassword(repo.findById(user.getUserId()).map(UserModel::getPassword)
+                .orElseThrow(() -> new RuntimeException("User not found")));
+        } else {
+            user.setPassword(hasher.hash(password));
+        }
+        authContexts.userChanged(user.getUserId());
         return repo.save(user);
     }
     
+    @Transactional
+    public UserModel patchUser(Long userId, Map<String, Object> changes) {
+        UserModel user = repo.findById(userId)
+            .orElseThrow(() -> new NotFoundException("User not found"));
+
+        for (Map.Entry<String, Object> change : changes.entrySet()) {
+            String field = change.getKey();
+            Object value = change.getValue();
+            switch (field) {
+                case "username" -> {
+                    String username = PatchValues.string(value, field, true);
+                    if (!username.equals(user.getUsername()) && repo.findByUsername(username).isPresent()) {
+                        throw new IllegalArgumentException("Username already exists");
+                    }
+                    user.setUsername(username);
+                }
+                case "email" -> {
+                    String email = PatchValues.string(value, field, true);
+                    if (!email.equals(user.getEmail()) && repo.findByEmail(email).isPresent()) {
+                        throw new IllegalArgumentException("Email already in use");
+                    }
+                    user.setEmail(email);
+                }
+                case "password" -> user.setPassword(hasher.hash(PatchValues.string(value, field, true)));
+                case "role" -> user.setRole(PatchValues.string(value, field, false));
+                case "status" -> user.setStatus(PatchValues.string(value, field, false));
+                default -> throw PatchValues.unknown(field);
+            }
+        }
+        authContexts.userChanged(userId);
+        return user;
+    }
+
     @Transactional
     public void deleteUser(Long id) {
         repo.deleteById(id);
+        authContexts.userChanged(id);
     }
     
     @Transactional
@@ -73,6 +122,7 @@ public class UserService {
         if (userOpt.isPresent()) {
             UserModel user = userOpt.get();
             user.setStatus(status);
+            authContexts.userChanged(userId);
             return repo.save(user);
         }
         throw new RuntimeException("User not found");
@@ -85,6 +135,7 @@ public class UserService {
         if (userOpt.isPresent()) {
             UserModel user = userOpt.get();
             user.setRole(role);
+            authContexts.userChanged(userId);
             return repo.save(user);
         }
         throw new RuntimeException("User not found");
@@ -96,6 +147,7 @@ public class UserService {
         if (userOpt.isPresent()) {
             UserModel user = userOpt.get();
             user.setEmployee(employee);
+            authContexts.userChanged(userId);
             return repo.save(user);
         }
         throw new RuntimeException("User not found");
@@ -106,7 +158,7 @@ public class UserService {
         Optional<UserModel> userOpt = repo.findByUsername(username);
         if (userOpt.isPresent()) {
             UserModel user = userOpt.get();
-            return user.getPassword().equals(password) && "ACTIVE".equals(user.getStatus());
+            return hasher.matches(password, user.getPassword()) && "ACTIVE".equals(user.getStatus());
         }
         return false;
     }
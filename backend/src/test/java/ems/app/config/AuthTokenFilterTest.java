@@ -0,0 +1,67 @@
+package ems.app.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ems.app.service.TokenService;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+class AuthTokenFilterTest {
+
+    private static final String ORIGIN = "http://localhost:3000";
+
+    private final TokenService tokenService = new TokenService(new ObjectMapper(), Duration.ofHours(8), "", "", 100);
+
+    private static MockHttpServletRequest request(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/employees");
+        request.addHeader(HttpHeaders.ORIGIN, ORIGIN);
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        return request;
+    }
+
+    // CORS first, as the registration orders it, so the filter's own 401 goes through it
+    private MockFilterChain chain(boolean required) {
+        AuthTokenFilter auth = new AuthTokenFilter(tokenService, null, required);
+        return new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) {
+            }
+        }, new CorsConfig().corsFilter(List.of(ORIGIN)).getFilter(), auth);
+    }
+
+    @Test
+    void rejectionStillCarriesCorsHeaders() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = chain(true);
+        chain.doFilter(request("not-a-token"), response);
+
+        assertEquals(401, response.getStatus());
+        assertEquals(ORIGIN, response.getHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN));
+    }
+
+    @Test
+    void invalidTokenIsAnonymousWhenAuthIsOptional() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = chain(false);
+        MockHttpServletRequest request = request("not-a-token");
+        chain.doFilter(request, response);
+
+        assertEquals(200, response.getStatus());
+        assertNotNull(chain.getRequest());
+        assertNull(request.getAttribute(AuthTokenFilter.PRINCIPAL_ATTRIBUTE));
+    }
+}
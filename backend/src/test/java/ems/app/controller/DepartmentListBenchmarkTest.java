@@ -0,0 +1,94 @@
+package ems.app.controller;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+// Run with -Dems.stress=true against a local Postgres
+@SpringBootTest
+@AutoConfigureMockMvc
+@EnabledIfSystemProperty(named = "ems.stress", matches = "true")
+class DepartmentListBenchmarkTest {
+    private static final Logger log = LoggerFactory.getLogger(DepartmentListBenchmarkTest.class);
+
+    private static final int DEPARTMENTS = 500;
+    private static final int EMPLOYEES = 50000;
+    private static final int ROUNDS = 5;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private final String tag = "deptbench" + System.nanoTime();
+
+    @BeforeEach
+    void setUp() {
+        List<Object[]> departments = new ArrayList<>();
+        for (int d = 0; d < DEPARTMENTS; d++) {
+            departments.add(new Object[] {tag + "-" + d, "Floor " + d % 10});
+        }
+        jdbc.batchUpdate("INSERT INTO department (department_name, location, created_at, updated_at) " +
+            "VALUES (?, ?, now(), now())", departments);
+        List<Long> departmentIds = jdbc.queryForList(
+            "SELECT department_id FROM department WHERE department_name LIKE ? ORDER BY department_id", Long.class, tag + "-%");
+
+        List<Object[]> employees = new ArrayList<>();
+        Date hired = Date.valueOf(LocalDate.of(2020, 1, 1));
+        for (int i = 0; i < EMPLOYEES; i++) {
+            employees.add(new Object[] {"Bench", "E" + i, tag + "-" + i + "@ems.test", hired, "Tester",
+                departmentIds.get(i % departmentIds.size())});
+        }
+        jdbc.batchUpdate("INSERT INTO employee (first_name, last_name, email, hire_date, job_title, status, " +
+            "department_id, created_at, updated_at) VALUES (?, ?, ?, ?, ?, 'ACTIVE', ?, now(), now())", employees);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbc.update("DELETE FROM employee WHERE email LIKE ?", tag + "-%");
+        jdbc.update("DELETE FROM department WHERE department_name LIKE ?", tag + "-%");
+    }
+
+    @Test
+    void summariesAreSmallerAndFasterThanFullEntities() throws Exception {
+        long[] full = measure("/departments?full=true");
+        long[] summary = measure("/departments");
+
+        log.info("full: {} bytes, {} ms; summary: {} bytes, {} ms", full[0], String.format("%.1f", full[1] / 1_000_000.0),
+            summary[0], String.format("%.1f", summary[1] / 1_000_000.0));
+        assertTrue(summary[0] * 10 < full[0]);
+        assertTrue(summary[1] < full[1]);
+    }
+
+    // Returns {response bytes, best-of-ROUNDS latency in nanos} after one warm-up request
+    private long[] measure(String url) throws Exception {
+        mvc.perform(get(url)).andExpect(status().isOk());
+        long bytes = 0;
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < ROUNDS; i++) {
+            long start = System.nanoTime();
+            bytes = mvc.perform(get(url)).andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray().length;
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return new long[] {bytes, best};
+    }
+}
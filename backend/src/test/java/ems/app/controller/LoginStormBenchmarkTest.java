@@ -0,0 +1,158 @@
+package ems.app.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import ems.app.service.PasswordHasher;
+
+// Run with -Dems.stress=true against a local Postgres
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@EnabledIfSystemProperty(named = "ems.stress", matches = "true")
+class LoginStormBenchmarkTest {
+    private static final Logger log = LoggerFactory.getLogger(LoginStormBenchmarkTest.class);
+
+    private static final int USERS = 200;
+    private static final int LOGINS = 2000;
+    private static final int CLIENTS = 400;
+    private static final String PASSWORD = "storm-Pa55";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private PasswordHasher hasher;
+
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final String tag = "loginstorm" + System.nanoTime();
+
+    @BeforeEach
+    void setUp() {
+        String hash = hasher.hash(PASSWORD);
+        List<Object[]> users = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            users.add(new Object[] {tag + "-" + i, i % 2 == 0 ? hash : PASSWORD, tag + "-" + i + "@ems.test"});
+        }
+        // Half the rows keep a legacy plaintext password so the storm also exercises rehash-on-login
+        jdbc.batchUpdate("INSERT INTO users (username, password, email, role, status, created_at, updated_at) " +
+            "VALUES (?, ?, ?, 'USER', 'ACTIVE', now(), now())", users);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbc.update("DELETE FROM users WHERE username LIKE ?", tag + "-%");
+    }
+
+    @Test
+    void otherEndpointsStayResponsiveDuringLoginStorm() throws Exception {
+        List<Long> baseline = probe(200);
+
+        AtomicBoolean storming = new AtomicBoolean(true);
+        List<Long> during = Collections.synchronizedList(new ArrayList<>());
+        Thread prober = new Thread(() -> {
+            while (storming.get()) {
+                during.addAll(probe(1));
+            }
+        }, "storm-prober");
+        prober.start();
+
+        AtomicInteger ok = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        long start = System.nanoTime();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < LOGINS; i++) {
+            String username = tag + "-" + (i % USERS);
+            futures.add(clients.submit(() -> {
+                int status = login(username);
+                if (status == 200) {
+                    ok.incrementAndGet();
+                } else if (status == 503) {
+                    rejected.incrementAndGet();
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        storming.set(false);
+        prober.join();
+        clients.shutdown();
+
+        log.info("logins: {} ok, {} shed with 503 in {} s ({} logins/s)", ok.get(), rejected.get(),
+            String.format("%.1f", seconds), Math.round(ok.get() / seconds));
+        log.info("GET /departments p99: {} ms idle, {} ms during storm ({} samples)",
+            String.format("%.1f", p99(baseline) / 1_000_000.0), String.format("%.1f", p99(during) / 1_000_000.0),
+            during.size());
+        assertEquals(LOGINS, ok.get() + rejected.get());
+        assertTrue(ok.get() > 0);
+        if (rejected.get() == 0) {
+            assertEquals(0, jdbc.queryForObject("SELECT COUNT(*) FROM users WHERE username LIKE ? AND password = ?",
+                Integer.class, tag + "-%", PASSWORD));
+        }
+        assertTrue(p99(during) < Math.max(10 * p99(baseline), 250_000_000L));
+    }
+
+    private int login(String username) {
+        String body = "{\"username\":\"" + username + "\",\"password\":\"" + PASSWORD + "\"}";
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/users/login"))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .build();
+        try {
+            return http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+
+    // Latencies in nanos of sequential GET /departments calls
+    private List<Long> probe(int count) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/departments")).build();
+        List<Long> latencies = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            long start = System.nanoTime();
+            try {
+                http.send(request, HttpResponse.BodyHandlers.discarding());
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            latencies.add(System.nanoTime() - start);
+        }
+        return latencies;
+    }
+
+    private static long p99(List<Long> latencies) {
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        return sorted.get(Math.min(sorted.size() - 1, (int) Math.ceil(sorted.size() * 0.99) - 1));
+    }
+}
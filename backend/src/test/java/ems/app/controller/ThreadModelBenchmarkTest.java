@@ -0,0 +1,125 @@
+package ems.app.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import ems.app.AppApplication;
+
+// Run with -Dems.stress=true against a local Postgres; add -Djdk.tracePinnedThreads=short to log any carrier pinning
+@EnabledIfSystemProperty(named = "ems.stress", matches = "true")
+class ThreadModelBenchmarkTest {
+    private static final Logger log = LoggerFactory.getLogger(ThreadModelBenchmarkTest.class);
+
+    private static final int CLIENTS = 1000;
+    private static final int REQUESTS = 20000;
+    private static final List<String> PATHS = List.of("/departments", "/attendance/page?size=50", "/employee/span-of-control");
+
+    private record Result(String mode, int ok, int shed, int failed, double seconds, long p50, long p99, int peakThreads) {
+    }
+
+    @Test
+    void virtualThreadsServeTheSameLoadWithFewerPlatformThreads() throws Exception {
+        Result platform = run(false);
+        Result virtual = run(true);
+
+        for (Result result : List.of(platform, virtual)) {
+            log.info("{}: {} ok, {} shed, {} failed in {} s ({} req/s), p50 {} ms, p99 {} ms, peak platform threads {}",
+                result.mode(), result.ok(), result.shed(), result.failed(), String.format("%.1f", result.seconds()),
+                Math.round(result.ok() / result.seconds()), String.format("%.1f", result.p50() / 1_000_000.0),
+                String.format("%.1f", result.p99() / 1_000_000.0), result.peakThreads());
+            assertEquals(0, result.failed());
+            assertTrue(result.ok() > 0);
+        }
+        // "The same load": admission control may shed a little, but throughput must stay within 20% of platform mode
+        assertTrue(virtual.ok() / virtual.seconds() >= 0.8 * platform.ok() / platform.seconds());
+        assertTrue(virtual.peakThreads() < platform.peakThreads());
+    }
+
+    // Boots the app in the given mode, warms it up, then drives REQUESTS over CLIENTS concurrent connections
+    private Result run(boolean virtualThreads) throws Exception {
+        ConfigurableApplicationContext app = new SpringApplicationBuilder(AppApplication.class)
+            .properties("server.port=0", "spring.threads.virtual.enabled=" + virtualThreads,
+                "spring.jpa.show-sql=false")
+            .run();
+        ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            String base = "http://localhost:" + app.getEnvironment().getProperty("local.server.port");
+            HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+            for (String path : PATHS) {
+                send(http, base + path);
+            }
+
+            ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            threads.resetPeakThreadCount();
+            AtomicInteger ok = new AtomicInteger();
+            AtomicInteger shed = new AtomicInteger();
+            AtomicInteger failed = new AtomicInteger();
+            List<Long> latencies = Collections.synchronizedList(new ArrayList<>(REQUESTS));
+            AtomicInteger next = new AtomicInteger();
+
+            long start = System.nanoTime();
+            List<Future<?>> workers = new ArrayList<>();
+            for (int c = 0; c < CLIENTS; c++) {
+                workers.add(clients.submit(() -> {
+                    int i;
+                    while ((i = next.getAndIncrement()) < REQUESTS) {
+                        long sent = System.nanoTime();
+                        int status = send(http, base + PATHS.get(i % PATHS.size()));
+                        latencies.add(System.nanoTime() - sent);
+                        if (status == 200) {
+                            ok.incrementAndGet();
+                        } else if (status == 503) {
+                            shed.incrementAndGet();
+                        } else {
+                            failed.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+            double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+            List<Long> sorted = new ArrayList<>(latencies);
+            Collections.sort(sorted);
+            return new Result(virtualThreads ? "virtual" : "platform", ok.get(), shed.get(), failed.get(), seconds,
+                sorted.get(sorted.size() / 2), sorted.get((int) Math.ceil(sorted.size() * 0.99) - 1),
+                threads.getPeakThreadCount());
+        } finally {
+            clients.shutdown();
+            app.close();
+        }
+    }
+
+    private static int send(HttpClient http, String url) {
+        try {
+            return http.send(HttpRequest.newBuilder(URI.create(url)).build(), HttpResponse.BodyHandlers.discarding())
+                .statusCode();
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package ems.app.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import ems.app.model.EmployeeModel;
+import ems.app.repo.AttendanceRepo;
+import ems.app.repo.EmployeeRepo;
+
+// Run with -Dems.stress=true against a local Postgres
+@SpringBootTest
+@EnabledIfSystemProperty(named = "ems.stress", matches = "true")
+class AttendanceClockInStressTest {
+    private static final Logger log = LoggerFactory.getLogger(AttendanceClockInStressTest.class);
+
+    private static final int EMPLOYEES = 2000;
+    // Clock-ins for different employees share no lock, so eight threads must at least double single-thread throughput
+    private static final double MIN_SPEEDUP_AT_8_THREADS = 2.0;
+    private static final LocalDate BASE_DATE = LocalDate.of(2001, 1, 1);
+
+    @Autowired
+    private AttendanceService attService;
+
+    @Autowired
+    private AttendanceRepo attRepo;
+
+    @Autowired
+    private EmployeeRepo empRepo;
+
+    private final List<EmployeeModel> employees = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < EMPLOYEES; i++) {
+            employees.add(TestEmployees.build("Stress", null));
+        }
+        empRepo.saveAll(employees);
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (EmployeeModel employee : employees) {
+            attRepo.deleteAll(attRepo.findByEmployee(employee));
+        }
+        empRepo.deleteAll(employees);
+    }
+
+    @Test
+    void clockInScalesWithThreads() throws Exception {
+        int[] threadCounts = {1, 2, 4, 8, 16};
+        double baseline = 0;
+        double speedupAt8 = 0;
+
+        // Warm-up on its own date, so the single-thread baseline is not paying for JIT and pool start-up
+        runClockIns(threadCounts[threadCounts.length - 1], BASE_DATE.minusDays(1));
+
+        for (int round = 0; round < threadCounts.length; round++) {
+            int threads = threadCounts[round];
+            LocalDate date = BASE_DATE.plusDays(round);
+            long elapsed = runClockIns(threads, date);
+            double perSecond = EMPLOYEES * 1_000_000_000.0 / elapsed;
+            if (round == 0) {
+                baseline = perSecond;
+            }
+            if (threads == 8) {
+                speedupAt8 = perSecond / baseline;
+            }
+            log.info("threads={} clock-ins/s={} speedup={}", threads, Math.round(perSecond),
+                String.format("%.2f", perSecond / baseline));
+            assertEquals(EMPLOYEES, attRepo.findByDate(date).size());
+        }
+        assertTrue(speedupAt8 >= MIN_SPEEDUP_AT_8_THREADS,
+            "8 threads gave " + String.format("%.2f", speedupAt8) + "x single-thread clock-in throughput");
+    }
+
+    @Test
+    void concurrentClockInsForSameEmployeeLeaveOneRow() throws Exception {
+        EmployeeModel employee = employees.get(0);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                LocalTime time = LocalTime.of(9, 0).plusSeconds(i);
+                futures.add(pool.submit(() -> attService.clockIn(employee, BASE_DATE, time)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(1, attRepo.findByEmployeeAndDate(employee, BASE_DATE).size());
+    }
+
+    private long runClockIns(int threads, LocalDate date) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            long start = System.nanoTime();
+            List<Future<?>> futures = new ArrayList<>();
+            for (EmployeeModel employee : employees) {
+                futures.add(pool.submit(() -> attService.clockIn(employee, date, LocalTime.of(9, 0))));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            return System.nanoTime() - start;
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package ems.app.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class AttendanceCubeTest {
+
+    private static final LocalDate ORIGIN = LocalDate.of(2025, 1, 1);
+
+    @Test
+    void countsAndRatesPerDepartment() {
+        AttendanceCube cube = new AttendanceCube(ORIGIN, 31, 2);
+        cube.setDepartment(1L, 10L);
+        cube.setDepartment(2L, 10L);
+        cube.setDepartment(3L, 20L);
+
+        cube.record(1L, ORIGIN, "PRESENT", new BigDecimal("8"));
+        cube.record(2L, ORIGIN, "ABSENT", null);
+        cube.record(3L, ORIGIN, "LATE", new BigDecimal("7.5"));
+        cube.record(1L, ORIGIN.plusDays(1), "LATE", new BigDecimal("6"));
+
+        int[][] counts = cube.countByStatus(10L, ORIGIN, ORIGIN.plusDays(1));
+        assertArrayEquals(new int[] {1, 0}, counts[AttendanceCube.PRESENT]);
+        assertArrayEquals(new int[] {1, 0}, counts[AttendanceCube.ABSENT]);
+        assertArrayEquals(new int[] {0, 1}, counts[AttendanceCube.LATE]);
+
+        assertArrayEquals(new double[] {0.5, 1.0}, cube.presenceRate(10L, ORIGIN, ORIGIN.plusDays(1)));
+        assertEquals(8 * 60 + 6 * 60, cube.workedMinutes(10L, ORIGIN, ORIGIN.plusDays(1), null));
+        assertEquals(6 * 60 + 450, cube.workedMinutes(null, ORIGIN, ORIGIN.plusDays(1), "LATE"));
+    }
+
+    @Test
+    void heatmapBucketsEveryDepartmentInOnePass() {
+        AttendanceCube cube = new AttendanceCube(ORIGIN, 10, 4);
+        cube.setDepartment(1L, 10L);
+        cube.setDepartment(2L, 20L);
+        cube.setDepartment(3L, null);
+        cube.record(1L, ORIGIN, "PRESENT", null);
+        cube.record(2L, ORIGIN, "ABSENT", null);
+        cube.record(3L, ORIGIN, "PRESENT", null);
+
+        Map<Long, double[]> heatmap = cube.presenceHeatmap(ORIGIN, ORIGIN);
+        assertArrayEquals(new double[] {1.0}, heatmap.get(10L));
+        assertArrayEquals(new double[] {0.0}, heatmap.get(20L));
+        assertArrayEquals(new double[] {1.0}, heatmap.get(null));
+    }
+
+    @Test
+    void rangesOutsideTheWindowAreEmptyAndWritesAreIgnored() {
+        AttendanceCube cube = new AttendanceCube(ORIGIN, 5, 1);
+        assertFalse(cube.record(1L, ORIGIN.minusDays(1), "PRESENT", null));
+        cube.record(1L, ORIGIN.plusDays(4), "PRESENT", null);
+
+        int[][] counts = cube.countByStatus(null, ORIGIN.plusDays(3), ORIGIN.plusDays(6));
+        assertArrayEquals(new int[] {0, 1, 0, 0}, counts[AttendanceCube.PRESENT]);
+    }
+
+    @Test
+    void rangesLongerThanTheWindowAreRejected() {
+        AttendanceCube cube = new AttendanceCube(ORIGIN, 5, 1);
+        assertEquals(5, cube.presenceHeatmap(ORIGIN.minusDays(2), ORIGIN.plusDays(2)).get(null).length);
+
+        LocalDate min = LocalDate.of(1, 1, 1);
+        LocalDate max = LocalDate.of(9999, 12, 31);
+        assertThrows(IllegalArgumentException.class, () -> cube.countByStatus(null, min, max));
+        assertThrows(IllegalArgumentException.class, () -> cube.presenceHeatmap(min, max));
+        assertThrows(IllegalArgumentException.class, () -> cube.workedMinutes(null, ORIGIN, ORIGIN.plusDays(5), null));
+    }
+
+    @Test
+    void growsPastInitialCapacityAndClearsCells() {
+        AttendanceCube cube = new AttendanceCube(ORIGIN, 3, 1);
+        for (long id = 1; id <= 100; id++) {
+            cube.record(id, ORIGIN, "PRESENT", BigDecimal.ONE);
+        }
+        cube.clear(50L, ORIGIN);
+
+        assertEquals(100, cube.employeeCount());
+        assertEquals(99, cube.countByStatus(null, ORIGIN, ORIGIN)[AttendanceCube.PRESENT][0]);
+        assertEquals(99 * 60, cube.workedMinutes(null, ORIGIN, ORIGIN, null));
+    }
+}
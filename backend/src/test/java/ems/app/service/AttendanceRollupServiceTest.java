@@ -0,0 +1,76 @@
+package ems.app.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import ems.app.model.AttendanceModel;
+import ems.app.model.EmployeeModel;
+import ems.app.repo.AttendanceRollupRepo;
+import ems.app.repo.EmployeeRepo;
+
+@SpringBootTest
+@Transactional
+class AttendanceRollupServiceTest {
+
+    private static final LocalDate MARCH = LocalDate.of(2003, 3, 1);
+    private static final LocalDate APRIL = LocalDate.of(2003, 4, 1);
+
+    @Autowired
+    private AttendanceRollupService rollupService;
+
+    @Autowired
+    private AttendanceService attService;
+
+    @Autowired
+    private AttendanceRollupRepo rollupRepo;
+
+    @Autowired
+    private EmployeeRepo empRepo;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void rebuildCorrectsRowsInPlaceAndDropsMonthsWithoutAttendance() {
+        EmployeeModel employee = TestEmployees.create(empRepo, "Rollup", null);
+        for (int day = 3; day <= 4; day++) {
+            AttendanceModel attendance = new AttendanceModel();
+            attendance.setEmployee(employee);
+            attendance.setDate(MARCH.withDayOfMonth(day));
+            attendance.setStatus("PRESENT");
+            attendance.setClockIn(LocalTime.of(9, 0));
+            attendance.setClockOut(LocalTime.of(17, 0));
+            attService.saveAttedance(attendance);
+        }
+        // A drifted row, and one a refresh left behind for a month that has no attendance
+        jdbc.update("UPDATE attendance_monthly_rollup SET present_count = 99 WHERE employee_id = ? AND month_start = ?",
+            employee.getEmployeeId(), MARCH);
+        rollupRepo.lockRollup(employee.getEmployeeId(), APRIL);
+        Long marchRow = rollupId(employee, MARCH);
+
+        rollupService.rebuild();
+
+        Map<String, Object> march = jdbc.queryForMap("SELECT rollup_id, present_count, total_working_hours " +
+            "FROM attendance_monthly_rollup WHERE employee_id = ? AND month_start = ?", employee.getEmployeeId(), MARCH);
+        assertEquals(marchRow, ((Number) march.get("rollup_id")).longValue());
+        assertEquals(2, ((Number) march.get("present_count")).intValue());
+        assertEquals(0, new BigDecimal("16").compareTo((BigDecimal) march.get("total_working_hours")));
+        assertEquals(0, jdbc.queryForObject("SELECT count(*) FROM attendance_monthly_rollup " +
+            "WHERE employee_id = ? AND month_start = ?", Integer.class, employee.getEmployeeId(), APRIL));
+    }
+
+    private Long rollupId(EmployeeModel employee, LocalDate month) {
+        return jdbc.queryForObject("SELECT rollup_id FROM attendance_monthly_rollup WHERE employee_id = ? AND month_start = ?",
+            Long.class, employee.getEmployeeId(), month);
+    }
+}
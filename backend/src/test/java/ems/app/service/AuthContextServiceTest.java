@@ -0,0 +1,127 @@
+package ems.app.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import ems.app.dto.AuthContext;
+import ems.app.model.EmployeeModel;
+import ems.app.model.UserModel;
+import ems.app.repo.EmployeeRepo;
+import ems.app.repo.UserRepo;
+import jakarta.persistence.EntityManagerFactory;
+
+// Not @Transactional: invalidation happens after commit, so every service call here has to really commit
+@SpringBootTest
+class AuthContextServiceTest {
+
+    @Autowired
+    private AuthContextService authContexts;
+
+    @Autowired
+    private UserService usrService;
+
+    @Autowired
+    private EmployeeService empService;
+
+    @Autowired
+    private EmployeeRepo empRepo;
+
+    @Autowired
+    private UserRepo userRepo;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    private final List<EmployeeModel> created = new ArrayList<>();
+    private EmployeeModel manager;
+    private EmployeeModel lead;
+    private EmployeeModel engineer;
+    private EmployeeModel outsider;
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        manager = employee("Manager", null);
+        lead = employee("Lead", manager);
+        engineer = employee("Engineer", lead);
+        outsider = employee("Outsider", null);
+
+        UserModel user = new UserModel();
+        user.setUsername("authctx-" + System.nanoTime());
+        user.setEmail(user.getUsername() + "@ems.test");
+        user.setPassword("s3cret");
+        user.setRole("MANAGER");
+        user.setEmployee(manager);
+        userId = usrService.registerUser(user).getUserId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepo.deleteById(userId);
+        for (int i = created.size() - 1; i >= 0; i--) {
+            empRepo.deleteById(created.get(i).getEmployeeId());
+        }
+    }
+
+    @Test
+    void contextIsLoadedOnceAndCheckedWithoutQueries() {
+        AuthContext context = authContexts.resolve(userId);
+        assertEquals(manager.getEmployeeId(), context.employeeId());
+        assertEquals(Set.of(lead.getEmployeeId(), engineer.getEmployeeId()), context.reports());
+
+        Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.setStatisticsEnabled(true);
+        stats.clear();
+
+        AuthContext cached = authContexts.resolve(userId);
+        assertSame(context, cached);
+        assertTrue(cached.canReview(engineer.getEmployeeId()));
+        assertFalse(cached.canReview(outsider.getEmployeeId()));
+        assertFalse(cached.canReview(manager.getEmployeeId()));
+        assertTrue(cached.canCancel(manager.getEmployeeId()));
+        assertEquals(0, stats.getPrepareStatementCount());
+    }
+
+    @Test
+    void managerChangesRefreshEveryAffectedChain() {
+        assertFalse(authContexts.resolve(userId).manages(outsider.getEmployeeId()));
+
+        empService.assignManager(outsider.getEmployeeId(), engineer);
+        assertTrue(authContexts.resolve(userId).manages(outsider.getEmployeeId()));
+
+        empService.assignManager(lead.getEmployeeId(), null);
+        assertEquals(Set.of(), authContexts.resolve(userId).reports());
+    }
+
+    @Test
+    void roleAndStatusChangesApplyOnTheNextRequest() {
+        assertFalse(authContexts.resolve(userId).canReview(outsider.getEmployeeId()));
+
+        usrService.assignRole(userId, "HR");
+        assertTrue(authContexts.resolve(userId).canReview(outsider.getEmployeeId()));
+
+        usrService.updateStatus(userId, "INACTIVE");
+        assertFalse(authContexts.resolve(userId).active());
+    }
+
+    // Not rolled back, so each fixture is recorded for tearDown
+    private EmployeeModel employee(String firstName, EmployeeModel manager) {
+        EmployeeModel saved = TestEmployees.create(empRepo, firstName, manager);
+        created.add(saved);
+        return saved;
+    }
+}
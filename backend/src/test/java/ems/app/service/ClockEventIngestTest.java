@@ -0,0 +1,77 @@
+package ems.app.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import ems.app.dto.ClockEvent;
+import ems.app.dto.ClockEventResult;
+import ems.app.model.AttendanceModel;
+import ems.app.model.EmployeeModel;
+import ems.app.repo.AttendanceRepo;
+import ems.app.repo.EmployeeRepo;
+
+@SpringBootTest
+@Transactional
+class ClockEventIngestTest {
+
+    private static final LocalDate DAY = LocalDate.of(2002, 3, 4);
+
+    @Autowired
+    private AttendanceService attService;
+
+    @Autowired
+    private AttendanceRepo attRepo;
+
+    @Autowired
+    private EmployeeRepo empRepo;
+
+    private EmployeeModel employee;
+
+    @BeforeEach
+    void setUp() {
+        employee = TestEmployees.create(empRepo, "Ingest", null);
+    }
+
+    @Test
+    void batchUpdatesRowsCreatedBySingleClockIns() {
+        AttendanceModel single = attService.clockIn(employee, DAY, LocalTime.of(8, 0));
+
+        List<ClockEventResult> results = attService.ingestClockEvents(
+            List.of(new ClockEvent(employee.getEmployeeId(), ClockEvent.CLOCK_OUT, DAY, LocalTime.of(16, 30))),
+            Map.of(employee.getEmployeeId(), employee));
+
+        assertEquals("OK", results.get(0).outcome());
+        assertEquals(single.getAttendance_id(), results.get(0).attendanceId());
+        AttendanceModel row = attRepo.findById(single.getAttendance_id()).orElseThrow();
+        assertEquals(LocalTime.of(16, 30), row.getClockOut());
+        assertEquals(0, new BigDecimal("8.5").compareTo(row.getWorkingHrs()));
+    }
+
+    @Test
+    void newRowMergesWithOneCommittedSinceTheLock() {
+        AttendanceModel existing = attService.clockIn(employee, DAY, LocalTime.of(8, 0));
+        attService.clockOut(employee, DAY, LocalTime.of(17, 0));
+
+        // What a batch holds when a single clock-in inserted the same (employee, date) after the batch took its locks
+        AttendanceModel late = new AttendanceModel();
+        late.setEmployee(employee);
+        late.setDate(DAY);
+        late.setClockIn(LocalTime.of(9, 0));
+
+        assertEquals(1, attRepo.insertOrMerge(List.of(late)));
+        assertEquals(existing.getAttendance_id(), late.getAttendance_id());
+        assertEquals(LocalTime.of(17, 0), late.getClockOut());
+        assertEquals(0, new BigDecimal("8").compareTo(late.getWorkingHrs()));
+    }
+}
@@ -0,0 +1,190 @@
+package ems.app.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import ems.app.dto.ClockEvent;
+
+class ClockEventLogTest {
+
+    private static final int CAPACITY = ClockEventLog.HEADER_SIZE + 10 * ClockEventLog.RECORD_SIZE;
+    private static final LocalDate DATE = LocalDate.of(2025, 3, 3);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void unflushedTailIsReplayedInOrderAfterRestart() throws IOException {
+        Path file = dir.resolve("events.log");
+        ClockEventLog log = new ClockEventLog(file, CAPACITY, true);
+        for (long id = 1; id <= 3; id++) {
+            log.append(event(id, ClockEvent.CLOCK_IN), 1000L);
+        }
+        log.append(event(1, ClockEvent.CLOCK_OUT), 2000L);
+        log.close();
+
+        ClockEventLog reopened = new ClockEventLog(file, CAPACITY, true);
+        List<ClockEventLog.Entry> pending = reopened.readPending(100);
+        assertEquals(4, pending.size());
+        assertEquals(List.of(1L, 2L, 3L, 4L), seqs(pending));
+        assertEquals(ClockEvent.CLOCK_OUT, pending.get(3).event().type());
+        assertEquals(LocalTime.of(9, 1), pending.get(0).event().time());
+        assertEquals(1000L, reopened.oldestPendingMillis());
+        reopened.close();
+    }
+
+    @Test
+    void killedMidFlushReplaysTheUncommittedBatch() throws IOException {
+        Path file = dir.resolve("events.log");
+        ClockEventLog log = new ClockEventLog(file, CAPACITY, true);
+        for (long id = 1; id <= 5; id++) {
+            log.append(event(id, ClockEvent.CLOCK_IN), 1000L);
+        }
+
+        // First batch commits, second batch is written to the database but the process dies before commit
+        List<ClockEventLog.Entry> first = log.readPending(2);
+        log.commit(first.get(1));
+        List<ClockEventLog.Entry> second = log.readPending(2);
+        assertEquals(List.of(3L, 4L), seqs(second));
+        // no commit, no close: simulate kill -9
+
+        ClockEventLog restarted = new ClockEventLog(file, CAPACITY, true);
+        assertEquals(3, restarted.pendingCount());
+        assertEquals(List.of(3L, 4L, 5L), seqs(restarted.readPending(100)));
+
+        restarted.commit(restarted.readPending(100).get(2));
+        assertEquals(0, restarted.pendingCount());
+        restarted.close();
+
+        ClockEventLog again = new ClockEventLog(file, CAPACITY, true);
+        assertEquals(0, again.pendingCount());
+        assertEquals(6L, again.append(event(9, ClockEvent.CLOCK_IN), 3000L));
+        again.close();
+    }
+
+    @Test
+    void tornRecordEndsRecovery() throws IOException {
+        Path file = dir.resolve("events.log");
+        ClockEventLog log = new ClockEventLog(file, CAPACITY, true);
+        log.append(event(1, ClockEvent.CLOCK_IN), 1000L);
+        log.append(event(2, ClockEvent.CLOCK_IN), 1000L);
+        log.close();
+
+        try (RandomAccessFile raw = new RandomAccessFile(file.toFile(), "rw")) {
+            raw.seek(ClockEventLog.HEADER_SIZE + ClockEventLog.RECORD_SIZE + 10);
+            raw.write(0x7f);
+        }
+
+        ClockEventLog reopened = new ClockEventLog(file, CAPACITY, true);
+        assertEquals(List.of(1L), seqs(reopened.readPending(100)));
+        reopened.close();
+    }
+
+    @Test
+    void fullLogRejectsAppendsUntilTheFlusherCommits() throws IOException {
+        ClockEventLog log = new ClockEventLog(dir.resolve("events.log"), CAPACITY, false);
+        for (long id = 1; id <= 10; id++) {
+            assertTrue(log.append(event(id, ClockEvent.CLOCK_IN), 1000L) > 0);
+        }
+        assertEquals(-1L, log.append(event(11, ClockEvent.CLOCK_IN), 1000L));
+
+        List<ClockEventLog.Entry> all = log.readPending(100);
+        log.commit(all.get(all.size() - 1));
+        assertEquals(11L, log.append(event(11, ClockEvent.CLOCK_IN), 1000L));
+        assertEquals(List.of(11L), seqs(log.readPending(100)));
+        log.close();
+    }
+
+    @Test
+    void batchThatDoesNotFitIsRejectedWhole() throws IOException {
+        ClockEventLog log = new ClockEventLog(dir.resolve("events.log"), CAPACITY, false);
+        for (long id = 1; id <= 7; id++) {
+            log.append(event(id, ClockEvent.CLOCK_IN), 1000L);
+        }
+        List<ClockEvent> batch = List.of(
+            event(8, ClockEvent.CLOCK_IN), event(9, ClockEvent.CLOCK_IN), event(10, ClockEvent.CLOCK_IN),
+            event(11, ClockEvent.CLOCK_IN));
+        assertEquals(-1L, log.appendAll(batch, 2000L));
+        assertEquals(7, log.pendingCount());
+
+        log.commit(log.readPending(1).get(0));
+        assertEquals(8L, log.appendAll(batch, 2000L));
+        assertEquals(List.of(2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L, 11L), seqs(log.readPending(100)));
+        log.close();
+    }
+
+    @Test
+    void tailThatWrapsAroundIsReplayedAfterRestart() throws IOException {
+        Path file = dir.resolve("events.log");
+        ClockEventLog log = new ClockEventLog(file, CAPACITY, true);
+        for (long id = 1; id <= 8; id++) {
+            log.append(event(id, ClockEvent.CLOCK_IN), 1000L);
+        }
+        log.commit(log.readPending(6).get(5));
+        for (long id = 9; id <= 14; id++) {
+            assertTrue(log.append(event(id, ClockEvent.CLOCK_IN), 1000L) > 0);
+        }
+        log.close();
+
+        ClockEventLog reopened = new ClockEventLog(file, CAPACITY, true);
+        assertEquals(List.of(7L, 8L, 9L, 10L, 11L, 12L, 13L, 14L), seqs(reopened.readPending(100)));
+        assertEquals(15L, reopened.append(event(15, ClockEvent.CLOCK_IN), 2000L));
+        reopened.close();
+    }
+
+    @Test
+    void flusherThatKeepsUpNeverLetsTheLogFill() throws Exception {
+        ClockEventLog log = new ClockEventLog(dir.resolve("events.log"), CAPACITY, false);
+        AtomicBoolean done = new AtomicBoolean();
+        Thread flusher = new Thread(() -> {
+            while (!done.get() || log.pendingCount() > 0) {
+                // Trails the writer by a record or two, so the log is never drained while appends continue
+                List<ClockEventLog.Entry> batch = done.get() || log.pendingCount() >= 3 ? log.readPending(2) : List.of();
+                if (batch.isEmpty()) {
+                    Thread.onSpinWait();
+                } else {
+                    log.commit(batch.get(batch.size() - 1));
+                }
+            }
+        });
+        flusher.setDaemon(true);
+        flusher.start();
+
+        // Fifty laps of the ring, never more than half of it pending
+        for (long i = 1; i <= 500; i++) {
+            while (log.pendingCount() >= 5) {
+                Thread.onSpinWait();
+            }
+            assertNotEquals(-1L, log.append(event(i % 50 + 1, ClockEvent.CLOCK_IN), i));
+        }
+        done.set(true);
+        flusher.join(10_000);
+
+        assertEquals(0, log.pendingCount());
+        assertEquals(501L, log.append(event(1, ClockEvent.CLOCK_OUT), 1000L));
+        log.close();
+    }
+
+    private static ClockEvent event(long employeeId, String type) {
+        return new ClockEvent(employeeId, type, DATE, LocalTime.of(9, (int) employeeId));
+    }
+
+    private static List<Long> seqs(List<ClockEventLog.Entry> entries) {
+        List<Long> seqs = new ArrayList<>();
+        entries.forEach(entry -> seqs.add(entry.seq()));
+        return seqs;
+    }
+}
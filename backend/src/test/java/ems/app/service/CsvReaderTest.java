@@ -0,0 +1,57 @@
+package ems.app.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class CsvReaderTest {
+
+    @Test
+    void readsPlainAndQuotedFields() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader(
+            "a,b,c\r\n" +
+            "\"x, y\",\"say \"\"hi\"\"\",\n" +
+            "\"multi\nline\",2,3\n"));
+
+        assertEquals(List.of("a", "b", "c"), csv.next());
+        assertEquals(1, csv.recordLine());
+        assertEquals(List.of("x, y", "say \"hi\"", ""), csv.next());
+        assertEquals(2, csv.recordLine());
+        assertEquals(List.of("multi\nline", "2", "3"), csv.next());
+        assertEquals(3, csv.recordLine());
+        assertNull(csv.next());
+    }
+
+    @Test
+    void exportedFieldsReadBackUnchanged() throws IOException {
+        List<String> fields = List.of("plain", "late, then absent", "said \"ok\"", "two\r\nlines", "");
+        String record = String.join(",", fields.stream().map(AttendanceService::csv).toList()) + "\r\n";
+
+        assertEquals("plain,\"late, then absent\",\"said \"\"ok\"\"\",\"two\r\nlines\",\r\n", record);
+        assertEquals(fields, new CsvReader(new StringReader(record)).next());
+    }
+
+    @Test
+    void lastRecordWithoutNewlineIsReturned() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader("a,b\n1,2"));
+
+        assertEquals(List.of("a", "b"), csv.next());
+        assertEquals(List.of("1", "2"), csv.next());
+        assertEquals(2, csv.recordLine());
+        assertNull(csv.next());
+    }
+
+    @Test
+    void unterminatedQuoteFails() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader("\"open,1\n"));
+
+        MalformedCsvException e = assertThrows(MalformedCsvException.class, csv::next);
+        assertEquals(1, e.getLine());
+    }
+}
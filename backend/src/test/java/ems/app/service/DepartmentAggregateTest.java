@@ -0,0 +1,121 @@
+package ems.app.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.annotation.Transactional;
+
+import ems.app.dto.DepartmentAggregate;
+import ems.app.dto.DepartmentHires;
+import ems.app.model.DepartmentModel;
+import ems.app.model.EmployeeModel;
+import ems.app.repo.DepartmentRepo;
+import ems.app.repo.EmployeeRepo;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest
+@Transactional
+class DepartmentAggregateTest {
+
+    @Autowired
+    private DepartmentAggregateService aggregateService;
+
+    @Autowired
+    private DepartmentRepo deptRepo;
+
+    @Autowired
+    private EmployeeRepo empRepo;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    private DepartmentModel staffed;
+    private DepartmentModel empty;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(DepartmentAggregateService.CACHE).clear();
+
+        staffed = department("Staffed");
+        empty = department("Empty");
+        employee(staffed, "ACTIVE", "1000", LocalDate.of(2024, 1, 10));
+        employee(staffed, "ACTIVE", "3000", LocalDate.of(2024, 1, 20));
+        employee(staffed, "INACTIVE", null, LocalDate.of(2024, 3, 5));
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void aggregatesEveryDepartmentInTwoQueries() {
+        Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.setStatisticsEnabled(true);
+        stats.clear();
+
+        List<DepartmentAggregate> aggregates = aggregateService.getAggregates();
+
+        assertEquals(2, stats.getPrepareStatementCount());
+        DepartmentAggregate staffedRow = find(aggregates, staffed);
+        assertEquals(3, staffedRow.headcount());
+        assertEquals(2, staffedRow.active());
+        assertEquals(1, staffedRow.inactive());
+        assertEquals(Map.of("ACTIVE", 2L, "INACTIVE", 1L), staffedRow.statusCounts());
+        assertEquals(0, new BigDecimal("4000").compareTo(staffedRow.salarySum()));
+        assertEquals(0, new BigDecimal("2000").compareTo(staffedRow.salaryAvg()));
+        assertEquals(0, new BigDecimal("1000").compareTo(staffedRow.salaryMin()));
+        assertEquals(0, new BigDecimal("3000").compareTo(staffedRow.salaryMax()));
+
+        DepartmentAggregate emptyRow = find(aggregates, empty);
+        assertEquals(0, emptyRow.headcount());
+        assertNull(emptyRow.salaryAvg());
+    }
+
+    @Test
+    void hiresAreBucketedByPeriod() {
+        List<DepartmentHires> hires = aggregateService.getHires("month", LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31))
+            .stream().filter(row -> row.departmentId().equals(staffed.getDepartmentId())).toList();
+
+        assertEquals(List.of(
+            new DepartmentHires(staffed.getDepartmentId(), LocalDate.of(2024, 1, 1), 2),
+            new DepartmentHires(staffed.getDepartmentId(), LocalDate.of(2024, 3, 1), 1)), hires);
+    }
+
+    private static DepartmentAggregate find(List<DepartmentAggregate> aggregates, DepartmentModel department) {
+        return aggregates.stream()
+            .filter(row -> row.departmentId().equals(department.getDepartmentId()))
+            .findFirst().orElseThrow();
+    }
+
+    private DepartmentModel department(String name) {
+        DepartmentModel department = new DepartmentModel();
+        department.setDepartmentName(name + " " + System.nanoTime());
+        return deptRepo.save(department);
+    }
+
+    private void employee(DepartmentModel department, String status, String salary, LocalDate hiredDate) {
+        EmployeeModel employee = TestEmployees.build("Agg", null);
+        employee.setHiredDate(hiredDate);
+        employee.setStatus(status);
+        employee.setSalary(salary != null ? new BigDecimal(salary) : null);
+        employee.setDepartment(department);
+        empRepo.save(employee);
+    }
+}
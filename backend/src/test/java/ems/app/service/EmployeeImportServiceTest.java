@@ -0,0 +1,147 @@
+package ems.app.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import ems.app.dto.ImportError;
+import ems.app.dto.ImportReport;
+import ems.app.model.DepartmentModel;
+import ems.app.model.EmployeeModel;
+import ems.app.repo.DepartmentRepo;
+import ems.app.repo.EmployeeRepo;
+
+@SpringBootTest
+@Transactional
+class EmployeeImportServiceTest {
+
+    @Autowired
+    private EmployeeImportService importService;
+
+    @Autowired
+    private EmployeeRepo empRepo;
+
+    @Autowired
+    private DepartmentRepo deptRepo;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void csvRowsAreValidatedAndReportedPerLine() throws Exception {
+        String tag = "imp" + System.nanoTime();
+        DepartmentModel department = new DepartmentModel();
+        department.setDepartmentName("Import " + tag);
+        deptRepo.save(department);
+
+        // The CSV refers to this one by email
+        EmployeeModel existing = TestEmployees.build("Existing", null);
+        existing.setEmail("boss-" + tag + "@ems.test");
+        empRepo.save(existing);
+
+        String csv = String.join("\n",
+            "firstName,lastName,email,hiredDate,jobTitle,department,managerEmail",
+            "Ann,Lee,ann-" + tag + "@ems.test,2024-01-02,Engineer,Import " + tag + ",boss-" + tag + "@ems.test",
+            "Bob,\"Ray, Jr\",bob-" + tag + "@ems.test,2024-01-03,Engineer,,ann-" + tag + "@ems.test",
+            "Dup,Row,ann-" + tag + "@ems.test,2024-01-04,Engineer,,",
+            "Old,Row,boss-" + tag + "@ems.test,2024-01-04,Engineer,,",
+            "Bad,Date,bad-" + tag + "@ems.test,04/01/2024,Engineer,,",
+            "No,Dept,nodept-" + tag + "@ems.test,2024-01-05,Engineer,Nowhere,",
+            "Late,Manager,late-" + tag + "@ems.test,2024-01-05,Engineer,,zed-" + tag + "@ems.test",
+            "Zed,Last,zed-" + tag + "@ems.test,2024-01-06,Engineer,,",
+            "");
+
+        ImportReport report = importService.importEmployees(
+            new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), false, false);
+
+        assertEquals(8, report.totalRows());
+        assertEquals(3, report.imported());
+        assertEquals(5, report.failed());
+        assertFalse(report.errorsTruncated());
+        assertEquals(List.of(4L, 5L, 6L, 7L, 8L), report.errors().stream().map(ImportError::line).toList());
+
+        EmployeeModel ann = empRepo.findByEmail("ann-" + tag + "@ems.test").orElseThrow();
+        EmployeeModel bob = empRepo.findByEmail("bob-" + tag + "@ems.test").orElseThrow();
+        assertEquals(existing.getEmployeeId(), ann.getManager().getEmployeeId());
+        assertEquals(department.getDepartmentId(), ann.getDepartment().getDepartmentId());
+        assertEquals(ann.getEmployeeId(), bob.getManager().getEmployeeId());
+        assertEquals("Ray, Jr", bob.getLastName());
+        assertEquals("ACTIVE", bob.getStatus());
+    }
+
+    @Test
+    void ndjsonImportSpansSeveralBatches() throws Exception {
+        String tag = "nd" + System.nanoTime();
+        int rows = EmployeeImportService.BATCH_SIZE * 2 + 17;
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < rows; i++) {
+            String manager = i == 0 ? "null" : "\"e0-" + tag + "@ems.test\"";
+            ndjson.append("{\"firstName\":\"Bulk\",\"lastName\":\"E").append(i)
+                .append("\",\"email\":\"e").append(i).append('-').append(tag)
+                .append("@ems.test\",\"hiredDate\":\"2024-02-01\",\"jobTitle\":\"Analyst\",\"salary\":5000")
+                .append(",\"managerEmail\":").append(manager).append("}\n");
+        }
+        ndjson.append("{not json}\n");
+
+        ImportReport report = importService.importEmployees(
+            new ByteArrayInputStream(ndjson.toString().getBytes(StandardCharsets.UTF_8)), true, false);
+
+        assertEquals(rows + 1, report.totalRows());
+        assertEquals(rows, report.imported());
+        assertEquals(1, report.failed());
+        EmployeeModel root = empRepo.findByEmail("e0-" + tag + "@ems.test").orElseThrow();
+        EmployeeModel last = empRepo.findByEmail("e" + (rows - 1) + "-" + tag + "@ems.test").orElseThrow();
+        assertEquals(root.getEmployeeId(), last.getManager().getEmployeeId());
+    }
+
+    // Outside the test transaction, so the batches flushed before the bad line would otherwise really commit
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void malformedCsvRollsBackBatchesAlreadyFlushed() throws Exception {
+        String tag = "torn" + System.nanoTime();
+        int rows = EmployeeImportService.BATCH_SIZE + 5;
+        StringBuilder csv = new StringBuilder("firstName,lastName,email,hiredDate,jobTitle\n");
+        for (int i = 0; i < rows; i++) {
+            csv.append("Torn,E").append(i).append(",t").append(i).append('-').append(tag)
+                .append("@ems.test,2024-04-01,Analyst\n");
+        }
+        csv.append("Torn,\"Open,late-").append(tag).append("@ems.test,2024-04-01,Analyst\n");
+
+        try {
+            MalformedCsvException e = assertThrows(MalformedCsvException.class, () -> importService.importEmployees(
+                new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)), false, false));
+
+            assertEquals(rows + 2, e.getLine());
+            assertEquals(0, jdbc.queryForObject("SELECT count(*) FROM employee WHERE email LIKE ?", Integer.class,
+                "%-" + tag + "@ems.test"));
+        } finally {
+            jdbc.update("DELETE FROM employee WHERE email LIKE ?", "%-" + tag + "@ems.test");
+        }
+    }
+
+    @Test
+    void dryRunValidatesWithoutWriting() throws Exception {
+        String tag = "dry" + System.nanoTime();
+        String csv = "firstName,lastName,email,hiredDate,jobTitle\n" +
+            "Dry,Run,dry-" + tag + "@ems.test,2024-03-01,Engineer\n";
+
+        ImportReport report = importService.importEmployees(
+            new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), false, true);
+
+        assertTrue(report.dryRun());
+        assertEquals(1, report.imported());
+        assertTrue(empRepo.findByEmail("dry-" + tag + "@ems.test").isEmpty());
+    }
+}
@@ -0,0 +1,93 @@
+package ems.app.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import ems.app.dto.EmployeeSearchHit;
+
+class EmployeeNameIndexTest {
+
+    private static List<Long> ids(List<EmployeeSearchHit> hits) {
+        return hits.stream().map(EmployeeSearchHit::employeeId).toList();
+    }
+
+    private static EmployeeNameIndex sample() {
+        EmployeeNameIndex index = new EmployeeNameIndex();
+        index.put(1L, "John", "Smith", "john.smith@ems.app");
+        index.put(2L, "Johnny", "Walker", "jwalker@ems.app");
+        index.put(3L, "Sarah", "Johnson", "sarah.j@ems.app");
+        index.put(4L, "Maria", "Lopez", "mlopez@ems.app");
+        return index;
+    }
+
+    @Test
+    void prefixMatchesRankExactWordsFirst() {
+        List<EmployeeSearchHit> hits = sample().search("john", 10, false);
+
+        assertEquals(List.of(1L, 2L, 3L), ids(hits));
+        assertTrue(hits.get(0).score() > hits.get(1).score());
+    }
+
+    @Test
+    void everyWordMustMatch() {
+        EmployeeNameIndex index = sample();
+
+        assertEquals(List.of(3L), ids(index.search("sar john", 10, false)));
+        assertEquals(List.of(), ids(index.search("maria smith", 10, false)));
+    }
+
+    @Test
+    void emailPrefixesMatchBelowNames() {
+        List<EmployeeSearchHit> hits = sample().search("mlop", 10, false);
+
+        assertEquals(List.of(4L), ids(hits));
+    }
+
+    @Test
+    void fuzzyToleratesOneTypo() {
+        EmployeeNameIndex index = sample();
+
+        assertEquals(List.of(), ids(index.search("jhon", 10, false)));
+        assertTrue(ids(index.search("jhon", 10, true)).contains(1L));
+        assertEquals(List.of(4L), ids(index.search("lopes", 10, true)));
+    }
+
+    @Test
+    void updatesAndRemovalsReplacePostings() {
+        EmployeeNameIndex index = sample();
+
+        index.put(1L, "Jack", "Smith", "jack.smith@ems.app");
+        assertEquals(List.of(2L, 3L), ids(index.search("john", 10, false)));
+        assertEquals(List.of(1L), ids(index.search("jack", 10, false)));
+
+        index.remove(2L);
+        assertEquals(List.of(3L), ids(index.search("john", 10, false)));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void limitKeepsOnlyBestHits() {
+        EmployeeNameIndex index = new EmployeeNameIndex();
+        for (long id = 1; id <= 500; id++) {
+            index.put(id, "Ann" + id, "Lee", "ann" + id + "@ems.app");
+        }
+        index.put(1000L, "Ann", "Lee", "ann@ems.app");
+
+        List<EmployeeSearchHit> hits = index.search("ann", 5, true);
+        assertEquals(5, hits.size());
+        assertEquals(1000L, hits.get(0).employeeId());
+    }
+
+    @Test
+    void limitCountsEmployeesNotMatchingTokens() {
+        EmployeeNameIndex index = new EmployeeNameIndex();
+        index.put(1L, "Jo Jon", "Joni Jonas", "e1@ems.app");
+        index.put(2L, "Joseph", "Lee", "e2@ems.app");
+
+        assertEquals(List.of(1L, 2L), ids(index.search("jo", 2, false)));
+    }
+}
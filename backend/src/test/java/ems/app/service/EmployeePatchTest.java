@@ -0,0 +1,117 @@
+package ems.app.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import ems.app.model.DepartmentModel;
+import ems.app.model.EmployeeModel;
+import ems.app.repo.DepartmentRepo;
+import ems.app.repo.EmployeeRepo;
+import jakarta.persistence.EntityManager;
+
+@SpringBootTest
+@Transactional
+class EmployeePatchTest {
+
+    @Autowired
+    private EmployeeService empService;
+
+    @Autowired
+    private EmployeeRepo empRepo;
+
+    @Autowired
+    private DepartmentRepo deptRepo;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private EntityManager em;
+
+    private EmployeeModel manager;
+    private EmployeeModel employee;
+    private DepartmentModel department;
+
+    @BeforeEach
+    void setUp() {
+        department = new DepartmentModel();
+        department.setDepartmentName("Patch " + System.nanoTime());
+        deptRepo.save(department);
+        manager = employee("Manager", null);
+        employee = employee("Report", manager);
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void patchKeepsFieldsItWasNotGiven() {
+        empService.patchEmployee(employee.getEmployeeId(), Map.of("jobTitle", "Senior Tester"));
+        em.flush();
+        em.clear();
+
+        EmployeeModel reloaded = empRepo.findById(employee.getEmployeeId()).orElseThrow();
+        assertEquals("Senior Tester", reloaded.getJobTitle());
+        assertEquals(manager.getEmployeeId(), reloaded.getManager().getEmployeeId());
+        assertEquals(department.getDepartmentId(), reloaded.getDepartment().getDepartmentId());
+    }
+
+    @Test
+    void updateOnlyWritesChangedColumns() {
+        empService.patchEmployee(employee.getEmployeeId(), Map.of("jobTitle", "Lead"));
+        // A concurrent edit to another column lands before this transaction flushes
+        jdbc.update("UPDATE employee SET address = 'Changed elsewhere' WHERE employee_id = ?", employee.getEmployeeId());
+        em.flush();
+
+        assertEquals("Changed elsewhere", jdbc.queryForObject(
+            "SELECT address FROM employee WHERE employee_id = ?", String.class, employee.getEmployeeId()));
+        assertEquals("Lead", jdbc.queryForObject(
+            "SELECT job_title FROM employee WHERE employee_id = ?", String.class, employee.getEmployeeId()));
+    }
+
+    @Test
+    void nullClearsOptionalFieldsAndRelations() {
+        Map<String, Object> changes = new HashMap<>();
+        changes.put("managerId", null);
+        changes.put("contactNo", null);
+        EmployeeModel patched = empService.patchEmployee(employee.getEmployeeId(), changes);
+
+        assertEquals(null, patched.getManager());
+        assertEquals(null, patched.getContactNo());
+    }
+
+    @Test
+    void invalidPatchesAreRejected() {
+        Map<String, Object> nullName = new HashMap<>();
+        nullName.put("firstName", null);
+
+        assertThrows(IllegalArgumentException.class,
+            () -> empService.patchEmployee(employee.getEmployeeId(), nullName));
+        assertThrows(IllegalArgumentException.class,
+            () -> empService.patchEmployee(employee.getEmployeeId(), Map.of("attendances", "[]")));
+        assertThrows(IllegalArgumentException.class,
+            () -> empService.patchEmployee(employee.getEmployeeId(), Map.of("hiredDate", "yesterday")));
+        assertThrows(IllegalArgumentException.class,
+            () -> empService.patchEmployee(manager.getEmployeeId(), Map.of("managerId", employee.getEmployeeId())));
+        assertThrows(NotFoundException.class,
+            () -> empService.patchEmployee(Long.MAX_VALUE, Map.of("jobTitle", "Ghost")));
+    }
+
+    // The shared fixture plus the optional columns these tests patch or clear
+    private EmployeeModel employee(String firstName, EmployeeModel reportsTo) {
+        EmployeeModel created = TestEmployees.build(firstName, reportsTo);
+        created.setContactNo("555-0100");
+        created.setAddress("Original");
+        created.setDepartment(department);
+        return empRepo.save(created);
+    }
+}
@@ -0,0 +1,87 @@
+package ems.app.service;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import ems.app.dto.EmployeeSearchHit;
+import ems.app.model.EmployeeModel;
+import ems.app.repo.EmployeeRepo;
+
+// Run with -Dems.stress=true against a local Postgres
+@SpringBootTest
+@EnabledIfSystemProperty(named = "ems.stress", matches = "true")
+class EmployeeSearchBenchmarkTest {
+    private static final Logger log = LoggerFactory.getLogger(EmployeeSearchBenchmarkTest.class);
+
+    private static final int EMPLOYEES = 100_000;
+    private static final int ROUNDS = 200;
+    private static final String[] FIRST_NAMES = {"John", "Sarah", "Maria", "Ahmed", "Wei", "Olga", "Kofi", "Priya"};
+    private static final String[] QUERIES = {"jo", "sarah", "mar", "wei bench", "priya", "kof"};
+
+    @Autowired
+    private EmployeeService empService;
+
+    @Autowired
+    private EmployeeSearchService searchService;
+
+    @Autowired
+    private EmployeeRepo empRepo;
+
+    private final List<EmployeeModel> employees = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < EMPLOYEES; i++) {
+            // "wei bench" needs the last name
+            EmployeeModel employee = TestEmployees.build(FIRST_NAMES[i % FIRST_NAMES.length], null);
+            employee.setLastName("Bench" + i);
+            employees.add(employee);
+        }
+        empRepo.saveAll(employees);
+        searchService.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() {
+        empRepo.deleteAll(employees);
+        searchService.rebuild();
+    }
+
+    @Test
+    void indexAnswersInUnderAMillisecondAndBeatsLikeQuery() {
+        for (String query : QUERIES) {
+            // warm both paths before timing
+            empService.searchEmployeeByName(query.split(" ")[0]);
+            searchService.search(query, 10, true);
+
+            long start = System.nanoTime();
+            for (int i = 0; i < ROUNDS; i++) {
+                empService.searchEmployeeByName(query.split(" ")[0]);
+            }
+            double likeMillis = (System.nanoTime() - start) / 1_000_000.0 / ROUNDS;
+
+            start = System.nanoTime();
+            List<EmployeeSearchHit> hits = List.of();
+            for (int i = 0; i < ROUNDS; i++) {
+                hits = searchService.search(query, 10, true);
+            }
+            double indexMillis = (System.nanoTime() - start) / 1_000_000.0 / ROUNDS;
+
+            log.info("query={} like={}ms index={}ms hits={}", query, String.format("%.3f", likeMillis),
+                String.format("%.3f", indexMillis), hits.size());
+            assertTrue(indexMillis < 1.0);
+            assertTrue(indexMillis < likeMillis);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package ems.app.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import ems.app.dto.EmployeeSummary;
+import ems.app.model.DepartmentModel;
+import ems.app.model.EmployeeModel;
+import ems.app.repo.DepartmentRepo;
+import ems.app.repo.EmployeeRepo;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest
+@Transactional
+class EmployeeSummaryQueryCountTest {
+
+    @Autowired
+    private EmployeeService empService;
+
+    @Autowired
+    private EmployeeRepo empRepo;
+
+    @Autowired
+    private DepartmentRepo deptRepo;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    @Test
+    void listingSummariesIsOneQueryRegardlessOfSize() {
+        DepartmentModel department = new DepartmentModel();
+        department.setDepartmentName("Query Count " + System.nanoTime());
+        deptRepo.save(department);
+
+        EmployeeModel manager = null;
+        for (int i = 0; i < 1000; i++) {
+            EmployeeModel employee = TestEmployees.build("Count", manager);
+            employee.setDepartment(department);
+            empRepo.save(employee);
+            if (i == 0) {
+                manager = employee;
+            }
+        }
+        em.flush();
+        em.clear();
+
+        Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.setStatisticsEnabled(true);
+        stats.clear();
+
+        List<EmployeeSummary> summaries = empService.getEmployeeSummaries();
+
+        assertTrue(summaries.size() >= 1000);
+        assertEquals(1, stats.getPrepareStatementCount());
+        assertEquals(0, stats.getEntityLoadCount());
+        assertEquals(0, stats.getCollectionLoadCount());
+    }
+}
@@ -0,0 +1,99 @@
+package ems.app.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import ems.app.model.EmployeeModel;
+import jakarta.persistence.EntityManagerFactory;
+
+// Not @Transactional: each service call must run in its own session so reads go past the first-level cache
+@SpringBootTest
+class EntityCacheTest {
+
+    @Autowired
+    private EmployeeService empService;
+
+    @Autowired
+    private AttendanceService attService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    private EmployeeModel employee;
+    private Statistics stats;
+
+    @BeforeEach
+    void setUp() {
+        employee = empService.saveEmployee(TestEmployees.build("Cache", null));
+
+        stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.setStatisticsEnabled(true);
+        stats.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbc.update("DELETE FROM attendance_monthly_rollup WHERE employee_id = ?", employee.getEmployeeId());
+        jdbc.update("DELETE FROM attendance WHERE employee_id = ?", employee.getEmployeeId());
+        empService.deleteEmployee(employee.getEmployeeId());
+    }
+
+    @Test
+    void repeatedLookupsAreServedFromTheCache() {
+        for (int i = 0; i < 5; i++) {
+            empService.getEmployeeById(employee.getEmployeeId()).orElseThrow();
+            empService.getEmployeeByEmail(employee.getEmail()).orElseThrow();
+        }
+
+        assertTrue(stats.getSecondLevelCacheHitCount() >= 9);
+        assertTrue(stats.getNaturalIdCacheHitCount() >= 4);
+        assertEquals(0, stats.getPrepareStatementCount());
+    }
+
+    @Test
+    void updatesReplaceTheCachedEntry() {
+        empService.getEmployeeById(employee.getEmployeeId()).orElseThrow();
+
+        EmployeeModel loaded = empService.getEmployeeById(employee.getEmployeeId()).orElseThrow();
+        String oldEmail = loaded.getEmail();
+        loaded.setJobTitle("Lead");
+        loaded.setEmail("cache-moved-" + System.nanoTime() + "@ems.test");
+        empService.updateEmployee(loaded);
+
+        EmployeeModel reloaded = empService.getEmployeeById(employee.getEmployeeId()).orElseThrow();
+        assertEquals("Lead", reloaded.getJobTitle());
+        assertTrue(empService.getEmployeeByEmail(oldEmail).isEmpty());
+        assertEquals(employee.getEmployeeId(),
+            empService.getEmployeeByEmail(loaded.getEmail()).orElseThrow().getEmployeeId());
+    }
+
+    @Test
+    void attendanceWritesLeaveTheEmployeeCached() {
+        empService.getEmployeeById(employee.getEmployeeId()).orElseThrow();
+        LocalDate day = LocalDate.of(2003, 5, 6);
+
+        attService.clockIn(employee, day, LocalTime.of(8, 0));
+        attService.clockOut(employee, day, LocalTime.of(16, 0));
+        attService.markAbsent(employee, day.plusDays(1));
+        stats.clear();
+
+        empService.getEmployeeById(employee.getEmployeeId()).orElseThrow();
+        assertEquals(1, stats.getSecondLevelCacheHitCount());
+        assertEquals(0, stats.getPrepareStatementCount());
+    }
+}
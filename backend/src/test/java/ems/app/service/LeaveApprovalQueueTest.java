@@ -0,0 +1,92 @@
+package ems.app.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import ems.app.dto.CursorPage;
+import ems.app.dto.PendingLeave;
+import ems.app.model.EmployeeModel;
+import ems.app.model.LeaveModel;
+import ems.app.repo.EmployeeRepo;
+
+@SpringBootTest
+@Transactional
+class LeaveApprovalQueueTest {
+
+    @Autowired
+    private LeaveService lvService;
+
+    @Autowired
+    private LeaveQueueService queueService;
+
+    @Autowired
+    private EmployeeRepo empRepo;
+
+    private EmployeeModel manager;
+    private EmployeeModel lead;
+    private EmployeeModel engineer;
+    private EmployeeModel outsider;
+
+    @BeforeEach
+    void setUp() {
+        manager = TestEmployees.create(empRepo, "Manager", null);
+        lead = TestEmployees.create(empRepo, "Lead", manager);
+        engineer = TestEmployees.create(empRepo, "Engineer", lead);
+        outsider = TestEmployees.create(empRepo, "Outsider", null);
+    }
+
+    @Test
+    void queueHoldsOnlyPendingLeavesFromTheReportingLine() {
+        Long leadLeave = apply(lead, LocalDate.of(2036, 2, 2)).getLeave_id();
+        Long engineerLeave = apply(engineer, LocalDate.of(2036, 2, 9)).getLeave_id();
+        Long secondEngineerLeave = apply(engineer, LocalDate.of(2036, 3, 2)).getLeave_id();
+        apply(outsider, LocalDate.of(2036, 2, 2));
+        Long approved = apply(lead, LocalDate.of(2036, 4, 6)).getLeave_id();
+        lvService.approveLeave(approved, manager);
+
+        CursorPage<PendingLeave> first = queueService.getQueue(manager.getEmployeeId(), null, 2);
+        assertEquals(List.of(leadLeave, engineerLeave), ids(first));
+        assertNotNull(first.nextCursor());
+
+        CursorPage<PendingLeave> second = queueService.getQueue(manager.getEmployeeId(), first.nextCursor(), 2);
+        assertEquals(List.of(secondEngineerLeave), ids(second));
+        assertNull(second.nextCursor());
+        assertEquals("Engineer Test", second.items().get(0).employeeName());
+
+        assertEquals(List.of(engineerLeave, secondEngineerLeave), ids(queueService.getQueue(lead.getEmployeeId(), null, 10)));
+        assertEquals(List.of(), ids(queueService.getQueue(engineer.getEmployeeId(), null, 10)));
+    }
+
+    @Test
+    void malformedCursorIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> queueService.getQueue(manager.getEmployeeId(), "not-a-cursor", 10));
+    }
+
+    private static List<Long> ids(CursorPage<PendingLeave> page) {
+        List<Long> ids = new ArrayList<>();
+        page.items().forEach(item -> ids.add(item.leaveId()));
+        return ids;
+    }
+
+    private LeaveModel apply(EmployeeModel employee, LocalDate start) {
+        LeaveModel leave = new LeaveModel();
+        leave.setEmployee(employee);
+        leave.setLeaveType("ANNUAL");
+        leave.setStartDate(start);
+        leave.setEndDate(start.plusDays(2));
+        leave.setReason("test");
+        return lvService.applyForLeave(leave);
+    }
+}
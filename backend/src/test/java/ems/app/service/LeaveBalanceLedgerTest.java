@@ -0,0 +1,114 @@
+package ems.app.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import ems.app.dto.LeaveBalanceRow;
+import ems.app.model.EmployeeModel;
+import ems.app.model.LeaveBalanceModel;
+import ems.app.model.LeaveModel;
+import ems.app.repo.EmployeeRepo;
+
+@SpringBootTest
+@Transactional
+class LeaveBalanceLedgerTest {
+
+    @Autowired
+    private LeaveService lvService;
+
+    @Autowired
+    private LeaveBalanceService balanceService;
+
+    @Autowired
+    private EmployeeRepo empRepo;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private EmployeeModel employee;
+    private EmployeeModel reviewer;
+
+    @BeforeEach
+    void setUp() {
+        employee = TestEmployees.create(empRepo, "Ledger", null);
+        reviewer = TestEmployees.create(empRepo, "Reviewer", null);
+        // Start every test from a ledger that agrees with the leaves table
+        balanceService.reconcile();
+    }
+
+    @Test
+    void transitionsMoveDaysBetweenPendingAndUsed() {
+        LeaveModel leave = lvService.applyForLeave(leave(LocalDate.of(2032, 3, 1), LocalDate.of(2032, 3, 5)));
+        assertBalance(2032, 0, 5);
+
+        lvService.approveLeave(leave.getLeave_id(), reviewer);
+        assertBalance(2032, 5, 0);
+        assertEquals(5, lvService.getUsedLeavesByTypeAndYear(employee, "ANNUAL", 2032));
+
+        lvService.cancelLeave(leave.getLeave_id());
+        assertBalance(2032, 0, 0);
+
+        LeaveModel rejected = lvService.applyForLeave(leave(LocalDate.of(2032, 4, 1), LocalDate.of(2032, 4, 2)));
+        lvService.rejectedLeave(rejected.getLeave_id(), reviewer);
+        LeaveModel deleted = lvService.applyForLeave(leave(LocalDate.of(2032, 5, 1), LocalDate.of(2032, 5, 3)));
+        lvService.deleteLeave(deleted.getLeave_id());
+        assertBalance(2032, 0, 0);
+        assertEquals(0, balanceService.reconcile());
+    }
+
+    @Test
+    void leaveAcrossNewYearIsSplitBetweenYears() {
+        assertEquals(Map.of(2032, 3, 2033, 2), LeaveBalanceService.daysByYear(LocalDate.of(2032, 12, 29), LocalDate.of(2033, 1, 2)));
+
+        LeaveModel leave = lvService.applyForLeave(leave(LocalDate.of(2032, 12, 29), LocalDate.of(2033, 1, 2)));
+        lvService.approveLeave(leave.getLeave_id(), reviewer);
+
+        assertBalance(2032, 3, 0);
+        assertBalance(2033, 2, 0);
+        assertEquals(0, balanceService.reconcile());
+    }
+
+    @Test
+    void reconcileRepairsDriftAndReportIsOneRowPerBalance() {
+        lvService.applyForLeave(leave(LocalDate.of(2032, 6, 1), LocalDate.of(2032, 6, 10)));
+        jdbc.update("UPDATE leave_balance SET pending_days = 99 WHERE employee_id = ?", employee.getEmployeeId());
+
+        assertEquals(1, balanceService.reconcile());
+        assertBalance(2032, 0, 10);
+
+        List<LeaveBalanceRow> report = balanceService.getReport(2032, "ANNUAL", null);
+        LeaveBalanceRow row = report.stream()
+            .filter(r -> r.employeeId().equals(employee.getEmployeeId()))
+            .findFirst().orElseThrow();
+        assertEquals("Ledger Test", row.employeeName());
+        assertEquals(row.allowanceDays() - 10, row.remainingDays());
+        assertTrue(report.stream().noneMatch(r -> r.employeeId().equals(reviewer.getEmployeeId())));
+    }
+
+    private void assertBalance(int year, int used, int pending) {
+        LeaveBalanceModel balance = balanceService.getBalance(employee.getEmployeeId(), "ANNUAL", year).orElseThrow();
+        assertEquals(used, balance.getUsedDays());
+        assertEquals(pending, balance.getPendingDays());
+    }
+
+    private LeaveModel leave(LocalDate from, LocalDate to) {
+        LeaveModel leave = new LeaveModel();
+        leave.setEmployee(employee);
+        leave.setLeaveType("ANNUAL");
+        leave.setStartDate(from);
+        leave.setEndDate(to);
+        leave.setReason("test");
+        return leave;
+    }
+}
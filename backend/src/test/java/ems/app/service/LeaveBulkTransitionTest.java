@@ -0,0 +1,129 @@
+package ems.app.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import ems.app.dto.BulkLeaveReport;
+import ems.app.dto.LeaveTransitionOutcome;
+import ems.app.model.EmployeeModel;
+import ems.app.model.LeaveModel;
+import ems.app.repo.EmployeeRepo;
+import ems.app.repo.LeaveRepo;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest
+@Transactional
+class LeaveBulkTransitionTest {
+
+    @Autowired
+    private LeaveService lvService;
+
+    @Autowired
+    private LeaveBalanceService balanceService;
+
+    @Autowired
+    private LeaveRepo lvRepo;
+
+    @Autowired
+    private EmployeeRepo empRepo;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    private EmployeeModel employee;
+    private EmployeeModel reviewer;
+
+    @BeforeEach
+    void setUp() {
+        employee = TestEmployees.create(empRepo, "Bulk", null);
+        reviewer = TestEmployees.create(empRepo, "Reviewer", null);
+        balanceService.reconcile();
+    }
+
+    @Test
+    void reportsAnOutcomeForEveryId() {
+        List<Long> pending = applyMany(3, LocalDate.of(2033, 1, 3));
+        LeaveModel rejected = lvService.applyForLeave(leave(LocalDate.of(2033, 6, 1), LocalDate.of(2033, 6, 2)));
+        lvService.rejectedLeave(rejected.getLeave_id(), reviewer);
+
+        List<Long> ids = new ArrayList<>(pending);
+        ids.add(rejected.getLeave_id());
+        ids.add(-1L);
+        ids.add(pending.get(0));
+        BulkLeaveReport report = lvService.approveLeaves(ids, reviewer);
+
+        assertEquals(5, report.requested());
+        assertEquals(3, report.updated());
+        assertEquals(1, report.skipped());
+        assertEquals(1, report.notFound());
+        assertEquals(new LeaveTransitionOutcome(rejected.getLeave_id(), "SKIPPED", "REJECTED"), report.outcomes().get(3));
+        assertEquals(new LeaveTransitionOutcome(-1L, "NOT_FOUND", null), report.outcomes().get(4));
+
+        em.flush();
+        em.clear();
+        LeaveModel approved = lvRepo.findById(pending.get(1)).orElseThrow();
+        assertEquals("APPROVED", approved.getStatus());
+        assertEquals(reviewer.getEmployeeId(), approved.getApprovedBy().getEmployeeId());
+        assertEquals(6, lvService.getUsedLeavesByTypeAndYear(employee, "ANNUAL", 2033));
+        assertEquals(0, balanceService.reconcile());
+
+        BulkLeaveReport canceled = lvService.cancelLeaves(pending);
+        assertEquals(3, canceled.updated());
+        assertEquals(0, lvService.getUsedLeavesByTypeAndYear(employee, "ANNUAL", 2033));
+    }
+
+    @Test
+    void statementCountDoesNotGrowWithBatchSize() {
+        List<Long> small = applyMany(5, LocalDate.of(2034, 1, 2));
+        List<Long> large = applyMany(50, LocalDate.of(2035, 1, 2));
+
+        assertEquals(statementsFor(small), statementsFor(large));
+    }
+
+    private long statementsFor(List<Long> ids) {
+        em.flush();
+        em.clear();
+        Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.setStatisticsEnabled(true);
+        stats.clear();
+
+        lvService.approveLeaves(ids, reviewer);
+        em.flush();
+        return stats.getPrepareStatementCount();
+    }
+
+    // Two-day leaves a week apart, so none of them overlap
+    private List<Long> applyMany(int count, LocalDate first) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            LocalDate start = first.plusWeeks(i);
+            ids.add(lvService.applyForLeave(leave(start, start.plusDays(1))).getLeave_id());
+        }
+        return ids;
+    }
+
+    private LeaveModel leave(LocalDate from, LocalDate to) {
+        LeaveModel leave = new LeaveModel();
+        leave.setEmployee(employee);
+        leave.setLeaveType("ANNUAL");
+        leave.setStartDate(from);
+        leave.setEndDate(to);
+        leave.setReason("test");
+        return leave;
+    }
+}
@@ -0,0 +1,65 @@
+package ems.app.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class LeaveCalendarIndexTest {
+
+    private static LeaveCalendarIndex.Interval leave(long leaveId, long employeeId, String status, String from, String to) {
+        return new LeaveCalendarIndex.Interval(leaveId, employeeId, "ANNUAL", status, LocalDate.parse(from), LocalDate.parse(to));
+    }
+
+    private static List<Long> ids(List<LeaveCalendarIndex.Interval> intervals) {
+        return intervals.stream().map(LeaveCalendarIndex.Interval::leaveId).sorted().toList();
+    }
+
+    private static LeaveCalendarIndex sample() {
+        LeaveCalendarIndex index = new LeaveCalendarIndex();
+        index.put(leave(1, 10, "APPROVED", "2032-02-20", "2032-03-02"));
+        index.put(leave(2, 10, "PENDING", "2032-03-10", "2032-03-12"));
+        index.put(leave(3, 11, "APPROVED", "2032-01-01", "2032-06-30"));
+        index.put(leave(4, 12, "APPROVED", "2032-03-05", "2032-03-06"));
+        index.put(leave(5, 10, "APPROVED", "2032-04-01", "2032-04-03"));
+        return index;
+    }
+
+    @Test
+    void windowFindsLeavesStartingBeforeIt() {
+        LeaveCalendarIndex index = sample();
+
+        assertEquals(List.of(1L, 2L, 3L, 4L),
+            ids(index.overlapping(Set.of(10L, 11L, 12L), LocalDate.parse("2032-03-01"), LocalDate.parse("2032-03-31"))));
+        assertEquals(List.of(), ids(index.overlapping(Set.of(10L), LocalDate.parse("2032-03-03"), LocalDate.parse("2032-03-09"))));
+    }
+
+    @Test
+    void onlyRequestedEmployeesAreScanned() {
+        assertEquals(List.of(4L),
+            ids(sample().overlapping(Set.of(12L, 99L), LocalDate.parse("2032-03-01"), LocalDate.parse("2032-03-31"))));
+    }
+
+    @Test
+    void inactiveStatusOrRemovalDropsTheLeave() {
+        LeaveCalendarIndex index = sample();
+        index.put(leave(2, 10, "CANCELED", "2032-03-10", "2032-03-12"));
+        index.remove(4L);
+
+        assertEquals(List.of(1L, 3L),
+            ids(index.overlapping(Set.of(10L, 11L, 12L), LocalDate.parse("2032-03-01"), LocalDate.parse("2032-03-31"))));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void movedLeaveIsReindexedUnderItsNewDates() {
+        LeaveCalendarIndex index = sample();
+        index.put(leave(5, 10, "APPROVED", "2032-05-01", "2032-05-02"));
+
+        assertEquals(List.of(), ids(index.overlapping(Set.of(10L), LocalDate.parse("2032-04-01"), LocalDate.parse("2032-04-30"))));
+        assertEquals(List.of(5L), ids(index.overlapping(Set.of(10L), LocalDate.parse("2032-05-02"), LocalDate.parse("2032-05-02"))));
+    }
+}
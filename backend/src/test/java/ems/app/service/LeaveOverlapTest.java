@@ -0,0 +1,158 @@
+package ems.app.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import ems.app.model.EmployeeModel;
+import ems.app.model.LeaveModel;
+import ems.app.repo.EmployeeRepo;
+import ems.app.repo.LeaveRepo;
+
+// Not @Transactional: concurrent applications must each commit on their own connection
+@SpringBootTest
+class LeaveOverlapTest {
+    private static final Logger log = LoggerFactory.getLogger(LeaveOverlapTest.class);
+
+    private static final LocalDate BASE_DATE = LocalDate.of(2031, 6, 2);
+
+    @Autowired
+    private LeaveService lvService;
+
+    @Autowired
+    private LeaveRepo lvRepo;
+
+    @Autowired
+    private EmployeeRepo empRepo;
+
+    private EmployeeModel employee;
+
+    @BeforeEach
+    void setUp() {
+        employee = TestEmployees.create(empRepo, "Leave", null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        lvRepo.deleteAll(lvRepo.findByEmployee(employee));
+        empRepo.delete(employee);
+    }
+
+    @Test
+    void onlyActiveLeavesBlockAPeriod() {
+        LeaveModel first = lvService.applyForLeave(leave(BASE_DATE, BASE_DATE.plusDays(4)));
+
+        assertThrows(RuntimeException.class, () -> lvService.applyForLeave(leave(BASE_DATE.plusDays(4), BASE_DATE.plusDays(6))));
+        assertFalse(lvService.hasOverlappingLeaves(employee, BASE_DATE.plusDays(5), BASE_DATE.plusDays(6)));
+
+        lvService.cancelLeave(first.getLeave_id());
+        assertFalse(lvService.hasOverlappingLeaves(employee, BASE_DATE, BASE_DATE.plusDays(4)));
+        LeaveModel replacement = lvService.applyForLeave(leave(BASE_DATE.plusDays(1), BASE_DATE.plusDays(2)));
+        assertTrue(replacement.getLeave_id() != null);
+    }
+
+    @Test
+    void otherIntegrityViolationsAreNotReportedAsOverlaps() {
+        LeaveModel tooLong = leave(BASE_DATE, BASE_DATE.plusDays(1));
+        tooLong.setLeaveType("X".repeat(51));
+
+        assertThrows(DataIntegrityViolationException.class, () -> lvService.applyForLeave(tooLong));
+    }
+
+    @Test
+    void concurrentApplicationsForTheSamePeriodLeaveOneRow() throws Exception {
+        int threads = 16;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                LocalDate from = BASE_DATE.plusDays(i % 3);
+                results.add(pool.submit(() -> {
+                    start.await();
+                    try {
+                        lvService.applyForLeave(leave(from, from.plusDays(5)));
+                        return true;
+                    } catch (RuntimeException e) {
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+
+            int accepted = 0;
+            for (Future<Boolean> result : results) {
+                accepted += result.get() ? 1 : 0;
+            }
+            assertEquals(1, accepted);
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(1, lvRepo.findByEmployeeAndStatus(employee, "PENDING").size());
+    }
+
+    // Run with -Dems.stress=true against a local Postgres
+    @Test
+    @EnabledIfSystemProperty(named = "ems.stress", matches = "true")
+    void existsCheckIsCheaperThanLoadingOverlaps() {
+        List<LeaveModel> history = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            LeaveModel leave = leave(BASE_DATE.plusDays(i * 3L), BASE_DATE.plusDays(i * 3L + 1));
+            leave.setTotaldays(2);
+            leave.setStatus(i % 2 == 0 ? "REJECTED" : "APPROVED");
+            history.add(leave);
+        }
+        lvRepo.saveAll(history);
+
+        LocalDate from = BASE_DATE;
+        LocalDate to = BASE_DATE.plusDays(6000);
+        for (int i = 0; i < 50; i++) {
+            lvRepo.findOverlappingLeaves(employee, from, to);
+            lvRepo.existsActiveOverlap(employee.getEmployeeId(), from, to);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 200; i++) {
+            lvRepo.findOverlappingLeaves(employee, from, to).isEmpty();
+        }
+        double listMillis = (System.nanoTime() - start) / 1_000_000.0 / 200;
+
+        start = System.nanoTime();
+        for (int i = 0; i < 200; i++) {
+            lvRepo.existsActiveOverlap(employee.getEmployeeId(), from, to);
+        }
+        double existsMillis = (System.nanoTime() - start) / 1_000_000.0 / 200;
+
+        log.info("overlap check: list={}ms exists={}ms", String.format("%.3f", listMillis), String.format("%.3f", existsMillis));
+        assertTrue(existsMillis < listMillis);
+    }
+
+    private LeaveModel leave(LocalDate from, LocalDate to) {
+        LeaveModel leave = new LeaveModel();
+        leave.setEmployee(employee);
+        leave.setLeaveType("ANNUAL");
+        leave.setStartDate(from);
+        leave.setEndDate(to);
+        leave.setReason("test");
+        return leave;
+    }
+}
@@ -0,0 +1,109 @@
+package ems.app.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import ems.app.dto.OrgChartNode;
+import ems.app.dto.SpanOfControl;
+import ems.app.model.EmployeeModel;
+import ems.app.repo.EmployeeRepo;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest
+@Transactional
+class OrgChartQueryTest {
+
+    @Autowired
+    private EmployeeService empService;
+
+    @Autowired
+    private EmployeeRepo empRepo;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    // ceo -> 3 vps -> 10 reports each
+    private EmployeeModel ceo;
+    private final List<EmployeeModel> vps = new ArrayList<>();
+    private final List<EmployeeModel> staff = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ceo = TestEmployees.create(empRepo, "Ceo", null);
+        for (int v = 0; v < 3; v++) {
+            EmployeeModel vp = TestEmployees.create(empRepo, "Vp" + v, ceo);
+            vps.add(vp);
+            for (int s = 0; s < 10; s++) {
+                staff.add(TestEmployees.create(empRepo, "Staff" + v + "-" + s, vp));
+            }
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void subtreeIsOneQuery() {
+        Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.setStatisticsEnabled(true);
+        stats.clear();
+
+        List<OrgChartNode> tree = empService.getSubtree(ceo.getEmployeeId(), 64);
+
+        assertEquals(1 + 3 + 30, tree.size());
+        assertEquals(1, stats.getPrepareStatementCount());
+        assertEquals(0, tree.get(0).depth());
+        assertEquals(2, tree.get(tree.size() - 1).depth());
+        assertEquals(4, empService.getSubtree(ceo.getEmployeeId(), 1).size());
+    }
+
+    @Test
+    void chainOfCommandWalksToTheRoot() {
+        EmployeeModel leaf = staff.get(25);
+        List<OrgChartNode> chain = empService.getChainOfCommand(leaf.getEmployeeId());
+
+        assertEquals(List.of(leaf.getEmployeeId(), vps.get(2).getEmployeeId(), ceo.getEmployeeId()),
+            chain.stream().map(OrgChartNode::employeeId).toList());
+    }
+
+    @Test
+    void spanOfControlCountsDirectAndTransitiveReports() {
+        List<SpanOfControl> spans = empService.getSpanOfControl(ceo.getEmployeeId());
+
+        assertEquals(4, spans.size());
+        SpanOfControl top = spans.get(0);
+        assertEquals(ceo.getEmployeeId(), top.managerId());
+        assertEquals(3, top.directReports());
+        assertEquals(33, top.totalReports());
+        assertEquals(2, top.levels());
+        assertEquals(10, spans.get(1).totalReports());
+    }
+
+    @Test
+    void assigningADescendantAsManagerIsRejected() {
+        EmployeeModel leaf = empRepo.findById(staff.get(0).getEmployeeId()).orElseThrow();
+
+        assertThrows(IllegalArgumentException.class, () -> empService.assignManager(ceo.getEmployeeId(), leaf));
+        assertThrows(IllegalArgumentException.class,
+            () -> empService.assignManager(leaf.getEmployeeId(), leaf));
+
+        EmployeeModel otherVp = empRepo.findById(vps.get(1).getEmployeeId()).orElseThrow();
+        empService.assignManager(leaf.getEmployeeId(), otherVp);
+        em.flush();
+        assertEquals(11, empService.getSpanOfControl(otherVp.getEmployeeId()).get(0).totalReports());
+    }
+}
@@ -0,0 +1,52 @@
+package ems.app.service;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class PasswordHasherTest {
+
+    private final PasswordHasher hasher = new PasswordHasher(1000);
+
+    @Test
+    void hashVerifiesOnlyTheOriginalPassword() {
+        String hash = hasher.hash("s3cret");
+
+        assertTrue(hasher.isHashed(hash));
+        assertTrue(hasher.matches("s3cret", hash));
+        assertFalse(hasher.matches("s3cret!", hash));
+        assertFalse(hasher.matches(null, hash));
+    }
+
+    @Test
+    void saltMakesEveryHashDifferent() {
+        assertNotEquals(hasher.hash("s3cret"), hasher.hash("s3cret"));
+    }
+
+    @Test
+    void legacyPlaintextStillMatchesAndNeedsRehash() {
+        assertTrue(hasher.matches("s3cret", "s3cret"));
+        assertFalse(hasher.matches("other", "s3cret"));
+        assertTrue(hasher.needsRehash("s3cret"));
+    }
+
+    @Test
+    void raisingTheWorkFactorFlagsOlderHashes() {
+        String weak = hasher.hash("s3cret");
+        PasswordHasher stronger = new PasswordHasher(2000);
+
+        assertFalse(hasher.needsRehash(weak));
+        assertTrue(stronger.needsRehash(weak));
+        assertTrue(stronger.matches("s3cret", weak));
+        assertFalse(stronger.needsRehash(stronger.hash("s3cret")));
+    }
+
+    @Test
+    void malformedHashesNeverMatch() {
+        assertFalse(hasher.matches("s3cret", PasswordHasher.PREFIX + "1000$not-base64"));
+        assertFalse(hasher.matches("s3cret", PasswordHasher.PREFIX + "x$AAAA$AAAA"));
+        assertTrue(hasher.needsRehash(PasswordHasher.PREFIX + "x$AAAA$AAAA"));
+    }
+}
@@ -0,0 +1,32 @@
+package ems.app.service;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicLong;
+
+import ems.app.model.EmployeeModel;
+import ems.app.repo.EmployeeRepo;
+
+// Employees with every required column filled in; the email is unique per call, so fixtures never collide,
+// even when built in a tight loop
+final class TestEmployees {
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    private TestEmployees() {
+    }
+
+    static EmployeeModel create(EmployeeRepo repo, String firstName, EmployeeModel manager) {
+        return repo.save(build(firstName, manager));
+    }
+
+    static EmployeeModel build(String firstName, EmployeeModel manager) {
+        EmployeeModel employee = new EmployeeModel();
+        employee.setFirstName(firstName);
+        employee.setLastName("Test");
+        employee.setEmail(
+            firstName.toLowerCase() + "-" + System.nanoTime() + "-" + SEQUENCE.incrementAndGet() + "@ems.test");
+        employee.setHiredDate(LocalDate.of(2020, 1, 1));
+        employee.setJobTitle("Tester");
+        employee.setManager(manager);
+        return employee;
+    }
+}
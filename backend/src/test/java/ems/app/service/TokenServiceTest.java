@@ -0,0 +1,145 @@
+package ems.app.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ems.app.dto.AuthPrincipal;
+import ems.app.model.UserModel;
+
+class TokenServiceTest {
+
+    private static final String KEY_A = "a:" + Base64.getEncoder().encodeToString(new byte[32]);
+    private static final String KEY_B = "b:" + Base64.getEncoder().encodeToString("0123456789abcdef0123456789abcdef".getBytes());
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2030-01-01T08:00:00Z"));
+
+    private TokenService service(String keys, String activeKeyId) {
+        return new TokenService(new ObjectMapper(), Duration.ofHours(8), keys, activeKeyId, 100, clock);
+    }
+
+    private static UserModel user() {
+        UserModel user = new UserModel();
+        user.setUserId(7L);
+        user.setUsername("jdoe");
+        user.setRole("HR");
+        return user;
+    }
+
+    @Test
+    void issuedTokenCarriesIdentityAndRole() {
+        TokenService tokens = service(KEY_A, "");
+
+        AuthPrincipal principal = tokens.verify(tokens.issue(user())).orElseThrow();
+
+        assertEquals(7L, principal.userId());
+        assertEquals("jdoe", principal.username());
+        assertEquals("HR", principal.role());
+        assertNull(principal.employeeId());
+        assertEquals(Instant.parse("2030-01-01T16:00:00Z"), principal.expiresAt());
+    }
+
+    @Test
+    void tamperedOrForeignTokensAreRejected() {
+        TokenService tokens = service(KEY_A, "");
+        String token = tokens.issue(user());
+        String[] parts = token.split("\\.");
+        String forgedClaims = Base64.getUrlEncoder().withoutPadding().encodeToString(
+            "{\"sub\":\"1\",\"role\":\"ADMIN\",\"exp\":4102444800}".getBytes());
+
+        assertTrue(tokens.verify(parts[0] + "." + forgedClaims + "." + parts[2]).isEmpty());
+        assertTrue(tokens.verify("not-a-token").isEmpty());
+        assertTrue(service(KEY_B, "").verify(token).isEmpty());
+    }
+
+    @Test
+    void expiredTokenIsRejectedEvenWhenCached() {
+        TokenService tokens = service(KEY_A, "");
+        String token = tokens.issue(user());
+        assertTrue(tokens.verify(token).isPresent());
+
+        clock.advance(Duration.ofHours(8));
+
+        assertTrue(tokens.verify(token).isEmpty());
+    }
+
+    @Test
+    void rotationKeepsOldTokensValidUntilTheyExpire() {
+        TokenService tokens = service(KEY_A + "," + KEY_B, "a");
+        String signedWithA = tokens.issue(user());
+
+        // Configured rotation: the new active key is added while the old one stays in the ring
+        TokenService rotated = service(KEY_A + "," + KEY_B, "b");
+        assertTrue(rotated.verify(signedWithA).isPresent());
+
+        // In-process rotation: new tokens use the generated key, earlier ones verify until they expire
+        TokenService local = service("", "");
+        String signedWithFirst = local.issue(user());
+        String generatedKey = local.rotateKey();
+        String signedWithGenerated = local.issue(user());
+        assertTrue(header(signedWithGenerated).contains("\"kid\":\"" + generatedKey + "\""));
+        assertTrue(local.verify(signedWithFirst).isPresent());
+        assertTrue(local.verify(signedWithGenerated).isPresent());
+
+        clock.advance(Duration.ofHours(9));
+        local.rotateKey();
+        assertTrue(local.verify(local.issue(user())).isPresent());
+    }
+
+    @Test
+    void scheduledRotationCyclesThroughConfiguredKeysOnly() {
+        TokenService first = service(KEY_A + "," + KEY_B, "a");
+        TokenService second = service(KEY_A + "," + KEY_B, "a");
+
+        assertEquals("b", first.rotateKey());
+        assertEquals("b", second.rotateKey());
+        String token = first.issue(user());
+        assertTrue(header(token).contains("\"kid\":\"b\""));
+        assertTrue(second.verify(token).isPresent());
+
+        assertEquals("a", first.rotateKey());
+        assertTrue(second.verify(first.issue(user())).isPresent());
+    }
+
+    private static String header(String token) {
+        return new String(Base64.getUrlDecoder().decode(token.substring(0, token.indexOf('.'))));
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        private void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
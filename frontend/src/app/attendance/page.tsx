@@ -2,15 +2,19 @@
 
 import { useAuth } from "@/context/AuthContext";
 import { attAPI, empApi } from "@/services/api";
-import { Attendance, Employee } from "@/types";
+import { AttendanceRow, CursorPage, Employee } from "@/types";
 import { Alert, Box, Button, CircularProgress, Container, FormControl, Grid, InputLabel, MenuItem, Paper, Select, SelectChangeEvent, Snackbar, Table, TableBody, TableCell, TableContainer, TableHead, TableRow, TextField, Typography } from "@mui/material";
 import { useEffect, useState } from "react";
 
+const PAGE_SIZE = 50;
+
 export default function AttendancePage () {
     const { user } = useAuth();
-    const [attendances, setAttendances] = useState<Attendance[]>([]);
+    const [attendances, setAttendances] = useState<AttendanceRow[]>([]);
+    const [nextCursor, setNextCursor] = useState<string | null>(null);
     const [employees, setEmployees] = useState<Employee[]>([]);
     const [loading, setLoading] = useState(false);
+    const [loadingMore, setLoadingMore] = useState(false);
     const [selectedDate, setSelectedDate] = useState(new Date().toISOString().split('T')[0]);
     const [selectedEmployee, setSelectedEmployee] = useState('');
     const [showMarkForm, setShowMarkForm] = useState(false);
@@ -18,25 +22,23 @@ export default function AttendancePage () {
     const [message, setMessage] = useState({ type: '', text: ''});
     const [snackbarOpen, setSnackbarOpen] = useState(false);
 
+    // filtering happens server side, one page at a time
+    const fetchPage = (cursor?: string): Promise<CursorPage<AttendanceRow>> => attAPI.getPage({
+        date: selectedDate,
+        employeeId: selectedEmployee ? parseInt(selectedEmployee) : undefined,
+        cursor,
+        size: PAGE_SIZE,
+    });
+
     const fetchedData = async () => {
         try {
             setLoading(true);
-            let attendanceData;
             const emps = await empApi.getAll();
             setEmployees(emps);
 
-            if (selectedEmployee) {
-                attendanceData = await attAPI.getByEmployee(parseInt(selectedEmployee));
-            } else {
-                attendanceData = await attAPI.getAll();
-            }
-
-            // filter attendances by selected date if date is provided
-            if (selectedDate) {
-                attendanceData = attendanceData.filter((att: Attendance) => att.date.split('T')[0] === selectedDate);
-            }
-
-            setAttendances(attendanceData);
+            const page = await fetchPage();
+            setAttendances(page.items);
+            setNextCursor(page.nextCursor);
             setLoading(false);
         } catch (error) {
             console.error('Error fetching attendance data: ', error);
@@ -45,13 +47,29 @@ export default function AttendancePage () {
         }
     }
 
+    const handleLoadMore = async () => {
+        if (!nextCursor) return;
+        try {
+            setLoadingMore(true);
+            const page = await fetchPage(nextCursor);
+            setAttendances(prev => [...prev, ...page.items]);
+            setNextCursor(page.nextCursor);
+        } catch (error) {
+            console.error('Error fetching attendance data: ', error);
+            setMessage({type: 'error', text: 'Failed to fetch attendance data'});
+            setSnackbarOpen(true);
+        } finally {
+            setLoadingMore(false);
+        }
+    };
+
+    // the cursor belongs to the filters it was issued for, so any filter change starts again from the first page
     useEffect(() => {
         fetchedData();
-    }, [selectedDate]);
+    }, [selectedDate, selectedEmployee]);
 
     const handleEmployeeSelect = (e: SelectChangeEvent) => {
         setSelectedEmployee(e.target.value);
-        fetchedData();
     };
 
     const handleDateChange = (e: React.ChangeEvent<HTMLInputElement>) => {
@@ -276,12 +294,12 @@ export default function AttendancePage () {
                             </TableHead>
                             <TableBody>
                                 {attendances.map((att) => {
-                                    const employee = employees.find(emp => emp.employeeId === att.employee.employeeId);
+                                    const employee = employees.find(emp => emp.employeeId === att.employeeId);
 
                                     return (
-                                        <TableRow key={att.attendance_id}>
+                                        <TableRow key={att.attendanceId}>
                                             <TableCell>
-                                                {employee ? `${employee.firstName} ${employee.lastName}` : `ID: ${att.employee.employeeId}`}
+                                                {employee ? `${employee.firstName} ${employee.lastName}` : `ID: ${att.employeeId}`}
                                             </TableCell>
                                             <TableCell>
                                                 {new Date(att.date).toLocaleDateString()}
@@ -309,6 +327,13 @@ export default function AttendancePage () {
                         </Table>
                     </TableContainer>
                 )}
+                {!loading && nextCursor && (
+                    <Box sx={{ display: 'flex', justifyContent: 'center', p: 2 }}>
+                        <Button onClick={handleLoadMore} disabled={loadingMore} variant="outlined">
+                            {loadingMore ? 'Loading...' : 'Load more'}
+                        </Button>
+                    </Box>
+                )}
             </Paper>
         </Container>
     )
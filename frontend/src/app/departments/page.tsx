@@ -1,8 +1,8 @@
 'use client';
 
 import { useAuth } from "@/context/AuthContext";
-import { deptAPI, empApi } from "@/services/api";
-import { Department, Employee } from "@/types";
+import { deptAPI } from "@/services/api";
+import { DepartmentSummary } from "@/types";
 import { Add, Delete, Edit, Search, Visibility } from "@mui/icons-material";
 import { Box, Button, Card, CardActions, CardContent, CircularProgress, Container, Dialog, DialogActions, DialogContent, DialogContentText, DialogTitle, Grid, InputAdornment, Paper, TextField, Typography } from "@mui/material";
 import Link from "next/link";
@@ -10,9 +10,8 @@ import { useEffect, useState } from "react";
 
 export default function DepartmentPahe() {
     const { user } = useAuth();
-    const [departments, setDepartments] = useState<Department[]>([]);
+    const [departments, setDepartments] = useState<DepartmentSummary[]>([]);
     const [loading, setLoading] = useState(true);
-    const [employees, setEmployees] = useState<Employee[]>([]);
     const [searchWord, setSearchWord] = useState('');
     const [deleteDialogOpen, setDeleteDialogOpen] = useState(false);
     const [departmentToDelete, setDepartmentToDelete] = useState<number | null>(null);
@@ -20,12 +19,9 @@ export default function DepartmentPahe() {
     useEffect(() => {
         const fetchedData = async () => {
             try {
-                const [depts, emps] = await Promise.all([
-                    deptAPI.getAll(),
-                    empApi.getAll()
-                ]);
+                // summaries already carry manager name and headcount
+                const depts: DepartmentSummary[] = await deptAPI.getAll();
                 setDepartments(depts);
-                setEmployees(emps);
                 setLoading(false);
             } catch (error) {
                 console.error('Error fetching employees: ', error);
@@ -59,10 +55,6 @@ export default function DepartmentPahe() {
                 dept.location.toLowerCase().includes(searchWord.toLowerCase())
     );
 
-    const getEmployeeCount = (departmentId: number) => {
-        return employees.filter(emp => emp.department?.departmentId === departmentId).length;
-    };
-
     return (
         <Container maxWidth="xl">
             <Box sx={{ py: 3 }}>
@@ -121,12 +113,10 @@ export default function DepartmentPahe() {
                                     <Box component="span" fontWeight="medium">Location:</Box> {department.location}
                                 </Typography>
                                 <Typography variant="body2" color="text.secondary">
-                                    <Box component="span" fontWeight="medium">Manager:</Box> {department.manager ? 
-                                    `${department.manager.firstName} ${department.manager.lastName}` : 
-                                    'Not Assigned'}
+                                    <Box component="span" fontWeight="medium">Manager:</Box> {department.managerName ?? 'Not Assigned'}
                                 </Typography>
                                 <Typography variant="body2" color="text.secondary">
-                                    <Box component="span" fontWeight="medium">Employees:</Box> {getEmployeeCount(department.departmentId)}
+                                    <Box component="span" fontWeight="medium">Employees:</Box> {department.headcount}
                                 </Typography>
                                 </Box>
                             </CardContent>
@@ -15,6 +15,8 @@ export interface User {
         firstName: string;
         lastName: string;
     };
+    token?: string;
+    expiresAt?: string;
 }
 
 // interface to define the authetication context
@@ -1,6 +1,7 @@
 //services/api.ts
 
 import { stat } from "fs";
+import { LeaveQueueEvent } from "@/types";
 
 const API_URL = 'http://localhost:8080';
 
@@ -24,9 +25,10 @@ const handleResponse = async (response: Response) => {
 // generic request function
 const request = async (endpoint: string, options = {}) => {
     const user = localStorage.getItem('user');
+    const token = user ? JSON.parse(user).token : undefined;
     const headers= {
         'Content-Type': 'application/json',
-        ...(user ? {Authorization: `Bearer ${JSON.parse(user).token}`} : {})
+        ...(token ? {Authorization: `Bearer ${token}`} : {})
     };
 
     const response = await fetch(`${API_URL}${endpoint}`, {
@@ -37,6 +39,11 @@ const request = async (endpoint: string, options = {}) => {
         },
     });
 
+    // token expired or signed with a retired key; drop it so the next login issues a fresh one
+    if (response.status === 401 && token) {
+        localStorage.removeItem('user');
+    }
+
     return handleResponse(response);
 };
 
@@ -46,6 +53,7 @@ export const empApi = {
     getById: (id: number) => request((`/employee/${id}`)),
     create: (data: any) => request(`/employee`, { method: 'POST', body: JSON.stringify(data)}),
     update: (id: number, data: any) => request(`/employee/${id}`, {method: 'PUT', body: JSON.stringify(data)}),
+    patch: (id: number, changes: Record<string, any>) => request(`/employee/${id}`, { method: 'PATCH', body: JSON.stringify(changes) }),
     delete: (id: number) => request(`/employee/${id}`, { method: 'DELETE'}),
     getByDepartment: (deptId: number) => request(`/employee/department/${deptId}`),
     assignToDept: (empId: number, deptId: number) => request(`/employee/${empId}/department/${deptId}`, { method: 'PUT' }),
@@ -59,6 +67,7 @@ export const deptAPI = {
     getById: (id: number) => request(`/departments/${id}`),
     create: (data: any) => request('/departments', { method: 'POST', body: JSON.stringify(data) }),
     update: (id: number, data: any) => request(`/departments/${id}`, { method: 'PUT', body: JSON.stringify(data) }),
+    patch: (id: number, changes: Record<string, any>) => request(`/departments/${id}`, { method: 'PATCH', body: JSON.stringify(changes) }),
     delete: (id: number) => request(`/departments/${id}`, { method: 'DELETE' }),
     assignManager: (departmentId: number, managerId: number) => request(`/departments/${departmentId}/manager/${managerId}`, { method: 'PUT' }),
     getEmployees: (departmentId: number) => request(`/departments/${departmentId}/employees`),
@@ -71,6 +80,7 @@ export const userAPI = {
     getById: (id: number) => request(`/users/${id}`),
     register: (data: any) => request('/users/register', { method: 'POST', body: JSON.stringify(data) }),
     update: (id: number, data: any) => request(`/users/${id}`, { method: 'PUT', body: JSON.stringify(data) }),
+    patch: (id: number, changes: Record<string, any>) => request(`/users/${id}`, { method: 'PATCH', body: JSON.stringify(changes) }),
     delete: (id: number) => request(`/users/${id}`, { method: 'DELETE' }),
     updateStatus: (userId: number, status: string) => request(`/users/${userId}/status/${status}`, { method: 'PUT' }),
     assignRole: (userId: number, role: string) => request(`/users/${userId}/role/${role}`, { method: 'PUT' }),
@@ -81,6 +91,13 @@ export const userAPI = {
 // attendance api
 export const attAPI = {
     getAll: () => request('/attendance'),
+    getPage: (params: { date?: string; employeeId?: number; departmentId?: number; status?: string; cursor?: string; size?: number }) => {
+        const query = new URLSearchParams();
+        Object.entries(params).forEach(([key, value]) => {
+            if (value !== undefined && value !== '') query.append(key, String(value));
+        });
+        return request(`/attendance/page?${query.toString()}`);
+    },
     getById: (id: number) => request(`/attendance/${id}`),
     getByEmployee: (employeeId: number) => request(`/attendance/employee/${employeeId}`),
     clockIn: (employeeId: number) => request(`/attendance/employee/${employeeId}/clock-in`, { method: 'POST' }),
@@ -93,9 +110,34 @@ export const leaveAPI = {
     getById: (id: number) => request(`/leave/${id}`),
     getByEmployee: (employeeId: number) => request(`/leave/employee/${employeeId}`),
     getByStatus: (status: string) => request(`/leave/status/${status}`),
+    getCalendar: (params: { departmentId?: number; managerId?: number; startDate: string; endDate: string }) => {
+        const query = new URLSearchParams({ startDate: params.startDate, endDate: params.endDate });
+        if (params.departmentId) query.set('departmentId', String(params.departmentId));
+        if (params.managerId) query.set('managerId', String(params.managerId));
+        return request(`/leave/calendar?${query}`);
+    },
     apply: (data: any) => request('/leave', { method: 'POST', body: JSON.stringify(data) }),
     approve: (leaveId: number, approverId: number) => request(`/leave/${leaveId}/approve?approverId=${approverId}`, { method: 'PUT' }),
     reject: (leaveId: number, reviewerId: number) => request(`/leave/${leaveId}/reject?reviewerId=${reviewerId}`, { method: 'PUT' }),
-    cancel: (leaveId: number) => request(`/leave/${leaveId}/cancel`, { method: 'PUT' })
+    cancel: (leaveId: number) => request(`/leave/${leaveId}/cancel`, { method: 'PUT' }),
+    bulkApprove: (leaveIds: number[], reviewerId: number) => request('/leave/bulk/approve', { method: 'PUT', body: JSON.stringify({ leaveIds, reviewerId }) }),
+    bulkReject: (leaveIds: number[], reviewerId: number) => request('/leave/bulk/reject', { method: 'PUT', body: JSON.stringify({ leaveIds, reviewerId }) }),
+    bulkCancel: (leaveIds: number[]) => request('/leave/bulk/cancel', { method: 'PUT', body: JSON.stringify({ leaveIds }) }),
+    getQueue: (managerId: number, cursor?: string, size = 50) => {
+        const query = new URLSearchParams({ managerId: String(managerId), size: String(size) });
+        if (cursor) query.set('cursor', cursor);
+        return request(`/leave/queue?${query}`);
+    },
+    // caller closes the returned EventSource when the view unmounts
+    subscribeQueue: (managerId: number, onEvent: (event: LeaveQueueEvent) => void) => {
+        // EventSource cannot send an Authorization header, so the token travels as a query parameter
+        const user = localStorage.getItem('user');
+        const token = user ? JSON.parse(user).token : undefined;
+        const query = new URLSearchParams({ managerId: String(managerId) });
+        if (token) query.set('access_token', token);
+        const source = new EventSource(`${API_URL}/leave/queue/stream?${query}`);
+        source.addEventListener('leave', (e) => onEvent(JSON.parse((e as MessageEvent).data)));
+        return source;
+    }
 }
 
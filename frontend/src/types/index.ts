@@ -39,6 +39,30 @@ export interface Attendance {
     updatedAt: string;
 }
   
+export interface AttendanceRow {
+    attendanceId: number;
+    employeeId: number;
+    date: string;
+    clockIn: string;
+    clockOut: string;
+    status: string;
+    workingHrs: number;
+}
+
+export interface DepartmentSummary {
+    departmentId: number;
+    departmentName: string;
+    location: string;
+    managerId: number | null;
+    managerName: string | null;
+    headcount: number;
+}
+
+export interface CursorPage<T> {
+    items: T[];
+    nextCursor: string | null;
+}
+  
 export interface Leave {
     leave_id: number;
     employee: Employee;
@@ -53,6 +77,47 @@ export interface Leave {
     createdAt: string;
     updatedAt: string;
 }
+
+export interface TeamLeaveEntry {
+    leaveId: number;
+    employeeId: number;
+    employeeName: string;
+    leaveType: string;
+    status: string;
+}
+
+export interface TeamLeaveDay {
+    date: string;
+    approved: number;
+    pending: number;
+    onLeave: TeamLeaveEntry[];
+}
+
+export interface TeamLeaveCalendar {
+    startDate: string;
+    endDate: string;
+    teamSize: number;
+    days: TeamLeaveDay[];
+}
+  
+export interface PendingLeave {
+    leaveId: number;
+    employeeId: number;
+    employeeName: string;
+    leaveType: string;
+    startDate: string;
+    endDate: string;
+    totalDays: number;
+    reason: string;
+    createdAt: string;
+}
+
+export interface LeaveQueueEvent {
+    type: 'ADDED' | 'REMOVED';
+    leaveId: number;
+    status: string;
+    leave: PendingLeave | null;
+}
   
 export interface User {
     userId: number;